@@ -2,12 +2,18 @@ package com.forohub.foro_api;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class ForoApiApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(ForoApiApplication.class, args);
+		SpringApplication aplicacion = new SpringApplication(ForoApiApplication.class);
+		// Guarda los pasos del arranque para /actuator/startup
+		aplicacion.setApplicationStartup(new BufferingApplicationStartup(4096));
+		aplicacion.run(args);
 	}
 
 }
@@ -2,10 +2,13 @@ package com.forohub.foro_api.controller;
 
 import com.forohub.foro_api.dto.DatosAutenticacionUsuario;
 import com.forohub.foro_api.infra.security.DatosJWTToken;
+import com.forohub.foro_api.infra.security.ListaRevocacion;
 import com.forohub.foro_api.infra.security.TokenService;
 import com.forohub.foro_api.model.Usuario;
+import com.forohub.foro_api.service.UsuarioService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,11 +18,10 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
-@RequestMapping("/login")
 @Tag(name = "Authentication", description = "Endpoints para autenticación de usuarios ya registrados y gestión de tokens JWT.")
 public class AuthenticationController {
 
@@ -29,14 +31,23 @@ public class AuthenticationController {
     @Autowired
     private TokenService tokenService;
 
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private ListaRevocacion listaRevocacion;
+
 
     /**
      * Autentica a un usuario y genera un token JWT.
      *
+     * Si la clave guardada se generó con un costo de BCrypt distinto del actual, se regenera
+     * de forma transparente aprovechando que la clave acaba de verificarse.
+     *
      * @param datosAutenticacionUsuario Datos de autenticación del usuario.
      * @return ResponseEntity con el token JWT o un mensaje de error.
      */
-    @PostMapping()
+    @PostMapping("/login")
     @Operation(summary = "Autenticar usuario",
             description = "Autentica a un usuario con sus credenciales y genera un token JWT.")
     public ResponseEntity<?> autenticarUsuario(
@@ -48,10 +59,32 @@ public class AuthenticationController {
                     datosAutenticacionUsuario.clave()
             );
             var usuarioAutenticado = authenticationManager.authenticate(authenticationToken);
-            var JWTtoken = tokenService.generarToken((Usuario) usuarioAutenticado.getPrincipal());
+            var usuario = (Usuario) usuarioAutenticado.getPrincipal();
+            usuarioService.actualizarHashSiCorresponde(usuario, datosAutenticacionUsuario.clave());
+            var JWTtoken = tokenService.generarToken(usuario);
             return ResponseEntity.ok(new DatosJWTToken(JWTtoken));
         } catch (AuthenticationException e) {
             return ResponseEntity.status(401).body("Authentication failed");
         }
     }
+
+
+    /**
+     * Cierra la sesión revocando el token JWT con el que se hizo la petición.
+     *
+     * @param authHeader Cabecera Authorization con el token a revocar.
+     * @return ResponseEntity con un mensaje de confirmación.
+     */
+    @PostMapping("/logout")
+    @Operation(summary = "Cerrar sesión",
+            description = "Revoca el token JWT actual; deja de ser aceptado aunque todavía no haya vencido.")
+    @SecurityRequirement(name = "bearer-key")
+    public ResponseEntity<String> cerrarSesion(@RequestHeader("Authorization") String authHeader) {
+        var jwt = tokenService.verificar(authHeader.replace("Bearer ", ""));
+        if (jwt == null || jwt.getId() == null) {
+            return ResponseEntity.badRequest().body("Token inválido");
+        }
+        listaRevocacion.revocar(jwt);
+        return ResponseEntity.ok("Sesión cerrada exitosamente");
+    }
 }
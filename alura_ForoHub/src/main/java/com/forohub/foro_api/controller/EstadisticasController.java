@@ -0,0 +1,48 @@
+package com.forohub.foro_api.controller;
+
+import com.forohub.foro_api.dto.DatosEstadisticasCurso;
+import com.forohub.foro_api.service.estadisticas.EstadisticasService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@Tag(name = "Estadísticas", description = "Endpoints para consultar la actividad del foro por curso.")
+@RestController
+@RequestMapping("/estadisticas")
+@SecurityRequirement(name = "bearer-key")
+public class EstadisticasController {
+
+    @Autowired
+    private EstadisticasService estadisticasService;
+
+    /**
+     * Obtiene las estadísticas de un curso o de todos.
+     *
+     * @param curso Curso a consultar; si se omite, se devuelven todos.
+     * @param dias Días hacia atrás de la actividad diaria.
+     * @param autores Cantidad de autores principales por curso.
+     * @return ResponseEntity<List<DatosEstadisticasCurso>> con las estadísticas de cada curso.
+     */
+    @GetMapping
+    @Operation(summary = "Obtener estadísticas por curso",
+            description = "Devuelve la cantidad de tópicos abiertos, actualizados y cerrados, los tópicos y mensajes por día, " +
+                    "la mediana de la demora hasta la primera respuesta y los autores con más mensajes de cada curso.")
+    public ResponseEntity<List<DatosEstadisticasCurso>> obtenerEstadisticas(
+            @Parameter(description = "Curso a consultar")
+            @RequestParam(required = false) String curso,
+            @Parameter(description = "Días hacia atrás de la actividad diaria")
+            @RequestParam(defaultValue = "30") int dias,
+            @Parameter(description = "Cantidad de autores principales por curso")
+            @RequestParam(defaultValue = "10") int autores) {
+        return ResponseEntity.ok(estadisticasService.consultar(curso, dias, autores));
+    }
+}
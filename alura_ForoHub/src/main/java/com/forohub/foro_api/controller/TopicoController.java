@@ -2,6 +2,7 @@ package com.forohub.foro_api.controller;
 
 import com.forohub.foro_api.dto.*;
 import com.forohub.foro_api.model.*;
+import com.forohub.foro_api.service.ContadorVistas;
 import com.forohub.foro_api.service.TopicoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,17 +12,21 @@ import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.data.web.SlicedResourcesAssembler;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.SlicedModel;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
+import java.util.List;
 import java.util.Optional;
 
 @RestController
@@ -33,9 +38,18 @@ public class TopicoController {
     @Autowired
     private TopicoService topicoService;
 
+    @Autowired
+    private ContadorVistas contadorVistas;
+
     @Autowired
     private PagedResourcesAssembler<DatosListadoTopico> pagedResourcesAssembler;
 
+    @Autowired
+    private SlicedResourcesAssembler<DatosListadoTopico> slicedResourcesAssembler;
+
+    @Autowired
+    private PagedResourcesAssembler<DatosTopicoParcial> parcialesResourcesAssembler;
+
 
     /**
      * Registra un nuevo tópico.
@@ -63,6 +77,8 @@ public class TopicoController {
     /**
      * Lista los tópicos existentes.
      *
+     * Admite ordenar por cantidad de vistas con {@code sort=vistas,desc}.
+     *
      * @param paginacion Información de paginación y ordenamiento.
      * @return ResponseEntity con el modelo paginado de los tópicos listados.
      */
@@ -82,6 +98,73 @@ public class TopicoController {
     }
 
 
+    /**
+     * Lista los tópicos existentes sin calcular el total de elementos ni de páginas.
+     *
+     * @param paginacion Información de paginación y ordenamiento.
+     * @return ResponseEntity con el tramo de tópicos y el enlace al siguiente, si lo hay.
+     */
+    @GetMapping(params = {"total=false", "!ids", "!fields"})
+    @Operation(summary = "Obtiene la lista de tópicos sin total",
+            description = "Igual que el listado de tópicos, pero sin total de elementos; solo indica si hay página siguiente")
+    public ResponseEntity<SlicedModel<EntityModel<DatosListadoTopico>>> listadoTopicosSinTotal(
+            @PageableDefault(size = 10, sort = "fecha", direction = Sort.Direction.ASC) Pageable paginacion) {
+        Slice<DatosListadoTopico> topicosSlice = topicoService.listarTopicosSinTotal(paginacion);
+        return ResponseEntity.ok(topicoService.convertirASlicedModel(topicosSlice, slicedResourcesAssembler, paginacion));
+    }
+
+
+    /**
+     * Lista los tópicos existentes con solo los campos indicados, p. ej. {@code ?fields=id,titulo,status}.
+     *
+     * @param campos Campos a incluir: id, titulo, fecha, status, autor, curso y mensajes.
+     * @param paginacion Información de paginación y ordenamiento.
+     * @return ResponseEntity con el modelo paginado de los tópicos parciales.
+     */
+    @GetMapping(params = {"fields", "!ids"})
+    @Operation(summary = "Obtiene la lista de tópicos con campos seleccionados",
+            description = "Igual que el listado de tópicos, pero cada tópico trae solo los campos indicados en fields")
+    public ResponseEntity<PagedModel<EntityModel<DatosTopicoParcial>>> listadoTopicosParcial(
+            @Parameter(description = "Campos separados por comas", required = true)
+            @RequestParam(name = "fields") String campos,
+            @PageableDefault(size = 10, sort = "fecha", direction = Sort.Direction.ASC) Pageable paginacion) {
+        Page<DatosTopicoParcial> topicosPage = topicoService.listarTopicosParciales(campos, paginacion);
+        return ResponseEntity.ok(topicoService.convertirAPagedModel(topicosPage, parcialesResourcesAssembler, paginacion));
+    }
+
+
+    /**
+     * Obtiene varios tópicos por sus IDs en una sola petición, p. ej. {@code ?ids=1,2,3}.
+     *
+     * @param ids IDs de los tópicos.
+     * @return ResponseEntity con un resultado por ID, en el orden pedido.
+     */
+    @GetMapping(params = "ids")
+    @Operation(summary = "Obtiene varios tópicos por ID",
+            description = "Devuelve los tópicos pedidos con una vista previa de sus últimos mensajes, en el orden de los IDs e indicando los que no existen")
+    public ResponseEntity<List<DatosResultadoTopico>> buscarTopicosPorIds(
+            @Parameter(description = "IDs de los tópicos separados por comas", required = true)
+            @RequestParam(name = "ids") List<Long> ids) {
+        return ResponseEntity.ok(topicoService.buscarTopicosPorIds(ids));
+    }
+
+
+    /**
+     * Obtiene varios tópicos por sus IDs enviados en el cuerpo, para listas que no caben en la URL.
+     *
+     * @param consulta IDs de los tópicos.
+     * @return ResponseEntity con un resultado por ID, en el orden pedido.
+     */
+    @PostMapping("/consulta")
+    @Operation(summary = "Obtiene varios tópicos por ID (cuerpo)",
+            description = "Igual que GET /topicos?ids=..., con los IDs en el cuerpo de la petición")
+    public ResponseEntity<List<DatosResultadoTopico>> consultarTopicosPorIds(
+            @Parameter(description = "IDs de los tópicos", required = true)
+            @Valid @RequestBody DatosConsultaTopicos consulta) {
+        return ResponseEntity.ok(topicoService.buscarTopicosPorIds(consulta.ids()));
+    }
+
+
     /**
      * Busca los tópicos existentes referentes a un curso en específico.
      *
@@ -110,6 +193,90 @@ public class TopicoController {
     }
 
 
+    /**
+     * Busca los tópicos de un curso con solo los campos indicados.
+     *
+     * @param nombreCurso Nombre del curso.
+     * @param campos Campos a incluir: id, titulo, fecha, status, autor, curso y mensajes.
+     * @param paginacion  Información de paginación y ordenamiento.
+     * @return ResponseEntity con el modelo paginado de los tópicos parciales del curso.
+     */
+    @GetMapping(value = "/buscar", params = "fields")
+    @Operation(summary = "Buscar tópicos por curso con campos seleccionados",
+            description = "Igual que la búsqueda por curso, pero cada tópico trae solo los campos indicados en fields")
+    public ResponseEntity<PagedModel<EntityModel<DatosTopicoParcial>>> buscarTopicosPorCursoParcial(
+            @Parameter(description = "Nombre del curso", required = true)
+            @RequestParam(name = "curso") String nombreCurso,
+            @Parameter(description = "Campos separados por comas", required = true)
+            @RequestParam(name = "fields") String campos,
+            @Parameter(description = "Información de paginación y ordenamiento")
+            @PageableDefault(size = 10, sort = "fecha", direction = Sort.Direction.ASC) Pageable paginacion) {
+        Page<DatosTopicoParcial> topicosPage = topicoService.buscarTopicosPorCursoParciales(nombreCurso, campos, paginacion);
+        return ResponseEntity.ok(topicoService.convertirAPagedModel(topicosPage, parcialesResourcesAssembler, paginacion));
+    }
+
+
+    /**
+     * Busca los tópicos de un curso sin calcular el total de elementos ni de páginas.
+     *
+     * @param nombreCurso Nombre del curso.
+     * @param paginacion  Información de paginación y ordenamiento.
+     * @return ResponseEntity con el tramo de tópicos del curso y el enlace al siguiente, si lo hay.
+     */
+    @GetMapping(value = "/buscar", params = {"total=false", "!fields"})
+    @Operation(summary = "Buscar tópicos por curso sin total",
+            description = "Igual que la búsqueda por curso, pero sin total de elementos; solo indica si hay página siguiente")
+    public ResponseEntity<SlicedModel<EntityModel<DatosListadoTopico>>> buscarTopicosPorCursoSinTotal(
+            @Parameter(description = "Nombre del curso", required = true)
+            @RequestParam(name = "curso") String nombreCurso,
+            @Parameter(description = "Información de paginación y ordenamiento")
+            @PageableDefault(size = 10, sort = "fecha", direction = Sort.Direction.ASC) Pageable paginacion) {
+        Slice<DatosListadoTopico> topicosSlice = topicoService.buscarTopicosPorCursoSinTotal(nombreCurso, paginacion);
+        return ResponseEntity.ok(topicoService.convertirASlicedModel(topicosSlice, slicedResourcesAssembler, paginacion));
+    }
+
+
+    /**
+     * Sugiere títulos de tópicos existentes a partir de un prefijo, para evitar duplicados.
+     *
+     * @param prefijo Texto escrito por el usuario.
+     * @param nombreCurso Nombre del curso para restringir las sugerencias (opcional).
+     * @param limite Cantidad máxima de sugerencias.
+     * @return ResponseEntity con las sugerencias, las de mayor actividad primero.
+     */
+    @GetMapping("/sugerencias")
+    @Operation(summary = "Sugerir títulos de tópicos",
+            description = "Devuelve títulos de tópicos activos que empiezan con el prefijo, sin distinguir tildes ni mayúsculas.")
+    public ResponseEntity<List<DatosSugerenciaTopico>> sugerirTitulos(
+            @Parameter(description = "Prefijo del título", required = true)
+            @RequestParam(name = "prefijo") String prefijo,
+            @Parameter(description = "Nombre del curso")
+            @RequestParam(name = "curso", required = false) String nombreCurso,
+            @Parameter(description = "Cantidad máxima de sugerencias")
+            @RequestParam(name = "limite", defaultValue = "10") int limite) {
+        return ResponseEntity.ok(topicoService.sugerirTitulos(prefijo, nombreCurso, limite));
+    }
+
+
+    /**
+     * Lista los tópicos en tendencia: los de más mensajes recientes.
+     *
+     * @param nombreCurso Nombre del curso para restringir el ranking (opcional).
+     * @param limite Cantidad máxima de tópicos.
+     * @return ResponseEntity con los tópicos en tendencia, el de mayor puntaje primero.
+     */
+    @GetMapping("/trending")
+    @Operation(summary = "Tópicos en tendencia",
+            description = "Devuelve los tópicos activos con más mensajes recientes; el puntaje de cada mensaje se reduce a la mitad tras la vida media configurada.")
+    public ResponseEntity<List<DatosTendenciaTopico>> listarTendencias(
+            @Parameter(description = "Nombre del curso")
+            @RequestParam(name = "curso", required = false) String nombreCurso,
+            @Parameter(description = "Cantidad máxima de tópicos")
+            @RequestParam(name = "limite", defaultValue = "10") int limite) {
+        return ResponseEntity.ok(topicoService.listarTendencias(nombreCurso, limite));
+    }
+
+
      /**
      * Busca un tópico en particular según su ID.
      *
@@ -118,13 +285,14 @@ public class TopicoController {
      */
     @GetMapping("/{id}")
     @Operation(summary = "Obtiene un tópico por ID", description = "Devuelve un tópico específico basado en su ID")
-    public ResponseEntity<EntityModel<Topico>> buscarDetalleTopicoPorId(
+    public ResponseEntity<EntityModel<DatosDetalleTopico>> buscarDetalleTopicoPorId(
             @Parameter(description = "ID del tópico a obtener", required = true) @PathVariable Long id) {
-        Optional<Topico> optionalTopico = topicoService.buscarTopicoPorId(id);
+        Optional<DatosDetalleTopico> optionalTopico = topicoService.buscarTopicoPorId(id);
 
-        // Si el Optional de Topico tiene un valor presente, obtén el objeto Topico y devuelve una respuesta OK con sus datos encapsulados en EntityModel.
+        // Si el Optional tiene un valor presente, devuelve una respuesta OK con el detalle encapsulado en EntityModel.
         if (optionalTopico.isPresent()) {
-            Topico topico = optionalTopico.get();
+            DatosDetalleTopico topico = optionalTopico.get();
+            contadorVistas.registrar(id);
             return ResponseEntity.ok(EntityModel.of(topico));
         } else {
             // Si no se encuentra un Topico con el ID proporcionado, devuelve una respuesta HTTP 404 (Not Found).
@@ -133,6 +301,29 @@ public class TopicoController {
     }
 
 
+    /**
+     * Busca un tópico según su ID con solo los campos indicados.
+     *
+     * @param id Identificador del tópico.
+     * @param campos Campos a incluir: id, titulo, fecha, status, autor, curso y mensajes.
+     * @return Tópico parcial si se encuentra, de lo contrario, 404 Not Found.
+     */
+    @GetMapping(value = "/{id}", params = "fields")
+    @Operation(summary = "Obtiene un tópico por ID con campos seleccionados",
+            description = "Igual que el detalle del tópico, pero solo con los campos indicados en fields")
+    public ResponseEntity<EntityModel<DatosTopicoParcial>> buscarTopicoParcialPorId(
+            @Parameter(description = "ID del tópico a obtener", required = true) @PathVariable Long id,
+            @Parameter(description = "Campos separados por comas", required = true)
+            @RequestParam(name = "fields") String campos) {
+        Optional<DatosTopicoParcial> optionalTopico = topicoService.buscarTopicoParcialPorId(id, campos);
+        if (optionalTopico.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        contadorVistas.registrar(id);
+        return ResponseEntity.ok(EntityModel.of(optionalTopico.get()));
+    }
+
+
     /**
      * Actualiza un tópico existente con nuevos datos.
      *
@@ -211,4 +402,20 @@ public class TopicoController {
         topicoService.eliminarMensaje(idTopico, idMensaje);
         return ResponseEntity.ok("Mensaje eliminado exitosamente");
     }
+
+
+    /**
+     * Procesa en una sola petición un lote de cierres, eliminaciones de mensajes y actualizaciones.
+     *
+     * @param lote Operaciones a procesar.
+     * @return ResponseEntity con el resultado de cada operación, en el mismo orden del lote.
+     */
+    @PostMapping("/batch")
+    @Operation(summary = "Procesa un lote de operaciones",
+            description = "Cierra tópicos, elimina mensajes y actualiza tópicos en una única transacción, devolviendo el resultado de cada operación.")
+    public ResponseEntity<List<DatosResultadoOperacion>> procesarLote(
+            @Parameter(description = "Operaciones a procesar", required = true)
+            @Valid @RequestBody DatosLoteOperaciones lote) {
+        return ResponseEntity.ok(topicoService.procesarLote(lote));
+    }
 }
@@ -5,6 +5,7 @@ import com.forohub.foro_api.model.Usuario;
 import com.forohub.foro_api.service.UsuarioService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -35,4 +36,21 @@ public class UsuarioController {
         Usuario usuarioCreado = usuarioService.registrarNuevoUsuario(datosNuevoUsuario);
         return ResponseEntity.status(HttpStatus.CREATED).body(usuarioCreado);
     }
+
+    /**
+     * Revoca todos los tokens emitidos hasta ahora para un usuario. Solo para administradores.
+     *
+     * @param id Identificador del usuario.
+     * @return ResponseEntity con un mensaje de confirmación, o 404 Not Found si el usuario no existe.
+     */
+    @PostMapping("/{id}/revocar-tokens")
+    @Operation(summary = "Revocar todos los tokens de un usuario",
+            description = "Invalida todos los tokens JWT vigentes del usuario. Requiere rol ADMIN.")
+    @SecurityRequirement(name = "bearer-key")
+    public ResponseEntity<String> revocarTokens(
+            @Parameter(description = "Identificador del usuario", required = true)
+            @PathVariable Long id) {
+        usuarioService.revocarTokens(id);
+        return ResponseEntity.ok("Tokens revocados exitosamente");
+    }
 }
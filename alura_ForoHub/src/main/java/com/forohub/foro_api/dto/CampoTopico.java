@@ -0,0 +1,35 @@
+package com.forohub.foro_api.dto;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+// Campos de un tópico que se pueden pedir con el parámetro fields; MENSAJES no es una columna de topicos
+public enum CampoTopico {
+    ID("id"),
+    TITULO("titulo"),
+    FECHA("fecha"),
+    STATUS("status"),
+    AUTOR("autor"),
+    CURSO("curso"),
+    MENSAJES("mensajes");
+
+    private final String propiedad;
+
+    CampoTopico(String propiedad) {
+        this.propiedad = propiedad;
+    }
+
+    public String propiedad() {
+        return propiedad;
+    }
+
+    public boolean esColumna() {
+        return this != MENSAJES;
+    }
+
+    public static Optional<CampoTopico> dePropiedad(String propiedad) {
+        return Arrays.stream(values())
+                .filter(campo -> campo.propiedad.equalsIgnoreCase(propiedad))
+                .findFirst();
+    }
+}
@@ -0,0 +1,9 @@
+package com.forohub.foro_api.dto;
+
+import java.time.LocalDate;
+
+public record DatosActividadDia(
+        LocalDate dia,
+        long topicosCreados,
+        long mensajes) {
+}
@@ -0,0 +1,6 @@
+package com.forohub.foro_api.dto;
+
+public record DatosAutorEstadisticas(
+        String autor,
+        long mensajes) {
+}
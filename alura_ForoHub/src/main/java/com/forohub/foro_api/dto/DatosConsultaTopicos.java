@@ -0,0 +1,11 @@
+package com.forohub.foro_api.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+public record DatosConsultaTopicos(
+        @NotEmpty(message = "La consulta debe contener al menos un id.")
+        List<@NotNull Long> ids) {
+}
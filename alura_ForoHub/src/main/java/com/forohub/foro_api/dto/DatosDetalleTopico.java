@@ -0,0 +1,29 @@
+package com.forohub.foro_api.dto;
+
+import com.forohub.foro_api.model.Curso;
+import com.forohub.foro_api.model.Topico;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record DatosDetalleTopico(
+        Long id,
+        String titulo,
+        LocalDateTime fecha,
+        String status,
+        String autor,
+        Curso curso,
+        List<DatosListadoMensaje> mensajes) {
+
+    public DatosDetalleTopico(Topico topico) {
+        this(topico.getId(),
+                topico.getTitulo(),
+                topico.getFecha(),
+                topico.getStatus(),
+                topico.getAutor(),
+                topico.getCurso(),
+                topico.getMensajes().stream()
+                        .map(DatosListadoMensaje::new)
+                        .toList());
+    }
+}
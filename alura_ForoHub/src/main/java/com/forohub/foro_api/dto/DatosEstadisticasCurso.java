@@ -0,0 +1,16 @@
+package com.forohub.foro_api.dto;
+
+import com.forohub.foro_api.model.Curso;
+
+import java.util.List;
+
+// Estadísticas de un curso; medianaPrimeraRespuestaSegundos es null si ningún tópico tiene respuestas
+public record DatosEstadisticasCurso(
+        Curso curso,
+        long topicosAbiertos,
+        long topicosActualizados,
+        long topicosCerrados,
+        List<DatosActividadDia> actividadPorDia,
+        Long medianaPrimeraRespuestaSegundos,
+        List<DatosAutorEstadisticas> autoresPrincipales) {
+}
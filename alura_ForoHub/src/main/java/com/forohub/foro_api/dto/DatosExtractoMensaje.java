@@ -0,0 +1,11 @@
+package com.forohub.foro_api.dto;
+
+import java.time.LocalDateTime;
+
+// Vista previa de un mensaje leída sin el contenido completo; extracto es null hasta que el relleno lo calcula
+public record DatosExtractoMensaje(Long idTopico,
+                                   Long id,
+                                   String extracto,
+                                   LocalDateTime fecha,
+                                   String autor) {
+}
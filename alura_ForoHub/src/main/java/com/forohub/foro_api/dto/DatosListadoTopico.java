@@ -22,4 +22,8 @@ public record DatosListadoTopico(
                 topico.getStatus(),
                 topico.getCurso());
     }
+
+    public DatosListadoTopico(Topico topico, List<DatosListadoMensaje> mensajes) {
+        this(topico.getId(), topico.getTitulo(), mensajes, topico.getStatus(), topico.getCurso());
+    }
 }
@@ -0,0 +1,11 @@
+package com.forohub.foro_api.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public record DatosLoteOperaciones(
+        @NotEmpty(message = "El lote debe contener al menos una operación.")
+        List<@Valid DatosOperacionLote> operaciones) {
+}
@@ -0,0 +1,13 @@
+package com.forohub.foro_api.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+public record DatosOperacionLote(
+        @NotNull(message = "El tipo de operación es obligatorio.")
+        TipoOperacionLote tipo,
+        @NotNull(message = "El id del tópico es obligatorio.")
+        Long idTopico,
+        Long idMensaje,
+        String mensaje,
+        String autor) {
+}
@@ -0,0 +1,9 @@
+package com.forohub.foro_api.dto;
+
+public record DatosResultadoOperacion(
+        int indice,
+        TipoOperacionLote tipo,
+        Long idTopico,
+        Long idMensaje,
+        String resultado) {
+}
@@ -0,0 +1,8 @@
+package com.forohub.foro_api.dto;
+
+// Resultado de un id en la consulta de varios tópicos; topico es null si no se encontró
+public record DatosResultadoTopico(
+        Long id,
+        boolean encontrado,
+        DatosListadoTopico topico) {
+}
@@ -0,0 +1,10 @@
+package com.forohub.foro_api.dto;
+
+import com.forohub.foro_api.model.Curso;
+
+public record DatosSugerenciaTopico(
+        Long id,
+        String titulo,
+        Curso curso,
+        int mensajes) {
+}
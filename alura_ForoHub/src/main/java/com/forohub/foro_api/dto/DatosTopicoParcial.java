@@ -0,0 +1,41 @@
+package com.forohub.foro_api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.forohub.foro_api.model.Curso;
+import com.forohub.foro_api.model.Topico;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+// Tópico con solo los campos pedidos en fields; los demás quedan en null y no se serializan
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record DatosTopicoParcial(
+        Long id,
+        String titulo,
+        LocalDateTime fecha,
+        String status,
+        String autor,
+        Curso curso,
+        List<DatosListadoMensaje> mensajes) {
+
+    public DatosTopicoParcial(Topico topico, Set<CampoTopico> campos, List<DatosListadoMensaje> mensajes) {
+        this(topico.getId(),
+                campos.contains(CampoTopico.TITULO) ? topico.getTitulo() : null,
+                campos.contains(CampoTopico.FECHA) ? topico.getFecha() : null,
+                campos.contains(CampoTopico.STATUS) ? topico.getStatus() : null,
+                campos.contains(CampoTopico.AUTOR) ? topico.getAutor() : null,
+                campos.contains(CampoTopico.CURSO) ? topico.getCurso() : null,
+                campos.contains(CampoTopico.MENSAJES) ? mensajes : null);
+    }
+
+    public DatosTopicoParcial(DatosDetalleTopico detalle, Set<CampoTopico> campos) {
+        this(detalle.id(),
+                campos.contains(CampoTopico.TITULO) ? detalle.titulo() : null,
+                campos.contains(CampoTopico.FECHA) ? detalle.fecha() : null,
+                campos.contains(CampoTopico.STATUS) ? detalle.status() : null,
+                campos.contains(CampoTopico.AUTOR) ? detalle.autor() : null,
+                campos.contains(CampoTopico.CURSO) ? detalle.curso() : null,
+                campos.contains(CampoTopico.MENSAJES) ? detalle.mensajes() : null);
+    }
+}
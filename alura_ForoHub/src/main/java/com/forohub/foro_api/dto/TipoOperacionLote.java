@@ -0,0 +1,7 @@
+package com.forohub.foro_api.dto;
+
+public enum TipoOperacionLote {
+    CERRAR_TOPICO,
+    ELIMINAR_MENSAJE,
+    ACTUALIZAR_TOPICO
+}
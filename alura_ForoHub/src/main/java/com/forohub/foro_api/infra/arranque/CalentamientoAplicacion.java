@@ -0,0 +1,176 @@
+package com.forohub.foro_api.infra.arranque;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.forohub.foro_api.dto.DatosListadoTopico;
+import com.forohub.foro_api.infra.security.TokenService;
+import com.forohub.foro_api.infra.shard.MapaShards;
+import com.forohub.foro_api.model.Usuario;
+import com.forohub.foro_api.service.TopicoService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Calentamiento antes de aceptar tráfico: llena el pool de conexiones de cada shard y ejecuta
+ * repetidamente la emisión y verificación de tokens, el listado de tópicos y su serialización a
+ * JSON, hasta que la latencia del listado deja de bajar o se agota el tiempo.
+ *
+ * Corre como ApplicationRunner porque Spring Boot publica el estado de disponibilidad
+ * ACCEPTING_TRAFFIC (y la sonda de readiness pasa a UP) recién después de ejecutar todos los
+ * runners. Cada fase queda registrada como paso en {@code /actuator/startup}. Un fallo no impide
+ * el arranque: se registra y la aplicación sigue en frío.
+ */
+@Component
+public class CalentamientoAplicacion implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CalentamientoAplicacion.class);
+
+    private final TokenService tokenService;
+    private final TopicoService topicoService;
+    private final ObjectMapper objectMapper;
+    private final DataSource dataSource;
+    private final MapaShards mapaShards;
+    private final ApplicationStartup applicationStartup;
+    private final LineaTiempoArranque lineaTiempo;
+
+    @Value("${forohub.calentamiento.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${forohub.calentamiento.conexiones:10}")
+    private int conexiones;
+
+    @Value("${forohub.calentamiento.maximo-iteraciones:3000}")
+    private int maximoIteraciones;
+
+    @Value("${forohub.calentamiento.maximo-ms:30000}")
+    private long maximoMs;
+
+    public CalentamientoAplicacion(TokenService tokenService,
+                                   TopicoService topicoService,
+                                   ObjectMapper objectMapper,
+                                   DataSource dataSource,
+                                   MapaShards mapaShards,
+                                   ApplicationStartup applicationStartup,
+                                   LineaTiempoArranque lineaTiempo) {
+        this.tokenService = tokenService;
+        this.topicoService = topicoService;
+        this.objectMapper = objectMapper;
+        this.dataSource = dataSource;
+        this.mapaShards = mapaShards;
+        this.applicationStartup = applicationStartup;
+        this.lineaTiempo = lineaTiempo;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!habilitado) {
+            return;
+        }
+        long inicio = System.nanoTime();
+        try {
+            fase("forohub.calentamiento.conexiones", this::llenarPools);
+            fase("forohub.calentamiento.tokens", this::calentarTokens);
+            fase("forohub.calentamiento.listados", this::calentarListados);
+        } catch (RuntimeException e) {
+            log.warn("Calentamiento interrumpido; la aplicación arranca en frío", e);
+        }
+        log.info("Calentamiento terminado en {} ms", (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    private void fase(String nombre, Runnable accion) {
+        StartupStep paso = applicationStartup.start(nombre);
+        try {
+            accion.run();
+        } finally {
+            paso.end();
+        }
+    }
+
+    /**
+     * Toma a la vez tantas conexiones como el tamaño configurado en cada shard, para que el pool
+     * abra las conexiones físicas ahora y no durante las primeras peticiones.
+     */
+    private void llenarPools() {
+        mapaShards.enCadaShard(shard -> {
+            List<Connection> tomadas = new ArrayList<>(conexiones);
+            try {
+                for (int i = 0; i < conexiones; i++) {
+                    Connection conexion = dataSource.getConnection();
+                    tomadas.add(conexion);
+                    // El proxy perezoso solo obtiene la conexión física al ejecutar una sentencia
+                    try (Statement sentencia = conexion.createStatement()) {
+                        sentencia.execute("SELECT 1");
+                    }
+                }
+            } catch (SQLException e) {
+                log.warn("No se pudo llenar el pool del shard {}: {}", shard, e.getMessage());
+            } finally {
+                for (Connection conexion : tomadas) {
+                    try {
+                        conexion.close();
+                    } catch (SQLException e) {
+                        log.debug("Error al devolver una conexión al pool", e);
+                    }
+                }
+            }
+        });
+    }
+
+    private void calentarTokens() {
+        Usuario usuario = new Usuario();
+        usuario.setId(0L);
+        usuario.setEmail("calentamiento@forohub.local");
+        for (int i = 0; i < maximoIteraciones; i++) {
+            tokenService.verificar(tokenService.generarToken(usuario));
+        }
+    }
+
+    /**
+     * Repite el listado por el índice en memoria (orden por fecha) y por la base de datos
+     * (orden por vistas), con su serialización, hasta alcanzar el régimen estable.
+     */
+    private void calentarListados() {
+        Pageable porFecha = PageRequest.of(0, 10, Sort.by("fecha"));
+        Pageable porVistas = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "vistas"));
+        RegimenEstable regimen = new RegimenEstable(50, 0.1, 3);
+        long limite = System.nanoTime() + maximoMs * 1_000_000;
+        int iteracion = 0;
+        while (iteracion < maximoIteraciones && System.nanoTime() < limite) {
+            long inicio = System.nanoTime();
+            Page<DatosListadoTopico> pagina = topicoService.listarTopicos(iteracion % 2 == 0 ? porFecha : porVistas);
+            try {
+                objectMapper.writeValueAsBytes(pagina.getContent());
+            } catch (Exception e) {
+                throw new IllegalStateException("No se pudo serializar el listado", e);
+            }
+            topicoService.listarTopicosSinTotal(porFecha);
+            iteracion++;
+            if (regimen.registrar(System.nanoTime() - inicio)) {
+                break;
+            }
+        }
+        if (regimen.estable()) {
+            lineaTiempo.registrarRegimenEstable();
+            log.info("Listado en régimen estable tras {} iteraciones (mediana {} us)", regimen.estableDesde(),
+                    regimen.ultimaMediana() / 1_000);
+        } else {
+            log.info("Listado sin régimen estable tras {} iteraciones", iteracion);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.forohub.foro_api.infra.arranque;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.support.ServletRequestHandledEvent;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * Hitos del arranque medidos desde el inicio de la JVM: contexto listo, fin del calentamiento
+ * (régimen estable), preparado para recibir tráfico y primera petición atendida fuera de actuator.
+ *
+ * Los pasos internos del arranque (beans, Hibernate, Flyway y las fases del calentamiento)
+ * quedan en {@code /actuator/startup}; esta clase resume los hitos en el log y los publica
+ * como métricas {@code forohub.arranque.*}.
+ */
+@Component
+public class LineaTiempoArranque {
+
+    private static final Logger log = LoggerFactory.getLogger(LineaTiempoArranque.class);
+
+    private final long inicioJvm = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private final AtomicBoolean primeraPeticion = new AtomicBoolean();
+
+    private volatile long contextoListo = -1;
+    private volatile long regimenEstable = -1;
+    private volatile long preparado = -1;
+    private volatile long primeraRespuesta = -1;
+
+    public LineaTiempoArranque(MeterRegistry registry) {
+        registrar(registry, "forohub.arranque.contexto", "Tiempo hasta que el contexto de Spring está iniciado", () -> contextoListo);
+        registrar(registry, "forohub.arranque.regimen-estable", "Tiempo hasta que el calentamiento alcanzó el régimen estable", () -> regimenEstable);
+        registrar(registry, "forohub.arranque.preparado", "Tiempo hasta que la aplicación acepta tráfico", () -> preparado);
+        registrar(registry, "forohub.arranque.primera-peticion", "Tiempo hasta la primera petición atendida", () -> primeraRespuesta);
+    }
+
+    private static void registrar(MeterRegistry registry, String nombre, String descripcion, LongSupplier valor) {
+        TimeGauge.builder(nombre, valor, TimeUnit.MILLISECONDS, v -> Math.max(v.getAsLong(), 0))
+                .description(descripcion)
+                .register(registry);
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void alIniciarContexto() {
+        contextoListo = desdeInicio();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alQuedarPreparado() {
+        preparado = desdeInicio();
+        log.info("Arranque: contexto en {} ms, régimen estable en {} ms, preparado en {} ms", contextoListo,
+                regimenEstable, preparado);
+    }
+
+    @EventListener
+    public void alAtenderPeticion(ServletRequestHandledEvent evento) {
+        // Las sondas de salud no cuentan como tráfico
+        if (evento.getRequestUrl().startsWith("/actuator")) {
+            return;
+        }
+        if (!primeraPeticion.getAndSet(true)) {
+            primeraRespuesta = desdeInicio();
+            log.info("Arranque: primera petición ({}) atendida a los {} ms", evento.getRequestUrl(), primeraRespuesta);
+        }
+    }
+
+    /**
+     * Lo informa el calentamiento cuando la latencia del listado deja de bajar.
+     */
+    public void registrarRegimenEstable() {
+        regimenEstable = desdeInicio();
+    }
+
+    private long desdeInicio() {
+        return System.currentTimeMillis() - inicioJvm;
+    }
+}
@@ -0,0 +1,75 @@
+package com.forohub.foro_api.infra.arranque;
+
+import java.util.Arrays;
+
+/**
+ * Detecta cuándo la latencia de una operación repetida deja de bajar, es decir, cuándo el JIT
+ * ya compiló el camino caliente.
+ *
+ * Compara la mediana de cada ventana de mediciones con la de la ventana anterior: el régimen es
+ * estable cuando varias ventanas seguidas no mejoran a su anterior en más de la tolerancia (una
+ * sola no alcanza, porque entre un nivel de compilación y el siguiente la latencia se estanca).
+ */
+public class RegimenEstable {
+
+    private final long[] ventana;
+    private final double tolerancia;
+    private final int ventanasEstables;
+    private int cantidad;
+    private int seguidas;
+    private long medianaAnterior = -1;
+    private int mediciones;
+    private int estableDesde = -1;
+
+    /**
+     * @param tamanioVentana Mediciones por ventana.
+     * @param tolerancia Mejora relativa entre ventanas por debajo de la cual no cuenta como mejora (0.1 = 10 %).
+     * @param ventanasEstables Ventanas seguidas sin mejora necesarias para declarar el régimen estable.
+     */
+    public RegimenEstable(int tamanioVentana, double tolerancia, int ventanasEstables) {
+        this.ventana = new long[tamanioVentana];
+        this.tolerancia = tolerancia;
+        this.ventanasEstables = ventanasEstables;
+    }
+
+    /**
+     * Registra una medición.
+     *
+     * @return true si con esta medición se alcanzó (o ya se había alcanzado) el régimen estable.
+     */
+    public boolean registrar(long nanos) {
+        mediciones++;
+        if (estableDesde >= 0) {
+            return true;
+        }
+        ventana[cantidad++] = nanos;
+        if (cantidad < ventana.length) {
+            return false;
+        }
+        cantidad = 0;
+        long[] ordenada = ventana.clone();
+        Arrays.sort(ordenada);
+        long mediana = ordenada[ordenada.length / 2];
+        boolean sinMejora = medianaAnterior >= 0 && mediana >= medianaAnterior * (1 - tolerancia);
+        seguidas = sinMejora ? seguidas + 1 : 0;
+        medianaAnterior = mediana;
+        if (seguidas >= ventanasEstables) {
+            estableDesde = mediciones;
+        }
+        return estableDesde >= 0;
+    }
+
+    public boolean estable() {
+        return estableDesde >= 0;
+    }
+
+    /** Medición con la que se alcanzó el régimen estable, o -1 si todavía no. */
+    public int estableDesde() {
+        return estableDesde;
+    }
+
+    /** Mediana de la última ventana completa, en nanosegundos, o -1 si no hay ninguna. */
+    public long ultimaMediana() {
+        return medianaAnterior;
+    }
+}
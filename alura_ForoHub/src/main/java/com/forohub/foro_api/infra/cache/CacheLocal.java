@@ -0,0 +1,27 @@
+package com.forohub.foro_api.infra.cache;
+
+/**
+ * Cache en memoria de un nodo que debe invalidarse cuando otro nodo modifica los datos.
+ *
+ * Cada implementación declara la entidad que cubre; el sondeo del registro de cambios le
+ * entrega las claves modificadas en otros nodos.
+ */
+public interface CacheLocal {
+
+    /**
+     * @return Nombre de la entidad cubierta, tal como se guarda en registro_cambios.
+     */
+    String entidad();
+
+    /**
+     * Descarta o recarga la entrada asociada a la clave modificada.
+     *
+     * @param clave Clave de la entidad modificada.
+     */
+    void invalidar(String clave);
+
+    /**
+     * Descarta el contenido completo, por ejemplo cuando el nodo perdió cambios.
+     */
+    void invalidarTodo();
+}
@@ -0,0 +1,87 @@
+package com.forohub.foro_api.infra.cache;
+
+import com.forohub.foro_api.service.eventos.EventoTopico;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Agrega registros a la tabla registro_cambios dentro de la transacción de escritura en curso.
+ *
+ * Las claves se acumulan durante la transacción y se insertan en un único lote justo antes
+ * del commit, por lo que el cambio y su registro se confirman (o se descartan) juntos.
+ */
+@Component
+public class RegistroCambios {
+
+    public static final String TOPICO = "topico";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String nodo;
+
+    public RegistroCambios(JdbcTemplate jdbcTemplate, @Value("${forohub.nodo.id:}") String nodo) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.nodo = nodo.isBlank() ? UUID.randomUUID().toString() : nodo;
+    }
+
+    /**
+     * @return Identificador de este nodo en el registro de cambios.
+     */
+    public String nodo() {
+        return nodo;
+    }
+
+    /**
+     * Registra el cambio de una entidad en la transacción actual.
+     *
+     * @param entidad Nombre de la entidad modificada.
+     * @param clave Clave de la entidad modificada.
+     * @throws IllegalStateException si no hay una transacción activa.
+     */
+    public void registrar(String entidad, Object clave) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("El registro de cambios requiere una transacción activa");
+        }
+        Lote lote = (Lote) TransactionSynchronizationManager.getResource(this);
+        if (lote == null) {
+            lote = new Lote();
+            TransactionSynchronizationManager.bindResource(this, lote);
+            TransactionSynchronizationManager.registerSynchronization(lote);
+        }
+        lote.claves.add(Map.entry(entidad, String.valueOf(clave)));
+    }
+
+    @EventListener
+    public void alModificarTopico(EventoTopico evento) {
+        registrar(TOPICO, evento.idTopico());
+    }
+
+    private final class Lote implements TransactionSynchronization {
+
+        private final Set<Map.Entry<String, String>> claves = new LinkedHashSet<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            jdbcTemplate.batchUpdate("INSERT INTO registro_cambios (entidad, clave, nodo) VALUES (?, ?, ?)",
+                    new ArrayList<>(claves), claves.size(), (ps, cambio) -> {
+                        ps.setString(1, cambio.getKey());
+                        ps.setString(2, cambio.getValue());
+                        ps.setString(3, nodo);
+                    });
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(RegistroCambios.this);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.forohub.foro_api.infra.cache;
+
+import com.forohub.foro_api.infra.shard.MapaShards;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Sigue la tabla registro_cambios de forma incremental e invalida las caches locales
+ * afectadas por escrituras hechas en otros nodos.
+ *
+ * Se guarda el último id procesado (marca de agua) y en cada sondeo se leen solo los
+ * registros posteriores. Como los ids AUTO_INCREMENT se asignan antes del commit, un hueco
+ * en la secuencia puede corresponder a una transacción aún no confirmada: esos ids se vuelven
+ * a consultar durante un tiempo acotado antes de darlos por descartados. La desactualización
+ * máxima de un nodo queda así acotada por el intervalo de sondeo.
+ *
+ * Cada shard tiene su propia tabla registro_cambios, así que la marca de agua y los huecos se
+ * siguen por separado para cada uno.
+ */
+@Component
+public class SondeoRegistroCambios {
+
+    private static final Logger log = LoggerFactory.getLogger(SondeoRegistroCambios.class);
+
+    private static final String COLUMNAS = "SELECT id, entidad, clave, nodo, fecha FROM registro_cambios ";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RegistroCambios registroCambios;
+    private final MapaShards mapaShards;
+    private final Map<String, List<CacheLocal>> cachesPorEntidad;
+    private final Timer retraso;
+
+    @Value("${forohub.cambios.tamanio-lote:1000}")
+    private int tamanioLote;
+
+    @Value("${forohub.cambios.espera-huecos-ms:30000}")
+    private long esperaHuecosMs;
+
+    @Value("${forohub.cambios.retencion-horas:24}")
+    private long retencionHoras;
+
+    private final Map<String, Seguimiento> seguimientos = new HashMap<>();
+
+    public SondeoRegistroCambios(JdbcTemplate jdbcTemplate,
+                                 RegistroCambios registroCambios,
+                                 MapaShards mapaShards,
+                                 List<CacheLocal> caches,
+                                 MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.registroCambios = registroCambios;
+        this.mapaShards = mapaShards;
+        this.cachesPorEntidad = caches.stream().collect(Collectors.groupingBy(CacheLocal::entidad));
+        this.retraso = Timer.builder("forohub.cambios.retraso")
+                .description("Tiempo entre el commit de un cambio en otro nodo y su invalidación local")
+                .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void iniciar() {
+        mapaShards.enCadaShard(shard -> {
+            Long maximo = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM registro_cambios", Long.class);
+            seguimientos.put(shard, new Seguimiento(maximo != null ? maximo : 0));
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${forohub.cambios.sondeo-ms:1000}")
+    public synchronized void sondear() {
+        if (seguimientos.isEmpty()) {
+            return;
+        }
+        mapaShards.enCadaShard(shard -> sondear(seguimientos.get(shard)));
+    }
+
+    private void sondear(Seguimiento seguimiento) {
+        revisarHuecos(seguimiento);
+        Map<Long, Instant> huecos = seguimiento.huecos;
+        long marcaDeAgua = seguimiento.marcaDeAgua;
+        int paso = mapaShards.paso();
+        List<Cambio> cambios;
+        do {
+            cambios = jdbcTemplate.query(COLUMNAS + "WHERE id > ? ORDER BY id LIMIT ?",
+                    (rs, i) -> new Cambio(rs.getLong("id"), rs.getString("entidad"), rs.getString("clave"),
+                            rs.getString("nodo"), rs.getTimestamp("fecha")),
+                    marcaDeAgua, tamanioLote);
+            Instant ahora = Instant.now();
+            for (Cambio cambio : cambios) {
+                // Con shards, los ids de cada tabla avanzan de a mapaShards.paso()
+                if (cambio.id() - marcaDeAgua <= (long) tamanioLote * paso) {
+                    for (long id = marcaDeAgua + paso; id < cambio.id(); id += paso) {
+                        huecos.put(id, ahora);
+                    }
+                }
+                marcaDeAgua = cambio.id();
+                aplicar(cambio);
+            }
+            seguimiento.marcaDeAgua = marcaDeAgua;
+        } while (cambios.size() == tamanioLote);
+    }
+
+    /**
+     * Vuelve a consultar los ids salteados; los que aparecen se aplican y los que superan la
+     * espera máxima se descartan (transacciones revertidas).
+     */
+    private void revisarHuecos(Seguimiento seguimiento) {
+        Map<Long, Instant> huecos = seguimiento.huecos;
+        if (huecos.isEmpty()) {
+            return;
+        }
+        String marcadores = String.join(",", Collections.nCopies(huecos.size(), "?"));
+        List<Cambio> encontrados = jdbcTemplate.query(COLUMNAS + "WHERE id IN (" + marcadores + ")",
+                (rs, i) -> new Cambio(rs.getLong("id"), rs.getString("entidad"), rs.getString("clave"),
+                        rs.getString("nodo"), rs.getTimestamp("fecha")),
+                huecos.keySet().toArray());
+        for (Cambio cambio : encontrados) {
+            huecos.remove(cambio.id());
+            aplicar(cambio);
+        }
+        Instant limite = Instant.now().minusMillis(esperaHuecosMs);
+        huecos.values().removeIf(desde -> desde.isBefore(limite));
+    }
+
+    private void aplicar(Cambio cambio) {
+        if (registroCambios.nodo().equals(cambio.nodo())) {
+            return;
+        }
+        for (CacheLocal cache : cachesPorEntidad.getOrDefault(cambio.entidad(), List.of())) {
+            try {
+                cache.invalidar(cambio.clave());
+            } catch (RuntimeException e) {
+                log.warn("No se pudo invalidar {}:{}; se descarta la cache completa", cambio.entidad(), cambio.clave(), e);
+                cache.invalidarTodo();
+            }
+        }
+        retraso.record(Duration.between(cambio.fecha().toInstant(), Instant.now()));
+    }
+
+    /**
+     * Elimina en bloques los registros que ya superaron el período de retención.
+     */
+    @Scheduled(cron = "${forohub.cambios.limpieza-cron:0 15 * * * *}")
+    public void limpiar() {
+        Timestamp limite = Timestamp.from(Instant.now().minus(Duration.ofHours(retencionHoras)));
+        mapaShards.enCadaShard(shard -> {
+            int eliminados;
+            do {
+                eliminados = jdbcTemplate.update("DELETE FROM registro_cambios WHERE fecha < ? LIMIT 5000", limite);
+            } while (eliminados == 5000);
+        });
+    }
+
+    private static final class Seguimiento {
+
+        private long marcaDeAgua;
+        private final Map<Long, Instant> huecos = new HashMap<>();
+
+        private Seguimiento(long marcaDeAgua) {
+            this.marcaDeAgua = marcaDeAgua;
+        }
+    }
+
+    private record Cambio(long id, String entidad, String clave, String nodo, Timestamp fecha) {
+    }
+}
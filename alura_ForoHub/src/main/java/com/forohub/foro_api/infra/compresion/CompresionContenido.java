@@ -0,0 +1,130 @@
+package com.forohub.foro_api.infra.compresion;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Formato en que se guarda el contenido de los mensajes en la columna {@code mensajes.contenido}.
+ *
+ * El primer byte indica el formato:
+ * <ul>
+ *     <li>{@code 0x01}: comprimido con Deflate, seguido del largo original en bytes (4 bytes) y los datos comprimidos.</li>
+ *     <li>{@code 0x00}: UTF-8 sin comprimir a continuación del marcador.</li>
+ *     <li>Cualquier otro: UTF-8 sin comprimir desde el primer byte.</li>
+ * </ul>
+ * Los mensajes cortos se guardan como UTF-8 sin marcador, igual que las filas anteriores a la
+ * compresión, así que ambos se leen igual; el marcador {@code 0x00} solo aparece si el texto empieza
+ * con uno de los dos bytes reservados.
+ */
+public final class CompresionContenido {
+
+    /** Bytes de UTF-8 a partir de los cuales se intenta comprimir. */
+    public static final int UMBRAL = 1024;
+
+    /** Caracteres del extracto usado en las vistas previas de los listados. */
+    public static final int LARGO_EXTRACTO = 200;
+
+    private static final byte PLANO = 0x00;
+    private static final byte DEFLATE = 0x01;
+
+    private CompresionContenido() {
+    }
+
+    public static byte[] codificar(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        byte[] utf8 = texto.getBytes(StandardCharsets.UTF_8);
+        if (utf8.length >= UMBRAL) {
+            byte[] comprimido = comprimir(utf8);
+            if (comprimido != null) {
+                return comprimido;
+            }
+        }
+        if (utf8.length > 0 && (utf8[0] == PLANO || utf8[0] == DEFLATE)) {
+            byte[] marcado = new byte[utf8.length + 1];
+            marcado[0] = PLANO;
+            System.arraycopy(utf8, 0, marcado, 1, utf8.length);
+            return marcado;
+        }
+        return utf8;
+    }
+
+    public static String decodificar(byte[] datos) {
+        if (datos == null) {
+            return null;
+        }
+        if (datos.length == 0) {
+            return "";
+        }
+        return switch (datos[0]) {
+            case DEFLATE -> new String(descomprimir(datos), StandardCharsets.UTF_8);
+            case PLANO -> new String(datos, 1, datos.length - 1, StandardCharsets.UTF_8);
+            default -> new String(datos, StandardCharsets.UTF_8);
+        };
+    }
+
+    public static boolean estaComprimido(byte[] datos) {
+        return datos != null && datos.length > 0 && datos[0] == DEFLATE;
+    }
+
+    /**
+     * Primeros {@link #LARGO_EXTRACTO} caracteres del texto, sin cortar un par sustituto.
+     */
+    public static String extracto(String texto) {
+        if (texto == null || texto.length() <= LARGO_EXTRACTO) {
+            return texto;
+        }
+        int fin = Character.isHighSurrogate(texto.charAt(LARGO_EXTRACTO - 1)) ? LARGO_EXTRACTO - 1 : LARGO_EXTRACTO;
+        return texto.substring(0, fin);
+    }
+
+    private static byte[] comprimir(byte[] utf8) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            deflater.setInput(utf8);
+            deflater.finish();
+            // Solo vale la pena si ahorra al menos una octava parte; si no, null y se guarda plano
+            int maximo = utf8.length - utf8.length / 8;
+            byte[] salida = new byte[maximo];
+            salida[0] = DEFLATE;
+            ByteBuffer.wrap(salida, 1, 4).putInt(utf8.length);
+            int escritos = 5;
+            while (!deflater.finished() && escritos < maximo) {
+                escritos += deflater.deflate(salida, escritos, maximo - escritos);
+            }
+            return deflater.finished() ? Arrays.copyOf(salida, escritos) : null;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] descomprimir(byte[] datos) {
+        int largo = ByteBuffer.wrap(datos, 1, 4).getInt();
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(datos, 5, datos.length - 5);
+            byte[] utf8 = new byte[largo];
+            int leidos = 0;
+            while (leidos < largo && !inflater.finished()) {
+                int n = inflater.inflate(utf8, leidos, largo - leidos);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                leidos += n;
+            }
+            if (leidos != largo) {
+                throw new IllegalStateException("Contenido comprimido truncado: " + leidos + " de " + largo + " bytes");
+            }
+            return utf8;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Contenido comprimido inválido", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.forohub.foro_api.infra.compresion;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Guarda el contenido de los mensajes con el formato de {@link CompresionContenido}: comprimido
+ * por encima del umbral y como UTF-8 plano por debajo.
+ */
+@Converter
+public class ContenidoComprimidoConverter implements AttributeConverter<String, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(String contenido) {
+        return CompresionContenido.codificar(contenido);
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] datos) {
+        return CompresionContenido.decodificar(datos);
+    }
+}
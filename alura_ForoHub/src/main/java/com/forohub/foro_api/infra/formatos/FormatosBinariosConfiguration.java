@@ -0,0 +1,57 @@
+package com.forohub.foro_api.infra.formatos;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.hateoas.mediatype.hal.HalMediaTypeConfiguration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Representaciones binarias (CBOR con {@code application/cbor} y Smile con
+ * {@code application/x-jackson-smile}) de las respuestas y los cuerpos de las peticiones, para los
+ * servicios internos que consultan los tópicos con frecuencia.
+ *
+ * Los mapeadores salen del mismo Jackson2ObjectMapperBuilder que el de JSON, así que las fechas
+ * y los nombres de los campos son los mismos, y llevan el módulo HAL para que los modelos
+ * paginados conserven {@code _links} y {@code _embedded}. Reemplazan a los conversores CBOR y
+ * Smile que Spring MVC registra por defecto (con fechas como arreglos y sin HAL) y quedan al
+ * final de la lista: sin un Accept explícito la respuesta sigue siendo JSON o HAL.
+ */
+@Configuration
+public class FormatosBinariosConfiguration implements WebMvcConfigurer {
+
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> builders;
+    private final HalMediaTypeConfiguration halConfiguration;
+
+    public FormatosBinariosConfiguration(ObjectProvider<Jackson2ObjectMapperBuilder> builders,
+                                         HalMediaTypeConfiguration halConfiguration) {
+        this.builders = builders;
+        this.halConfiguration = halConfiguration;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                || converter instanceof MappingJackson2SmileHttpMessageConverter);
+        converters.add(new MappingJackson2CborHttpMessageConverter(mapeador(builders.getObject().factory(new CBORFactory()))));
+        converters.add(new MappingJackson2SmileHttpMessageConverter(mapeador(builders.getObject().factory(fabricaSmile()))));
+    }
+
+    // Los autores y los status se repiten en toda la página: Smile los escribe una vez y luego los referencia
+    static SmileFactory fabricaSmile() {
+        return SmileFactory.builder().enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES).build();
+    }
+
+    private ObjectMapper mapeador(Jackson2ObjectMapperBuilder builder) {
+        return halConfiguration.configureObjectMapper(builder.build());
+    }
+}
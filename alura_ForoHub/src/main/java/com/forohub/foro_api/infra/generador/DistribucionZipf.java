@@ -0,0 +1,43 @@
+package com.forohub.foro_api.infra.generador;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Distribución de Zipf sobre 1..n: P(k) es proporcional a 1 / k^exponente. Pocos valores
+ * concentran la mayor parte de la probabilidad, como los hilos largos o los usuarios muy activos.
+ */
+final class DistribucionZipf {
+
+    private final double[] acumulada;
+
+    DistribucionZipf(int n, double exponente) {
+        acumulada = new double[n];
+        double suma = 0;
+        for (int k = 1; k <= n; k++) {
+            suma += 1 / Math.pow(k, exponente);
+            acumulada[k - 1] = suma;
+        }
+        for (int i = 0; i < n; i++) {
+            acumulada[i] /= suma;
+        }
+    }
+
+    /**
+     * @return Un valor entre 1 y n.
+     */
+    int muestra(Random random) {
+        int posicion = Arrays.binarySearch(acumulada, random.nextDouble());
+        return (posicion >= 0 ? posicion : -posicion - 1) + 1;
+    }
+
+    double media() {
+        double media = 0;
+        double anterior = 0;
+        for (int k = 1; k <= acumulada.length; k++) {
+            media += k * (acumulada[k - 1] - anterior);
+            anterior = acumulada[k - 1];
+        }
+        return media;
+    }
+}
@@ -0,0 +1,260 @@
+package com.forohub.foro_api.infra.generador;
+
+import com.forohub.foro_api.infra.compresion.CompresionContenido;
+import com.forohub.foro_api.infra.shard.MapaShards;
+import com.forohub.foro_api.model.Curso;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Llena usuarios, topicos y mensajes con datos sintéticos para pruebas de volumen
+ * (perfil "generador").
+ *
+ * La cantidad de mensajes de cada tópico sigue una distribución de Zipf, así que la mayoría de
+ * los hilos tienen pocas respuestas y unos pocos concentran miles; la actividad de los autores
+ * y las vistas siguen el mismo sesgo. Todo sale de un único Random con semilla fija y de una
+ * fecha de referencia fija, por lo que la misma configuración produce siempre los mismos datos.
+ *
+ * Las filas se insertan con INSERT de varias filas por sentencia e ids explícitos (respetando
+ * el incremento de cada shard), sin pasar por JPA, para poder generar decenas de millones de
+ * mensajes. Pensado para una base de datos recién migrada.
+ */
+@Component
+@Profile("generador")
+public class GeneradorDatos implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(GeneradorDatos.class);
+
+    private static final String[] NOMBRES = {"Ana", "Luis", "María", "Carlos", "Lucía", "Jorge", "Sofía", "Diego",
+            "Valentina", "Martín", "Camila", "Andrés", "Paula", "Javier", "Florencia", "Mateo", "Julieta", "Pedro"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MapaShards mapaShards;
+    private final PasswordEncoder passwordEncoder;
+    private final ConfigurableApplicationContext contexto;
+
+    @Value("${forohub.generador.semilla:42}")
+    private long semilla;
+
+    @Value("${forohub.generador.usuarios:10000}")
+    private int usuarios;
+
+    @Value("${forohub.generador.topicos:100000}")
+    private int topicos;
+
+    @Value("${forohub.generador.maximo-mensajes:5000}")
+    private int maximoMensajes;
+
+    @Value("${forohub.generador.exponente-zipf:1.6}")
+    private double exponenteZipf;
+
+    @Value("${forohub.generador.mediana-palabras:40}")
+    private int medianaPalabras;
+
+    @Value("${forohub.generador.dias:730}")
+    private int dias;
+
+    @Value("${forohub.generador.fecha-referencia:2024-07-01T00:00:00}")
+    private String fechaReferencia;
+
+    @Value("${forohub.generador.tamanio-lote:1000}")
+    private int tamanioLote;
+
+    @Value("${forohub.generador.salir-al-terminar:true}")
+    private boolean salirAlTerminar;
+
+    public GeneradorDatos(JdbcTemplate jdbcTemplate,
+                          MapaShards mapaShards,
+                          PasswordEncoder passwordEncoder,
+                          ConfigurableApplicationContext contexto) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.mapaShards = mapaShards;
+        this.passwordEncoder = passwordEncoder;
+        this.contexto = contexto;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Random random = new Random(semilla);
+        LocalDateTime referencia = LocalDateTime.parse(fechaReferencia);
+        DistribucionZipf largoHilos = new DistribucionZipf(maximoMensajes, exponenteZipf);
+        DistribucionZipf actividadAutores = new DistribucionZipf(usuarios, 1.1);
+        log.info("Generando {} usuarios y {} tópicos (~{} mensajes) con semilla {}", usuarios, topicos,
+                Math.round(topicos * largoHilos.media()), semilla);
+
+        long inicio = System.nanoTime();
+        generarUsuarios(random);
+
+        Map<String, Escritor> escritores = new LinkedHashMap<>();
+        for (String shard : mapaShards.shards()) {
+            escritores.put(shard, new Escritor(shard));
+        }
+        Curso[] cursos = Curso.values();
+        long segundosRango = dias * 86_400L;
+        LocalDateTime desde = referencia.minusSeconds(segundosRango);
+        long mensajes = 0;
+        for (int t = 1; t <= topicos; t++) {
+            Curso curso = cursos[random.nextInt(cursos.length)];
+            Escritor escritor = escritores.get(mapaShards.shardDe(curso));
+            long idTopico = escritor.siguienteTopico();
+            int largo = largoHilos.muestra(random);
+
+            // Fechas de los mensajes: el hilo empieza en el rango y las respuestas llegan después
+            long creado = (long) (random.nextDouble() * segundosRango);
+            long[] segundos = new long[largo];
+            for (int m = 0; m < largo; m++) {
+                segundos[m] = m == 0 ? creado : creado + (long) ((segundosRango - creado) * Math.pow(random.nextDouble(), 3));
+            }
+            Arrays.sort(segundos);
+
+            String autorTopico = email(actividadAutores.muestra(random));
+            LocalDateTime ultimaActividad = desde.plusSeconds(segundos[largo - 1]);
+            String status;
+            if (ultimaActividad.isBefore(referencia.minusDays(90)) && random.nextInt(100) < 40) {
+                status = "CERRADO";
+            } else {
+                status = largo > 1 ? "ACTUALIZADO" : "ABIERTO";
+            }
+            long vistas = Math.round(largo * (5 + random.nextInt(20)) * Math.exp(random.nextGaussian()));
+            escritor.topico(idTopico, TextoSintetico.titulo(random, curso) + " #" + t, Timestamp.valueOf(ultimaActividad),
+                    status, autorTopico, curso.name(), vistas);
+            for (int m = 0; m < largo; m++) {
+                String autor = m == 0 ? autorTopico : email(actividadAutores.muestra(random));
+                escritor.mensaje(TextoSintetico.mensaje(random, medianaPalabras), Timestamp.valueOf(desde.plusSeconds(segundos[m])),
+                        autor, idTopico);
+            }
+            mensajes += largo;
+            if (t % 10_000 == 0) {
+                log.info("{} tópicos y {} mensajes generados", t, mensajes);
+            }
+        }
+        escritores.values().forEach(Escritor::vaciar);
+        log.info("Generación terminada: {} tópicos y {} mensajes en {} s", topicos, mensajes,
+                (System.nanoTime() - inicio) / 1_000_000_000);
+
+        if (salirAlTerminar) {
+            System.exit(SpringApplication.exit(contexto, () -> 0));
+        }
+    }
+
+
+    /**
+     * Los usuarios viven en el shard principal y comparten una única clave ("clave-generada"),
+     * codificada una sola vez porque BCrypt es deliberadamente lento.
+     */
+    private void generarUsuarios(Random random) {
+        String clave = passwordEncoder.encode("clave-generada");
+        List<Object[]> filas = new ArrayList<>(tamanioLote);
+        for (int u = 1; u <= usuarios; u++) {
+            String nombre = NOMBRES[random.nextInt(NOMBRES.length)] + " " + u;
+            filas.add(new Object[]{nombre, email(u), clave});
+            if (filas.size() == tamanioLote || u == usuarios) {
+                insertar("usuarios", "nombre, email, clave", filas);
+                filas.clear();
+            }
+        }
+    }
+
+    private static String email(int usuario) {
+        return "usuario" + usuario + "@forohub.test";
+    }
+
+    private void insertar(String tabla, String columnas, List<Object[]> filas) {
+        if (filas.isEmpty()) {
+            return;
+        }
+        int cantidadColumnas = filas.get(0).length;
+        String grupo = "(" + String.join(", ", Collections.nCopies(cantidadColumnas, "?")) + ")";
+        String sql = "INSERT INTO " + tabla + " (" + columnas + ") VALUES "
+                + String.join(", ", Collections.nCopies(filas.size(), grupo));
+        Object[] parametros = new Object[filas.size() * cantidadColumnas];
+        for (int i = 0; i < filas.size(); i++) {
+            System.arraycopy(filas.get(i), 0, parametros, i * cantidadColumnas, cantidadColumnas);
+        }
+        jdbcTemplate.update(sql, parametros);
+    }
+
+    /**
+     * Acumula las filas de un shard y las inserta por lotes, siempre los tópicos antes que sus
+     * mensajes por la clave foránea.
+     */
+    private final class Escritor {
+
+        private final String shard;
+        private final List<Object[]> topicosPendientes = new ArrayList<>(tamanioLote);
+        private final List<Object[]> mensajesPendientes = new ArrayList<>(tamanioLote);
+        private long proximoTopico;
+        private long proximoMensaje;
+
+        private Escritor(String shard) {
+            this.shard = shard;
+            try (MapaShards.Alcance alcance = mapaShards.usar(shard)) {
+                proximoTopico = siguienteId(jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM topicos", Long.class));
+                proximoMensaje = siguienteId(jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM mensajes", Long.class));
+            }
+        }
+
+        // Primer id mayor que el máximo que corresponde al desplazamiento de este shard
+        private long siguienteId(long maximo) {
+            int paso = mapaShards.paso();
+            long id = maximo + 1;
+            long resto = Math.floorMod(id - mapaShards.desplazamiento(shard), paso);
+            return resto == 0 ? id : id + paso - resto;
+        }
+
+        private long siguienteTopico() {
+            long id = proximoTopico;
+            proximoTopico += mapaShards.paso();
+            return id;
+        }
+
+        private void topico(long id, String titulo, Timestamp fecha, String status, String autor, String curso, long vistas) {
+            topicosPendientes.add(new Object[]{id, titulo, fecha, status, autor, curso, vistas});
+            if (topicosPendientes.size() == tamanioLote) {
+                vaciarTopicos();
+            }
+        }
+
+        private void mensaje(String contenido, Timestamp fecha, String autor, long idTopico) {
+            mensajesPendientes.add(new Object[]{proximoMensaje, CompresionContenido.codificar(contenido),
+                    CompresionContenido.extracto(contenido), fecha, autor, idTopico});
+            proximoMensaje += mapaShards.paso();
+            if (mensajesPendientes.size() == tamanioLote) {
+                vaciarTopicos();
+                vaciarMensajes();
+            }
+        }
+
+        private void vaciar() {
+            vaciarTopicos();
+            vaciarMensajes();
+        }
+
+        private void vaciarTopicos() {
+            try (MapaShards.Alcance alcance = mapaShards.usar(shard)) {
+                insertar("topicos", "id, titulo, fecha, status, autor, curso, vistas", topicosPendientes);
+            }
+            topicosPendientes.clear();
+        }
+
+        private void vaciarMensajes() {
+            try (MapaShards.Alcance alcance = mapaShards.usar(shard)) {
+                insertar("mensajes", "id, contenido, extracto, fecha, autor, topico_id", mensajesPendientes);
+            }
+            mensajesPendientes.clear();
+        }
+    }
+}
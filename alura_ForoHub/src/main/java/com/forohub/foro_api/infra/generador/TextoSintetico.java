@@ -0,0 +1,80 @@
+package com.forohub.foro_api.infra.generador;
+
+import com.forohub.foro_api.model.Curso;
+
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Títulos y mensajes en español con longitudes parecidas a las de un foro real: la cantidad de
+ * palabras de un mensaje sigue una distribución log-normal (la mayoría son cortos y unos pocos
+ * muy largos).
+ */
+final class TextoSintetico {
+
+    private static final String[] PALABRAS = ("el la los las un una de del en con por para que como pero " +
+            "cuando donde porque aunque también muy más menos ya todavía siempre nunca ahora después antes " +
+            "código error método clase función variable proyecto aplicación servidor cliente consulta tabla " +
+            "archivo versión prueba ejemplo problema solución respuesta pregunta duda resultado valor lista " +
+            "objeto dato usuario página formulario botón estilo componente módulo paquete dependencia " +
+            "configuración base índice registro mensaje tópico curso lección ejercicio desafío " +
+            "funciona falla aparece devuelve muestra intenté probé cambié agregué quité revisé encontré " +
+            "necesito quiero puedo debería tengo hice sale queda compila ejecuta carga guarda envía recibe " +
+            "bien mal rápido lento nuevo viejo mismo otro cada todo algún ningún primer último correcto " +
+            "distinto vacío nulo igual gracias hola saludos alguien ayuda idea forma manera paso vez tiempo")
+            .split(" ");
+
+    private static final String[] INICIOS_TITULO = {
+            "¿Cómo", "Error al", "Duda sobre", "Problema con", "No logro", "¿Por qué falla", "Ayuda para",
+            "Consulta sobre", "¿Qué conviene para", "Buenas prácticas para"
+    };
+
+    private static final String[] ACCIONES = {
+            "configurar", "usar", "probar", "instalar", "optimizar", "depurar", "entender", "migrar",
+            "ordenar", "validar", "conectar", "desplegar"
+    };
+
+    private static final Map<Curso, String[]> TEMAS = Map.of(
+            Curso.JAVA, new String[]{"streams", "herencia", "JPA", "Spring Boot", "excepciones", "colecciones", "hilos"},
+            Curso.JAVASCRIPT, new String[]{"promesas", "el DOM", "fetch", "closures", "eventos", "módulos", "async/await"},
+            Curso.MYSQL, new String[]{"un JOIN", "los índices", "una subconsulta", "las transacciones", "GROUP BY", "una vista"},
+            Curso.CSS, new String[]{"flexbox", "grid", "media queries", "animaciones", "selectores", "variables CSS"},
+            Curso.SOFTSKILLS, new String[]{"la comunicación", "el feedback", "la gestión del tiempo", "una entrevista",
+                    "el trabajo en equipo", "la motivación"});
+
+    private TextoSintetico() {
+    }
+
+    static String titulo(Random random, Curso curso) {
+        String[] temas = TEMAS.get(curso);
+        return INICIOS_TITULO[random.nextInt(INICIOS_TITULO.length)] + " "
+                + ACCIONES[random.nextInt(ACCIONES.length)] + " "
+                + temas[random.nextInt(temas.length)];
+    }
+
+    /**
+     * @param medianaPalabras Mediana de la cantidad de palabras del mensaje.
+     */
+    static String mensaje(Random random, int medianaPalabras) {
+        int palabras = (int) Math.round(medianaPalabras * Math.exp(0.9 * random.nextGaussian()));
+        palabras = Math.max(3, Math.min(palabras, 600));
+        StringBuilder texto = new StringBuilder(palabras * 7);
+        int restantesOracion = 0;
+        boolean pregunta = false;
+        for (int i = 0; i < palabras; i++) {
+            String palabra = PALABRAS[random.nextInt(PALABRAS.length)];
+            if (restantesOracion == 0) {
+                if (i > 0) {
+                    texto.append(pregunta ? "? " : ". ");
+                }
+                pregunta = random.nextInt(5) == 0;
+                restantesOracion = 6 + random.nextInt(15);
+                texto.append(pregunta ? "¿" : "").append(Character.toUpperCase(palabra.charAt(0))).append(palabra, 1, palabra.length());
+            } else {
+                texto.append(random.nextInt(12) == 0 ? ", " : " ").append(palabra);
+            }
+            restantesOracion--;
+        }
+        return texto.append(pregunta ? '?' : '.').toString();
+    }
+}
@@ -0,0 +1,103 @@
+package com.forohub.foro_api.infra.limite;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Límite de concurrencia que se ajusta según la latencia observada (algoritmo de gradiente).
+ *
+ * Compara una media móvil corta de la latencia con una media larga que representa la latencia
+ * sin congestión. Mientras ambas coinciden el límite crece de a poco (raíz cuadrada del límite
+ * como margen de cola); cuando la latencia corta sube, el cociente cae por debajo de 1 y el límite
+ * se reduce en la misma proporción, antes de que las peticiones se acumulen en el pool de conexiones.
+ */
+public class LimiteAdaptativo {
+
+    private final int minimo;
+    private final int maximo;
+    private final double suavizado;
+    private final AtomicInteger enVuelo = new AtomicInteger();
+
+    private volatile double limite;
+    private double rttCorto;
+    private double rttLargo;
+
+    public LimiteAdaptativo(int inicial, int minimo, int maximo) {
+        this(inicial, minimo, maximo, 0.2);
+    }
+
+    public LimiteAdaptativo(int inicial, int minimo, int maximo, double suavizado) {
+        this.limite = inicial;
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.suavizado = suavizado;
+    }
+
+    /**
+     * Intenta reservar un lugar. Nunca bloquea.
+     *
+     * @return true si la petición puede continuar; false si debe rechazarse.
+     */
+    public boolean adquirir() {
+        while (true) {
+            int actual = enVuelo.get();
+            if (actual >= (int) limite) {
+                return false;
+            }
+            if (enVuelo.compareAndSet(actual, actual + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Libera el lugar reservado y ajusta el límite con la latencia medida.
+     *
+     * @param rttNanos Duración de la petición, en nanosegundos.
+     */
+    public void liberar(long rttNanos) {
+        int enCurso = enVuelo.getAndDecrement();
+        actualizar(rttNanos, enCurso);
+    }
+
+    /**
+     * Libera el lugar reservado sin usar la latencia, para peticiones que no llegaron a usar los
+     * recursos que el límite protege.
+     */
+    public void liberarSinMuestra() {
+        enVuelo.decrementAndGet();
+    }
+
+    private synchronized void actualizar(long rttNanos, int enCurso) {
+        double rtt = rttNanos;
+        if (rttLargo == 0) {
+            rttCorto = rtt;
+            rttLargo = rtt;
+            return;
+        }
+        rttCorto = rttCorto * 0.9 + rtt * 0.1;
+        rttLargo = rttLargo * 0.995 + rtt * 0.005;
+
+        // Si la latencia bajó de forma sostenida, acercar la referencia larga más rápido
+        if (rttLargo / rttCorto > 2) {
+            rttLargo *= 0.95;
+        }
+
+        // Con poca carga no hay información para crecer
+        if (enCurso < limite / 2) {
+            return;
+        }
+
+        double gradiente = Math.max(0.5, Math.min(1.0, rttLargo / rttCorto));
+        double nuevo = limite * gradiente + Math.sqrt(limite);
+        nuevo = limite * (1 - suavizado) + nuevo * suavizado;
+        limite = Math.max(minimo, Math.min(maximo, nuevo));
+    }
+
+    public int getLimite() {
+        return (int) limite;
+    }
+
+    public int getEnVuelo() {
+        return enVuelo.get();
+    }
+}
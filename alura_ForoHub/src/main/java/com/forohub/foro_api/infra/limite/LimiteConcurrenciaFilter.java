@@ -0,0 +1,99 @@
+package com.forohub.foro_api.infra.limite;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Limita la concurrencia de las peticiones a /topicos con límites adaptativos separados para
+ * lecturas y escrituras. Las peticiones que exceden el límite se rechazan de inmediato con 503,
+ * antes de la autenticación y sin esperar una conexión del pool.
+ *
+ * Las que la seguridad rechaza con 401 o 403 liberan su lugar sin aportar latencia: responden
+ * enseguida, y una avalancha de credenciales inválidas inflaría el límite.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class LimiteConcurrenciaFilter extends OncePerRequestFilter {
+
+    private final LimiteAdaptativo lecturas;
+    private final LimiteAdaptativo escrituras;
+    private final Counter rechazosLecturas;
+    private final Counter rechazosEscrituras;
+    private final boolean habilitado;
+
+    public LimiteConcurrenciaFilter(MeterRegistry registry,
+                                    @Value("${forohub.limite.habilitado:true}") boolean habilitado,
+                                    @Value("${forohub.limite.lecturas.inicial:50}") int lecturasInicial,
+                                    @Value("${forohub.limite.lecturas.minimo:5}") int lecturasMinimo,
+                                    @Value("${forohub.limite.lecturas.maximo:400}") int lecturasMaximo,
+                                    @Value("${forohub.limite.escrituras.inicial:20}") int escriturasInicial,
+                                    @Value("${forohub.limite.escrituras.minimo:2}") int escriturasMinimo,
+                                    @Value("${forohub.limite.escrituras.maximo:100}") int escriturasMaximo) {
+        this.habilitado = habilitado;
+        this.lecturas = new LimiteAdaptativo(lecturasInicial, lecturasMinimo, lecturasMaximo);
+        this.escrituras = new LimiteAdaptativo(escriturasInicial, escriturasMinimo, escriturasMaximo);
+        this.rechazosLecturas = registrarMetricas(registry, "lectura", lecturas);
+        this.rechazosEscrituras = registrarMetricas(registry, "escritura", escrituras);
+    }
+
+    private static Counter registrarMetricas(MeterRegistry registry, String tipo, LimiteAdaptativo limite) {
+        Gauge.builder("forohub.limite.concurrencia", limite, LimiteAdaptativo::getLimite)
+                .description("Límite de concurrencia adaptativo actual")
+                .tag("tipo", tipo)
+                .register(registry);
+        Gauge.builder("forohub.limite.en.vuelo", limite, LimiteAdaptativo::getEnVuelo)
+                .description("Peticiones en curso dentro del límite")
+                .tag("tipo", tipo)
+                .register(registry);
+        return Counter.builder("forohub.limite.rechazos")
+                .description("Peticiones rechazadas con 503 por exceder el límite de concurrencia")
+                .tag("tipo", tipo)
+                .register(registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !habilitado || !request.getRequestURI().startsWith("/topicos");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        boolean lectura = "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+        LimiteAdaptativo limite = lectura ? lecturas : escrituras;
+        if (!limite.adquirir()) {
+            (lectura ? rechazosLecturas : rechazosEscrituras).increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType("text/plain;charset=UTF-8");
+            response.getWriter().write("Servicio sobrecargado, intente nuevamente");
+            return;
+        }
+        long inicio = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int status = response.getStatus();
+            if (status == HttpStatus.UNAUTHORIZED.value() || status == HttpStatus.FORBIDDEN.value()) {
+                limite.liberarSinMuestra();
+            } else {
+                limite.liberar(System.nanoTime() - inicio);
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.forohub.foro_api.infra.metricas;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class MetricasConexionesConfiguration {
+
+    // Envuelve solo el DataSource principal (el bean "dataSource") para medir la retención de
+    // conexiones por petición, así cada préstamo se cuenta una vez. Con shards ese bean es un
+    // LazyConnectionDataSourceProxy: se envuelve el ruteo que tiene detrás, que solo se consulta
+    // cuando hace falta una conexión física
+    @Bean
+    public static BeanPostProcessor retencionConexionesPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource)
+                        || bean instanceof RetencionConexionesDataSource) {
+                    return bean;
+                }
+                if (bean instanceof LazyConnectionDataSourceProxy perezoso) {
+                    if (!(perezoso.getTargetDataSource() instanceof RetencionConexionesDataSource)) {
+                        perezoso.setTargetDataSource(new RetencionConexionesDataSource(perezoso.getTargetDataSource()));
+                    }
+                    return perezoso;
+                }
+                return new RetencionConexionesDataSource(dataSource);
+            }
+        };
+    }
+}
@@ -0,0 +1,46 @@
+package com.forohub.foro_api.infra.metricas;
+
+/**
+ * Contabiliza, por hilo de petición, cuántas conexiones JDBC están abiertas
+ * y durante cuánto tiempo se han retenido.
+ */
+public final class RetencionConexiones {
+
+    private static final ThreadLocal<Estado> ESTADO = ThreadLocal.withInitial(Estado::new);
+
+    private RetencionConexiones() {
+    }
+
+    static void reiniciar() {
+        ESTADO.remove();
+    }
+
+    static void conexionAbierta() {
+        ESTADO.get().abiertas++;
+    }
+
+    static void conexionCerrada(long nanosRetenida) {
+        Estado estado = ESTADO.get();
+        estado.abiertas--;
+        estado.nanosRetenidas += nanosRetenida;
+    }
+
+    /**
+     * @return Cantidad de conexiones que el hilo actual mantiene abiertas.
+     */
+    public static int abiertas() {
+        return ESTADO.get().abiertas;
+    }
+
+    /**
+     * @return Tiempo total, en nanosegundos, que el hilo actual retuvo conexiones cerradas.
+     */
+    public static long nanosRetenidas() {
+        return ESTADO.get().nanosRetenidas;
+    }
+
+    private static final class Estado {
+        private int abiertas;
+        private long nanosRetenidas;
+    }
+}
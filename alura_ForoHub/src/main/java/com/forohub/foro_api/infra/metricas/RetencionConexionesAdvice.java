@@ -0,0 +1,42 @@
+package com.forohub.foro_api.infra.metricas;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Comprueba, justo antes de serializar cada respuesta, que el hilo ya devolvió
+ * todas sus conexiones al pool. Con open-in-view desactivado el contador debe permanecer en cero.
+ */
+@RestControllerAdvice
+public class RetencionConexionesAdvice implements ResponseBodyAdvice<Object> {
+
+    private final Counter abiertasAlSerializar;
+
+    public RetencionConexionesAdvice(MeterRegistry registry) {
+        this.abiertasAlSerializar = Counter.builder("forohub.db.conexion.abierta.serializacion")
+                .description("Respuestas que comenzaron a serializarse con una conexión JDBC todavía abierta")
+                .register(registry);
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (RetencionConexiones.abiertas() > 0) {
+            abiertasAlSerializar.increment();
+        }
+        return body;
+    }
+}
@@ -0,0 +1,48 @@
+package com.forohub.foro_api.infra.metricas;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * DataSource que mide cuánto tiempo retiene cada hilo las conexiones obtenidas del pool.
+ */
+public class RetencionConexionesDataSource extends DelegatingDataSource {
+
+    public RetencionConexionesDataSource(DataSource destino) {
+        super(destino);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return medir(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return medir(super.getConnection(username, password));
+    }
+
+    private Connection medir(Connection conexion) {
+        long inicio = System.nanoTime();
+        RetencionConexiones.conexionAbierta();
+        boolean[] cerrada = {false};
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, metodo, args) -> {
+                    if (metodo.getName().equals("close") && !cerrada[0]) {
+                        cerrada[0] = true;
+                        RetencionConexiones.conexionCerrada(System.nanoTime() - inicio);
+                    }
+                    try {
+                        return metodo.invoke(conexion, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
@@ -0,0 +1,44 @@
+package com.forohub.foro_api.infra.metricas;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registra el tiempo total que cada petición retuvo conexiones JDBC.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RetencionConexionesFilter extends OncePerRequestFilter {
+
+    private final Timer retencion;
+
+    public RetencionConexionesFilter(MeterRegistry registry) {
+        this.retencion = Timer.builder("forohub.db.conexion.retencion")
+                .description("Tiempo total que una petición retiene conexiones del pool")
+                .register(registry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RetencionConexiones.reiniciar();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            retencion.record(RetencionConexiones.nanosRetenidas(), TimeUnit.NANOSECONDS);
+            RetencionConexiones.reiniciar();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.forohub.foro_api.infra.security;
+
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCryptPasswordEncoder cuyo factor de costo se elige al arrancar según el tiempo de
+ * verificación objetivo en el hardware actual, y que mide el tiempo de cada verificación.
+ */
+public class BCryptCalibrado extends BCryptPasswordEncoder {
+
+    private static final Logger log = LoggerFactory.getLogger(BCryptCalibrado.class);
+    private static final Pattern PREFIJO = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
+    private final int costo;
+    private final Timer verificacion;
+
+    public BCryptCalibrado(int costo, Timer verificacion) {
+        super(costo);
+        this.costo = costo;
+        this.verificacion = verificacion;
+    }
+
+    /**
+     * Busca el mayor costo cuyo tiempo de hash no supera el objetivo, midiendo desde el
+     * costo mínimo hacia arriba (cada incremento duplica el tiempo).
+     *
+     * @param objetivo Tiempo de verificación buscado por login.
+     * @param minimo Costo mínimo aceptable, aunque supere el objetivo.
+     * @param maximo Costo máximo a considerar.
+     * @return El costo elegido.
+     */
+    public static int calibrar(Duration objetivo, int minimo, int maximo) {
+        // Calentar el JIT para no medir código interpretado
+        BCrypt.hashpw("calibracion", BCrypt.gensalt(4));
+        int elegido = minimo;
+        for (int costo = minimo; costo <= maximo; costo++) {
+            long inicio = System.nanoTime();
+            BCrypt.hashpw("calibracion", BCrypt.gensalt(costo));
+            Duration medido = Duration.ofNanos(System.nanoTime() - inicio);
+            log.info("BCrypt costo {}: {} ms", costo, medido.toMillis());
+            if (medido.compareTo(objetivo) > 0) {
+                break;
+            }
+            elegido = costo;
+            // El siguiente costo tardaría el doble: no medirlo si ya se pasaría del objetivo
+            if (medido.multipliedBy(2).compareTo(objetivo) > 0) {
+                break;
+            }
+        }
+        return elegido;
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return verificacion.record(() -> super.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * @return Costo con el que este encoder genera los hashes nuevos.
+     */
+    public int getCosto() {
+        return costo;
+    }
+
+    /**
+     * Indica si un hash guardado fue generado con un costo menor que el actual y conviene
+     * regenerarlo en el próximo login exitoso.
+     *
+     * Solo se sube de costo: nodos calibrados con costos distintos convergen al mayor en lugar
+     * de regenerar el mismo hash en cada login según el nodo que lo atienda.
+     */
+    public boolean requiereRehash(String hash) {
+        Matcher matcher = PREFIJO.matcher(hash);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) < costo;
+    }
+}
@@ -0,0 +1,136 @@
+package com.forohub.foro_api.infra.security;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.forohub.foro_api.infra.cache.CacheLocal;
+import com.forohub.foro_api.infra.cache.RegistroCambios;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lista de tokens JWT revocados, consultada en memoria en cada petición autenticada.
+ *
+ * Guarda dos mapas: los jti revocados individualmente (por logout), con su vencimiento, y el
+ * instante desde el cual se revocaron todos los tokens de un usuario. Cada entrada se descarta
+ * cuando ya no puede existir un token vigente al que afecte. Las revocaciones se persisten y se
+ * difunden al resto de los nodos mediante el registro de cambios.
+ */
+@Component
+public class ListaRevocacion implements CacheLocal {
+
+    public static final String ENTIDAD = "token";
+
+    // Un token emitido antes de una revocación de todos vence, a más tardar, una vigencia después
+    private static final long VIGENCIA_MAXIMA_SEGUNDOS = TokenService.VIGENCIA.getSeconds();
+
+    private final Map<String, Long> jtisRevocados = new ConcurrentHashMap<>();
+    private final Map<Long, Long> revocadosDesde = new ConcurrentHashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final RegistroCambios registroCambios;
+
+    public ListaRevocacion(JdbcTemplate jdbcTemplate, RegistroCambios registroCambios) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.registroCambios = registroCambios;
+    }
+
+    /**
+     * @return true si el token fue revocado por logout o por una revocación de todos los tokens del usuario.
+     */
+    public boolean estaRevocado(DecodedJWT token) {
+        if (token.getId() != null && jtisRevocados.containsKey(token.getId())) {
+            return true;
+        }
+        Long desde = revocadosDesde.get(token.getClaim("id").asLong());
+        return desde != null && (token.getIssuedAtAsInstant() == null
+                || token.getIssuedAtAsInstant().getEpochSecond() <= desde);
+    }
+
+    /**
+     * Revoca un token individual hasta su vencimiento.
+     */
+    @Transactional
+    public void revocar(DecodedJWT token) {
+        long expira = token.getExpiresAtAsInstant().getEpochSecond();
+        jdbcTemplate.update("INSERT IGNORE INTO tokens_revocados (jti, usuario_id, expira) VALUES (?, ?, ?)",
+                token.getId(), token.getClaim("id").asLong(), Timestamp.from(Instant.ofEpochSecond(expira)));
+        registroCambios.registrar(ENTIDAD, "jti:" + token.getId());
+        jtisRevocados.put(token.getId(), expira);
+    }
+
+    /**
+     * Revoca todos los tokens emitidos hasta ahora para un usuario.
+     */
+    @Transactional
+    public void revocarTodos(Long usuarioId) {
+        long ahora = Instant.now().getEpochSecond();
+        jdbcTemplate.update("INSERT INTO revocaciones_usuario (usuario_id, revocado_desde) VALUES (?, ?) " +
+                "ON DUPLICATE KEY UPDATE revocado_desde = VALUES(revocado_desde)",
+                usuarioId, Timestamp.from(Instant.ofEpochSecond(ahora)));
+        registroCambios.registrar(ENTIDAD, "usuario:" + usuarioId);
+        revocadosDesde.merge(usuarioId, ahora, Math::max);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarAlIniciar() {
+        invalidarTodo();
+    }
+
+    @Override
+    public String entidad() {
+        return ENTIDAD;
+    }
+
+    // Carga la revocación hecha en otro nodo
+    @Override
+    public void invalidar(String clave) {
+        if (clave.startsWith("jti:")) {
+            jdbcTemplate.query("SELECT jti, expira FROM tokens_revocados WHERE jti = ?",
+                    rs -> {
+                        jtisRevocados.put(rs.getString("jti"), rs.getTimestamp("expira").toInstant().getEpochSecond());
+                    }, clave.substring(4));
+        } else if (clave.startsWith("usuario:")) {
+            jdbcTemplate.query("SELECT usuario_id, revocado_desde FROM revocaciones_usuario WHERE usuario_id = ?",
+                    rs -> {
+                        revocadosDesde.merge(rs.getLong("usuario_id"),
+                                rs.getTimestamp("revocado_desde").toInstant().getEpochSecond(), Math::max);
+                    }, Long.parseLong(clave.substring(8)));
+        }
+    }
+
+    // Recarga las revocaciones todavía vigentes desde la base de datos
+    @Override
+    public void invalidarTodo() {
+        Timestamp ahora = Timestamp.from(Instant.now());
+        Timestamp vigentesDesde = Timestamp.from(Instant.now().minusSeconds(VIGENCIA_MAXIMA_SEGUNDOS));
+        jdbcTemplate.query("SELECT jti, expira FROM tokens_revocados WHERE expira > ?",
+                rs -> {
+                    jtisRevocados.put(rs.getString("jti"), rs.getTimestamp("expira").toInstant().getEpochSecond());
+                }, ahora);
+        jdbcTemplate.query("SELECT usuario_id, revocado_desde FROM revocaciones_usuario WHERE revocado_desde > ?",
+                rs -> {
+                    revocadosDesde.merge(rs.getLong("usuario_id"),
+                            rs.getTimestamp("revocado_desde").toInstant().getEpochSecond(), Math::max);
+                }, vigentesDesde);
+    }
+
+    /**
+     * Descarta las entradas que ya no pueden afectar a ningún token vigente.
+     */
+    @Scheduled(fixedDelayString = "${api.security.revocacion.limpieza-ms:600000}")
+    public void purgarVencidos() {
+        long ahora = Instant.now().getEpochSecond();
+        jtisRevocados.values().removeIf(expira -> expira <= ahora);
+        revocadosDesde.values().removeIf(desde -> desde + VIGENCIA_MAXIMA_SEGUNDOS <= ahora);
+        jdbcTemplate.update("DELETE FROM tokens_revocados WHERE expira <= ? LIMIT 5000", Timestamp.from(Instant.ofEpochSecond(ahora)));
+        jdbcTemplate.update("DELETE FROM revocaciones_usuario WHERE revocado_desde <= ? LIMIT 5000",
+                Timestamp.from(Instant.ofEpochSecond(ahora - VIGENCIA_MAXIMA_SEGUNDOS)));
+    }
+}
@@ -1,18 +1,25 @@
 package com.forohub.foro_api.infra.security;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.time.Duration;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfigurations {
@@ -25,9 +32,16 @@ public class SecurityConfigurations {
         http
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                // El LogoutFilter por defecto atiende /logout con cualquier método y nunca llega al
+                // controlador que revoca el token
+                .logout(logout -> logout.disable())
+                .exceptionHandling(excepciones -> excepciones
+                        .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
                 .authorizeRequests(authorize -> authorize
                         .requestMatchers(HttpMethod.POST, "/login", "/usuarios/registro").permitAll()
                         .requestMatchers("/swagger-ui.htm", "/v3/api-docs/**","/swagger-ui/**" ).permitAll()
+                        .requestMatchers(HttpMethod.GET, "/actuator/health/liveness", "/actuator/health/readiness").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/usuarios/*/revocar-tokens").hasRole("ADMIN")
                         .anyRequest()
                         .authenticated()
                         .and()
@@ -41,8 +55,22 @@ public class SecurityConfigurations {
         return authenticationConfiguration.getAuthenticationManager();
     }
 
+    // Si api.security.bcrypt.costo es mayor que cero se usa tal cual; si no, se calibra al arrancar.
+    // En un despliegue con varios nodos conviene fijarlo para que todos generen hashes con el mismo costo.
     @Bean
-    public BCryptPasswordEncoder passwordEncoder(){
-        return new BCryptPasswordEncoder();
+    public BCryptCalibrado passwordEncoder(MeterRegistry registry,
+                                           @Value("${api.security.bcrypt.costo:0}") int costoFijo,
+                                           @Value("${api.security.bcrypt.latencia-objetivo-ms:250}") long objetivoMs,
+                                           @Value("${api.security.bcrypt.costo-minimo:10}") int costoMinimo,
+                                           @Value("${api.security.bcrypt.costo-maximo:16}") int costoMaximo){
+        int costo = costoFijo > 0 ? costoFijo
+                : BCryptCalibrado.calibrar(Duration.ofMillis(objetivoMs), costoMinimo, costoMaximo);
+        Gauge.builder("forohub.bcrypt.costo", () -> costo)
+                .description("Factor de costo de BCrypt usado para los hashes nuevos")
+                .register(registry);
+        Timer verificacion = Timer.builder("forohub.bcrypt.verificacion")
+                .description("Tiempo de verificación de la clave en cada login")
+                .register(registry);
+        return new BCryptCalibrado(costo, verificacion);
     }
 }
@@ -22,6 +22,9 @@ public class SecurityFilter extends OncePerRequestFilter {
     @Autowired
     private UsuarioRepository usuarioRepository;
 
+    @Autowired
+    private ListaRevocacion listaRevocacion;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -29,9 +32,10 @@ public class SecurityFilter extends OncePerRequestFilter {
         var authHeader = request.getHeader("Authorization");
         if (authHeader != null) {
             var token = authHeader.replace("Bearer ", "");
-            var subject = tokenService.getSubject(token);
-            if (subject != null) {
-                var usuario = usuarioRepository.findByEmail(subject);
+            var jwt = tokenService.verificar(token);
+            // La consulta a la lista de revocación es una búsqueda en memoria
+            if (jwt != null && jwt.getSubject() != null && !listaRevocacion.estaRevocado(jwt)) {
+                var usuario = usuarioRepository.findByEmail(jwt.getSubject());
                 var authentication = new UsernamePasswordAuthenticationToken (usuario, null,
                         usuario.getAuthorities());
                 SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -9,13 +9,16 @@ import com.forohub.foro_api.model.Usuario;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.ZoneOffset;
+import java.util.UUID;
 
 @Service
 public class TokenService {
 
+    // Vigencia de cada token emitido; ListaRevocacion la usa para saber cuándo descartar revocaciones
+    public static final Duration VIGENCIA = Duration.ofHours(6);
+
     @Value("${api.security.secret}")
     private String apiSecret;
 
@@ -25,6 +28,8 @@ public class TokenService {
             return JWT.create()
                     .withIssuer("foro hub")
                     .withSubject(usuario.getEmail())
+                    .withJWTId(UUID.randomUUID().toString())
+                    .withIssuedAt(Instant.now())
                     .withClaim("id", usuario.getId())
                     .withExpiresAt(generarFechaExpiracion())
                     .sign(algorithm);
@@ -54,7 +59,30 @@ public class TokenService {
         return verifier.getSubject();
     }
 
+    /**
+     * Verifica firma, emisor y vencimiento del token.
+     *
+     * @return El token decodificado, o null si no es válido.
+     */
+    public DecodedJWT verificar(String token) {
+        try {
+            Algorithm algorithm = Algorithm.HMAC256(apiSecret);
+            DecodedJWT jwt = JWT.require(algorithm)
+                    .withIssuer("foro hub")
+                    .build()
+                    .verify(token);
+            // Las revocaciones se descartan una vigencia después; un token que dure más no podría revocarse
+            if (jwt.getIssuedAtAsInstant() == null || jwt.getExpiresAtAsInstant() == null
+                    || jwt.getExpiresAtAsInstant().isAfter(jwt.getIssuedAtAsInstant().plus(VIGENCIA))) {
+                return null;
+            }
+            return jwt;
+        } catch (JWTVerificationException exception) {
+            return null;
+        }
+    }
+
     private Instant generarFechaExpiracion(){
-        return LocalDateTime.now().plusHours(6).toInstant(ZoneOffset.of("-03:00"));
+        return Instant.now().plus(VIGENCIA);
     }
 }
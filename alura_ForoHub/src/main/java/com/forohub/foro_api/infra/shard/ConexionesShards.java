@@ -0,0 +1,51 @@
+package com.forohub.foro_api.infra.shard;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Pools de conexiones de cada shard. Todas las conexiones fijan el incremento y el
+ * desplazamiento de AUTO_INCREMENT de su shard, de modo que los ids no se repiten entre shards.
+ */
+public class ConexionesShards {
+
+    private final Map<String, HikariDataSource> porShard = new LinkedHashMap<>();
+
+    public ConexionesShards(DataSourceProperties principal, PropiedadesShards propiedades) {
+        porShard.put(MapaShards.PRINCIPAL, crear(MapaShards.PRINCIPAL, principal.determineUrl(),
+                principal.determineUsername(), principal.determinePassword(),
+                propiedades.incremento(), propiedades.indicePrincipal()));
+        if (propiedades.nodos() != null) {
+            propiedades.nodos().forEach((nombre, nodo) -> porShard.put(nombre,
+                    crear(nombre, nodo.url(), nodo.username(), nodo.password(), propiedades.incremento(), nodo.indice())));
+        }
+    }
+
+    private static HikariDataSource crear(String nombre, String url, String usuario, String clave,
+                                          int incremento, int desplazamiento) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(usuario)
+                .password(clave)
+                .build();
+        dataSource.setPoolName("forohub-" + nombre);
+        dataSource.setConnectionInitSql("SET SESSION auto_increment_increment = " + incremento
+                + ", auto_increment_offset = " + desplazamiento);
+        return dataSource;
+    }
+
+    public Map<String, DataSource> porShard() {
+        return Collections.unmodifiableMap(porShard);
+    }
+
+    public void cerrar() {
+        porShard.values().forEach(HikariDataSource::close);
+    }
+}
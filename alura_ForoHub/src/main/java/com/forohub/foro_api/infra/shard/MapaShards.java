@@ -0,0 +1,163 @@
+package com.forohub.foro_api.infra.shard;
+
+import com.forohub.foro_api.model.Curso;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Decide en qué base de datos (shard) vive cada tópico y fija el shard de las operaciones
+ * del hilo actual.
+ *
+ * Cada curso pertenece a un único shard. Los ids son únicos entre shards porque cada uno
+ * genera sus AUTO_INCREMENT con el mismo incremento y un desplazamiento propio, así que el
+ * shard de un tópico o mensaje se obtiene de su id sin consultar ninguna base de datos. Las
+ * tablas que no dependen del curso (usuarios, tokens) quedan en el shard principal.
+ *
+ * Con los shards deshabilitados hay un único shard, el principal, y el ruteo no tiene efecto.
+ */
+public class MapaShards {
+
+    public static final String PRINCIPAL = "principal";
+
+    private static final ThreadLocal<String> ACTUAL = new ThreadLocal<>();
+
+    private final boolean habilitado;
+    private final int incremento;
+    private final Map<Curso, String> porCurso = new EnumMap<>(Curso.class);
+    private final Map<Integer, String> porIndice = new HashMap<>();
+    private final Map<String, Integer> indicePorShard = new HashMap<>();
+    private final List<String> shards = new ArrayList<>();
+
+    public MapaShards(PropiedadesShards propiedades) {
+        this.habilitado = propiedades.habilitado();
+        this.incremento = habilitado ? propiedades.incremento() : 1;
+        shards.add(PRINCIPAL);
+        porIndice.put(habilitado ? propiedades.indicePrincipal() : 1, PRINCIPAL);
+        if (habilitado && propiedades.nodos() != null) {
+            propiedades.nodos().forEach((nombre, nodo) -> {
+                if (nodo.indice() < 1 || nodo.indice() > incremento) {
+                    throw new IllegalStateException("El índice del shard " + nombre + " debe estar entre 1 y " + incremento);
+                }
+                String repetido = porIndice.putIfAbsent(nodo.indice(), nombre);
+                if (repetido != null) {
+                    throw new IllegalStateException("Los shards " + repetido + " y " + nombre + " comparten el índice " + nodo.indice());
+                }
+                shards.add(nombre);
+            });
+        }
+        porIndice.forEach((indice, shard) -> indicePorShard.put(shard, indice));
+        for (Curso curso : Curso.values()) {
+            String shard = habilitado && propiedades.cursos() != null
+                    ? propiedades.cursos().getOrDefault(curso, PRINCIPAL) : PRINCIPAL;
+            if (!shards.contains(shard)) {
+                throw new IllegalStateException("El curso " + curso + " apunta al shard desconocido " + shard);
+            }
+            porCurso.put(curso, shard);
+        }
+    }
+
+    /**
+     * @return Shard fijado en el hilo actual, o null para el principal.
+     */
+    public static String actual() {
+        return ACTUAL.get();
+    }
+
+    public boolean habilitado() {
+        return habilitado;
+    }
+
+    /**
+     * @return Diferencia entre dos ids consecutivos generados en un mismo shard.
+     */
+    public int paso() {
+        return incremento;
+    }
+
+    /**
+     * @return Desplazamiento de los ids generados en el shard: id = desplazamiento + n * paso().
+     */
+    public int desplazamiento(String shard) {
+        return indicePorShard.getOrDefault(shard, 1);
+    }
+
+    /**
+     * @return Nombres de todos los shards, empezando por el principal.
+     */
+    public List<String> shards() {
+        return Collections.unmodifiableList(shards);
+    }
+
+    public String shardDe(Curso curso) {
+        return porCurso.get(curso);
+    }
+
+    /**
+     * Obtiene el shard de un tópico o mensaje a partir de su id. Los ids que no corresponden a
+     * ningún desplazamiento configurado se asignan al principal.
+     */
+    public String shardDeId(long id) {
+        if (!habilitado) {
+            return PRINCIPAL;
+        }
+        int indice = (int) ((id - 1) % incremento) + 1;
+        return porIndice.getOrDefault(indice, PRINCIPAL);
+    }
+
+    /**
+     * Agrupa ids de tópicos por shard, conservando el orden de cada grupo.
+     */
+    public Map<String, List<Long>> agruparPorShard(Collection<Long> ids) {
+        Map<String, List<Long>> grupos = new LinkedHashMap<>();
+        for (Long id : ids) {
+            grupos.computeIfAbsent(shardDeId(id), shard -> new ArrayList<>()).add(id);
+        }
+        return grupos;
+    }
+
+    /**
+     * Fija el shard del hilo actual hasta cerrar el alcance devuelto.
+     *
+     * Dentro de una transacción debe llamarse antes de la primera consulta: la conexión física
+     * se obtiene de forma diferida y queda ligada al shard vigente en ese momento.
+     */
+    public Alcance usar(String shard) {
+        String anterior = ACTUAL.get();
+        ACTUAL.set(shard);
+        return new Alcance(anterior);
+    }
+
+    public <T> T en(String shard, Supplier<T> accion) {
+        try (Alcance alcance = usar(shard)) {
+            return accion.get();
+        }
+    }
+
+    public void enCadaShard(Consumer<String> accion) {
+        for (String shard : shards) {
+            try (Alcance alcance = usar(shard)) {
+                accion.accept(shard);
+            }
+        }
+    }
+
+    public static final class Alcance implements AutoCloseable {
+
+        private final String anterior;
+
+        private Alcance(String anterior) {
+            this.anterior = anterior;
+        }
+
+        @Override
+        public void close() {
+            if (anterior == null) {
+                ACTUAL.remove();
+            } else {
+                ACTUAL.set(anterior);
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.forohub.foro_api.infra.shard;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Mezcla de k listas ya ordenadas, usada para combinar los listados de varios shards.
+ */
+public final class MezclaOrdenada {
+
+    private MezclaOrdenada() {
+    }
+
+    /**
+     * Recorre las listas en orden global con un montículo de k cursores y devuelve solo el
+     * tramo pedido, sin ordenar ni copiar las listas completas.
+     *
+     * @param listas Listas ordenadas según el comparador.
+     * @param orden Orden común de todas las listas.
+     * @param saltar Elementos a descartar desde el inicio.
+     * @param cantidad Elementos a devolver.
+     * @return Elementos entre saltar y saltar + cantidad del orden global.
+     */
+    public static <T> List<T> mezclar(List<? extends List<? extends T>> listas, Comparator<? super T> orden,
+                                      long saltar, int cantidad) {
+        PriorityQueue<int[]> cursores = new PriorityQueue<>(Math.max(1, listas.size()),
+                (a, b) -> orden.compare(listas.get(a[0]).get(a[1]), listas.get(b[0]).get(b[1])));
+        for (int i = 0; i < listas.size(); i++) {
+            if (!listas.get(i).isEmpty()) {
+                cursores.add(new int[]{i, 0});
+            }
+        }
+        List<T> resultado = new ArrayList<>(cantidad);
+        long posicion = 0;
+        while (!cursores.isEmpty() && resultado.size() < cantidad) {
+            int[] cursor = cursores.poll();
+            List<? extends T> lista = listas.get(cursor[0]);
+            if (posicion++ >= saltar) {
+                resultado.add(lista.get(cursor[1]));
+            }
+            if (cursor[1] + 1 < lista.size()) {
+                cursores.add(new int[]{cursor[0], cursor[1] + 1});
+            }
+        }
+        return resultado;
+    }
+}
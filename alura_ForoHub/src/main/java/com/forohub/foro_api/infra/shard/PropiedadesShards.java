@@ -0,0 +1,31 @@
+package com.forohub.foro_api.infra.shard;
+
+import com.forohub.foro_api.model.Curso;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+
+/**
+ * Configuración del reparto de tópicos y mensajes entre bases de datos (forohub.shards.*).
+ *
+ * @param habilitado Si es false toda la aplicación usa el DataSource de spring.datasource.
+ * @param incremento Paso de los AUTO_INCREMENT en todos los shards; acota la cantidad de shards.
+ * @param indicePrincipal Desplazamiento de los AUTO_INCREMENT del shard principal (1..incremento).
+ * @param nodos Shards adicionales por nombre.
+ * @param cursos Shard dueño de cada curso; los cursos sin entrada quedan en el principal.
+ */
+@ConfigurationProperties(prefix = "forohub.shards")
+public record PropiedadesShards(
+        @DefaultValue("false") boolean habilitado,
+        @DefaultValue("10") int incremento,
+        @DefaultValue("1") int indicePrincipal,
+        Map<String, Nodo> nodos,
+        Map<Curso, String> cursos) {
+
+    /**
+     * @param indice Desplazamiento de los AUTO_INCREMENT de este shard (1..incremento).
+     */
+    public record Nodo(String url, String username, String password, int indice) {
+    }
+}
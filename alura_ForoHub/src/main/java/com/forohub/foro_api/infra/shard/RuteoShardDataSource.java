@@ -0,0 +1,26 @@
+package com.forohub.foro_api.infra.shard;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Entrega conexiones del shard fijado en el hilo actual con MapaShards, o del principal si no
+ * hay ninguno.
+ */
+public class RuteoShardDataSource extends AbstractRoutingDataSource {
+
+    public RuteoShardDataSource(Map<String, DataSource> porShard) {
+        setTargetDataSources(new HashMap<>(porShard));
+        setDefaultTargetDataSource(porShard.get(MapaShards.PRINCIPAL));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return MapaShards.actual();
+    }
+}
@@ -0,0 +1,50 @@
+package com.forohub.foro_api.infra.shard;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(PropiedadesShards.class)
+public class ShardsConfiguration {
+
+    @Bean
+    public MapaShards mapaShards(PropiedadesShards propiedades) {
+        return new MapaShards(propiedades);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(prefix = "forohub.shards", name = "habilitado", havingValue = "true")
+    static class Ruteo {
+
+        @Bean(destroyMethod = "cerrar")
+        public ConexionesShards conexionesShards(DataSourceProperties principal, PropiedadesShards propiedades) {
+            return new ConexionesShards(principal, propiedades);
+        }
+
+        // La conexión física se pide en la primera consulta, cuando el shard ya está fijado
+        @Bean
+        @Primary
+        public DataSource dataSource(ConexionesShards conexiones) {
+            return new LazyConnectionDataSourceProxy(new RuteoShardDataSource(conexiones.porShard()));
+        }
+
+        // Aplica las mismas migraciones de Flyway en cada shard
+        @Bean
+        public FlywayMigrationStrategy migracionPorShard(ConexionesShards conexiones) {
+            return flyway -> conexiones.porShard().values().forEach(dataSource -> Flyway.configure()
+                    .configuration(flyway.getConfiguration())
+                    .dataSource(dataSource)
+                    .load()
+                    .migrate());
+        }
+    }
+}
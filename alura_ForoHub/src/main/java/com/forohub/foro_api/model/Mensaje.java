@@ -2,6 +2,8 @@ package com.forohub.foro_api.model;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.forohub.foro_api.dto.DatosNuevoMensaje;
+import com.forohub.foro_api.infra.compresion.CompresionContenido;
+import com.forohub.foro_api.infra.compresion.ContenidoComprimidoConverter;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -20,7 +22,13 @@ public class Mensaje {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Se guarda comprimido por encima de un umbral; ver CompresionContenido
+    @Convert(converter = ContenidoComprimidoConverter.class)
     private String contenido;
+
+    // Comienzo del contenido, para las vistas previas de los listados sin leer el contenido completo
+    private String extracto;
+
     private LocalDateTime fecha;
     private String autor;
 
@@ -36,5 +44,12 @@ public class Mensaje {
     }
 
     public Mensaje(DatosNuevoMensaje datosNuevoMensaje) {
+        this(datosNuevoMensaje.contenido(), datosNuevoMensaje.autor());
+    }
+
+    @PrePersist
+    @PreUpdate
+    private void actualizarExtracto() {
+        this.extracto = CompresionContenido.extracto(contenido);
     }
 }
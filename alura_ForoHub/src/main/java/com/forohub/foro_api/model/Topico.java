@@ -37,6 +37,10 @@ public class Topico {
     @Enumerated(EnumType.STRING)
     private Curso curso;
 
+    // Lo incrementa únicamente ContadorVistas con UPDATE en lote; la entidad no lo sobrescribe
+    @Column(insertable = false, updatable = false)
+    private Long vistas;
+
     public Topico(DatosRegistroTopico datosRegistroTopico) {
         this.titulo = datosRegistroTopico.titulo();
         this.fecha = LocalDateTime.now();
@@ -39,6 +39,9 @@ public class Usuario implements UserDetails {
     @Size(min = 6, max = 300, message = "La clave debe tener entre 6 y 300 caracteres")
     private String clave;
 
+    @NotNull
+    private String rol = "USER";
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -49,7 +52,7 @@ public class Usuario implements UserDetails {
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return List.of(new SimpleGrantedAuthority("ROLE_USER"));
+        return List.of(new SimpleGrantedAuthority("ROLE_" + rol));
     }
 
     @Override
@@ -0,0 +1,76 @@
+package com.forohub.foro_api.repository;
+
+import com.forohub.foro_api.dto.DatosDetalleTopico;
+import com.forohub.foro_api.dto.DatosListadoMensaje;
+import com.forohub.foro_api.dto.DatosListadoTopico;
+import com.forohub.foro_api.infra.compresion.CompresionContenido;
+import com.forohub.foro_api.model.Curso;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+
+/**
+ * Acceso de solo lectura a las tablas de tópicos y mensajes archivados.
+ */
+@Repository
+public class ArchivoTopicoRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public ArchivoTopicoRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    // Detalle de un tópico archivado con sus mensajes, en dos consultas por clave primaria e índice
+    public Optional<DatosDetalleTopico> buscarDetalle(Long id) {
+        List<DatosDetalleTopico> topicos = jdbcTemplate.query(
+                "SELECT id, titulo, fecha, status, autor, curso FROM topicos_archivados WHERE id = ?",
+                (rs, i) -> new DatosDetalleTopico(rs.getLong("id"), rs.getString("titulo"),
+                        rs.getTimestamp("fecha").toLocalDateTime(), rs.getString("status"), rs.getString("autor"),
+                        Curso.valueOf(rs.getString("curso")), List.of()),
+                id);
+        if (topicos.isEmpty()) {
+            return Optional.empty();
+        }
+        DatosDetalleTopico topico = topicos.get(0);
+        List<DatosListadoMensaje> mensajes = jdbcTemplate.query(
+                "SELECT id, contenido, fecha, autor FROM mensajes_archivados WHERE topico_id = ? ORDER BY id",
+                (rs, i) -> new DatosListadoMensaje(rs.getLong("id"), CompresionContenido.decodificar(rs.getBytes("contenido")),
+                        rs.getTimestamp("fecha").toLocalDateTime(), rs.getString("autor")),
+                id);
+        return Optional.of(new DatosDetalleTopico(topico.id(), topico.titulo(), topico.fecha(), topico.status(),
+                topico.autor(), topico.curso(), mensajes));
+    }
+
+    // Listados de varios tópicos archivados con sus últimos mensajes como vista previa, en dos consultas IN
+    public List<DatosListadoTopico> buscarListados(Collection<Long> ids, int mensajesPorTopico) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<DatosListadoMensaje>> mensajes = new HashMap<>();
+        namedJdbcTemplate.query(
+                "SELECT topico_id, id, contenido, fecha, autor FROM (" +
+                        "SELECT topico_id, id, contenido, fecha, autor, " +
+                        "ROW_NUMBER() OVER (PARTITION BY topico_id ORDER BY id DESC) AS posicion " +
+                        "FROM mensajes_archivados WHERE topico_id IN (:ids)) recientes " +
+                        "WHERE posicion <= :porTopico ORDER BY id",
+                new MapSqlParameterSource("ids", ids).addValue("porTopico", mensajesPorTopico),
+                rs -> {
+                    mensajes.computeIfAbsent(rs.getLong("topico_id"), id -> new ArrayList<>())
+                            .add(new DatosListadoMensaje(rs.getLong("id"),
+                                    CompresionContenido.extracto(CompresionContenido.decodificar(rs.getBytes("contenido"))),
+                                    rs.getTimestamp("fecha").toLocalDateTime(), rs.getString("autor")));
+                });
+        return namedJdbcTemplate.query(
+                "SELECT id, titulo, status, curso FROM topicos_archivados WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", ids),
+                (rs, i) -> new DatosListadoTopico(rs.getLong("id"), rs.getString("titulo"),
+                        mensajes.getOrDefault(rs.getLong("id"), List.of()), rs.getString("status"),
+                        Curso.valueOf(rs.getString("curso"))));
+    }
+}
@@ -0,0 +1,68 @@
+package com.forohub.foro_api.repository;
+
+import com.forohub.foro_api.dto.DatosExtractoMensaje;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Vistas previas acotadas de los mensajes de varios tópicos, y sus primeros mensajes para las
+ * estadísticas.
+ *
+ * Las consultas son SQL nativo porque usan una función de ventana: ROW_NUMBER() numera los
+ * mensajes de cada tópico por id, en el orden pedido, y se conservan los primeros, de modo que un
+ * tópico con miles de mensajes no agranda el resultado. El índice de topico_id (que en InnoDB
+ * incluye el id) entrega cada partición ya ordenada.
+ */
+@Repository
+public class ExtractoMensajeRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public ExtractoMensajeRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @param idsTopico Tópicos del shard actual.
+     * @param porTopico Cantidad máxima de mensajes por tópico.
+     * @return Los últimos mensajes de cada tópico, sin el contenido completo, en orden de id.
+     */
+    public List<DatosExtractoMensaje> recientes(Collection<Long> idsTopico, int porTopico) {
+        if (idsTopico.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(
+                "SELECT topico_id, id, extracto, fecha, autor FROM (" +
+                        "SELECT topico_id, id, extracto, fecha, autor, " +
+                        "ROW_NUMBER() OVER (PARTITION BY topico_id ORDER BY id DESC) AS posicion " +
+                        "FROM mensajes WHERE topico_id IN (:idsTopico)) recientes " +
+                        "WHERE posicion <= :porTopico ORDER BY id",
+                new MapSqlParameterSource("idsTopico", idsTopico).addValue("porTopico", porTopico),
+                (rs, i) -> new DatosExtractoMensaje(rs.getLong("topico_id"), rs.getLong("id"), rs.getString("extracto"),
+                        rs.getTimestamp("fecha").toLocalDateTime(), rs.getString("autor")));
+    }
+
+    /**
+     * @param idsTopico Tópicos del shard actual.
+     * @param porTopico Cantidad máxima de mensajes por tópico.
+     * @return Los primeros mensajes de cada tópico, sin el contenido completo, en orden de id.
+     */
+    public List<DatosExtractoMensaje> iniciales(Collection<Long> idsTopico, int porTopico) {
+        if (idsTopico.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(
+                "SELECT topico_id, id, extracto, fecha, autor FROM (" +
+                        "SELECT topico_id, id, extracto, fecha, autor, " +
+                        "ROW_NUMBER() OVER (PARTITION BY topico_id ORDER BY id) AS posicion " +
+                        "FROM mensajes WHERE topico_id IN (:idsTopico)) iniciales " +
+                        "WHERE posicion <= :porTopico ORDER BY id",
+                new MapSqlParameterSource("idsTopico", idsTopico).addValue("porTopico", porTopico),
+                (rs, i) -> new DatosExtractoMensaje(rs.getLong("topico_id"), rs.getLong("id"), rs.getString("extracto"),
+                        rs.getTimestamp("fecha").toLocalDateTime(), rs.getString("autor")));
+    }
+}
@@ -1,8 +1,42 @@
 package com.forohub.foro_api.repository;
 
+import com.forohub.foro_api.dto.DatosExtractoMensaje;
 import com.forohub.foro_api.model.Mensaje;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface MensajeRepository extends JpaRepository<Mensaje, Long> {
     void deleteById(Long id);
+
+    // Mensajes completos de un tópico, sin cargar el tópico
+    List<Mensaje> findByTopico_IdOrderByIdAsc(Long idTopico);
+
+    // Último mensaje agregado a un tópico
+    Optional<Mensaje> findFirstByTopico_IdOrderByIdDesc(Long idTopico);
+
+    // Vistas previas de los mensajes de varios tópicos, sin leer ni descomprimir el contenido
+    @Query("SELECT new com.forohub.foro_api.dto.DatosExtractoMensaje(m.topico.id, m.id, m.extracto, m.fecha, m.autor) " +
+            "FROM Mensaje m WHERE m.topico.id IN :idsTopico ORDER BY m.id")
+    List<DatosExtractoMensaje> findExtractos(@Param("idsTopico") Collection<Long> idsTopico);
+
+    // Filas [id del mensaje, id del tópico, curso, fecha, autor] para validar pertenencia y descontar
+    // el mensaje de las estadísticas sin cargar los mensajes
+    @Query("SELECT m.id, m.topico.id, m.topico.curso, m.fecha, m.autor FROM Mensaje m WHERE m.id IN :ids")
+    List<Object[]> findDatosParaEliminar(@Param("ids") Collection<Long> ids);
+
+    // Eliminación de un mensaje verificando que pertenezca al tópico indicado
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Mensaje m WHERE m.id = :idMensaje AND m.topico.id = :idTopico")
+    int eliminarDeTopico(@Param("idTopico") Long idTopico, @Param("idMensaje") Long idMensaje);
+
+    // Eliminación masiva de mensajes en una sola sentencia
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Mensaje m WHERE m.id IN :ids")
+    int eliminarPorIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,25 @@
+package com.forohub.foro_api.repository;
+
+import com.forohub.foro_api.dto.CampoTopico;
+import com.forohub.foro_api.model.Curso;
+import com.forohub.foro_api.model.Topico;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Consultas de tópicos que leen solo algunas columnas. Devuelven instancias de Topico fuera del
+ * contexto de persistencia con el id, los campos pedidos y las columnas de orden cargados; el
+ * resto queda en null y los mensajes nunca se leen.
+ */
+public interface TopicoProyeccionRepository {
+
+    // Tópicos activos, de un curso o de todos, en el orden pedido y sin COUNT(*)
+    Slice<Topico> proyectarActivos(Set<CampoTopico> campos, Curso curso, Pageable paginacion);
+
+    // Tópicos por id, opcionalmente solo los que no están cerrados
+    List<Topico> proyectarPorIds(Set<CampoTopico> campos, Collection<Long> ids, boolean soloActivos);
+}
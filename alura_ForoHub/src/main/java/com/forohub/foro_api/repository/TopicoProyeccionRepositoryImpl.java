@@ -0,0 +1,115 @@
+package com.forohub.foro_api.repository;
+
+import com.forohub.foro_api.dto.CampoTopico;
+import com.forohub.foro_api.model.Curso;
+import com.forohub.foro_api.model.Topico;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Implementación con Criteria API: la lista de columnas del SELECT se arma con los campos
+ * pedidos, así que la consulta no lee ni transfiere las demás.
+ */
+public class TopicoProyeccionRepositoryImpl implements TopicoProyeccionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<Topico> proyectarActivos(Set<CampoTopico> campos, Curso curso, Pageable paginacion) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> consulta = cb.createTupleQuery();
+        Root<Topico> topico = consulta.from(Topico.class);
+        Set<String> columnas = columnas(campos, paginacion.getSort());
+        consulta.multiselect(seleccion(topico, columnas));
+        List<Predicate> condiciones = new ArrayList<>(List.of(cb.notEqual(topico.get("status"), "CERRADO")));
+        if (curso != null) {
+            condiciones.add(cb.equal(topico.get("curso"), curso));
+        }
+        consulta.where(condiciones.toArray(Predicate[]::new));
+        // El id desempata igual que el comparador con que se mezclan los shards
+        List<Order> orden = new ArrayList<>(QueryUtils.toOrders(paginacion.getSort(), topico, cb));
+        orden.add(cb.asc(topico.get("id")));
+        consulta.orderBy(orden);
+
+        TypedQuery<Tuple> query = entityManager.createQuery(consulta);
+        if (paginacion.isPaged()) {
+            // Una fila de más para saber si hay página siguiente
+            query.setFirstResult((int) paginacion.getOffset());
+            query.setMaxResults(paginacion.getPageSize() + 1);
+        }
+        List<Topico> topicos = query.getResultList().stream()
+                .map(fila -> aTopico(fila, columnas))
+                .collect(Collectors.toCollection(ArrayList::new));
+        boolean haySiguiente = paginacion.isPaged() && topicos.size() > paginacion.getPageSize();
+        if (haySiguiente) {
+            topicos.remove(topicos.size() - 1);
+        }
+        return new SliceImpl<>(topicos, paginacion, haySiguiente);
+    }
+
+    @Override
+    public List<Topico> proyectarPorIds(Set<CampoTopico> campos, Collection<Long> ids, boolean soloActivos) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> consulta = cb.createTupleQuery();
+        Root<Topico> topico = consulta.from(Topico.class);
+        Set<String> columnas = columnas(campos, Sort.unsorted());
+        consulta.multiselect(seleccion(topico, columnas));
+        List<Predicate> condiciones = new ArrayList<>(List.of(topico.get("id").in(ids)));
+        if (soloActivos) {
+            condiciones.add(cb.notEqual(topico.get("status"), "CERRADO"));
+        }
+        consulta.where(condiciones.toArray(Predicate[]::new));
+        return entityManager.createQuery(consulta).getResultList().stream()
+                .map(fila -> aTopico(fila, columnas))
+                .toList();
+    }
+
+    // El id, las columnas de los campos pedidos y las del orden, que hacen falta para mezclar shards
+    private static Set<String> columnas(Set<CampoTopico> campos, Sort sort) {
+        Set<String> columnas = new LinkedHashSet<>(List.of("id"));
+        campos.stream()
+                .filter(CampoTopico::esColumna)
+                .map(CampoTopico::propiedad)
+                .forEach(columnas::add);
+        sort.forEach(criterio -> columnas.add(criterio.getProperty()));
+        return columnas;
+    }
+
+    private static List<Selection<?>> seleccion(Root<Topico> topico, Set<String> columnas) {
+        return columnas.stream()
+                .<Selection<?>>map(columna -> topico.get(columna).alias(columna))
+                .toList();
+    }
+
+    private static Topico aTopico(Tuple fila, Set<String> columnas) {
+        return new Topico(
+                fila.get("id", Long.class),
+                valor(fila, columnas, "titulo", String.class),
+                null,
+                valor(fila, columnas, "fecha", LocalDateTime.class),
+                valor(fila, columnas, "status", String.class),
+                valor(fila, columnas, "autor", String.class),
+                valor(fila, columnas, "curso", Curso.class),
+                valor(fila, columnas, "vistas", Long.class));
+    }
+
+    private static <T> T valor(Tuple fila, Set<String> columnas, String columna, Class<T> tipo) {
+        return columnas.contains(columna) ? fila.get(columna, tipo) : null;
+    }
+}
@@ -2,22 +2,75 @@ package com.forohub.foro_api.repository;
 
 import com.forohub.foro_api.model.Curso;
 import com.forohub.foro_api.model.Topico;
-import org.springframework.data.domain.Page;
+import com.forohub.foro_api.service.indice.ResumenTopico;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
-public interface TopicoRepository extends JpaRepository<Topico, Long> {
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+// Las consultas se ejecutan en el shard fijado con MapaShards; TopicoService fija el de cada operación
+public interface TopicoRepository extends JpaRepository<Topico, Long>, TopicoProyeccionRepository {
 
     // Verificar si existe un tópico con el mismo título y mensaje
     boolean existsByTituloAndMensajes_contenido(String titulo, String mensaje);
 
-    // Consulta personalizada para excluir tópicos cerrados
+    // Consulta personalizada para excluir tópicos cerrados; como Slice no ejecuta COUNT(*),
+    // trae una fila de más para saber si hay página siguiente
     @Query("SELECT t FROM Topico t WHERE t.status <> 'CERRADO'")
-    Page<Topico> findAllActive(Pageable pageable);
+    Slice<Topico> findAllActive(Pageable pageable);
 
     // Método para encontrar tópicos por curso excluyendo los cerrados
     @Query("SELECT t FROM Topico t WHERE t.curso = :curso AND t.status <> 'CERRADO'")
-    Page<Topico> findByCursoAndStatusNotClosed(@Param("curso") Curso curso, Pageable pageable);
+    Slice<Topico> findByCursoAndStatusNotClosed(@Param("curso") Curso curso, Pageable pageable);
+
+    // Conteo de tópicos activos, solo cuando el índice en memoria no tiene los contadores listos
+    @Query("SELECT COUNT(t) FROM Topico t WHERE t.status <> 'CERRADO' AND (:curso IS NULL OR t.curso = :curso)")
+    long contarActivos(@Param("curso") Curso curso);
+
+    // Tópico con sus mensajes cargados en una sola consulta, para construir el detalle
+    @Query("SELECT t FROM Topico t LEFT JOIN FETCH t.mensajes WHERE t.id = :id")
+    Optional<Topico> findDetalleById(@Param("id") Long id);
+
+    // Tópicos bloqueados (SELECT ... FOR UPDATE) para modificarlos: las escrituras concurrentes sobre
+    // un mismo tópico se ordenan y cada una ve el estado que deja la anterior
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Topico t WHERE t.id IN :ids")
+    List<Topico> findParaModificar(@Param("ids") Collection<Long> ids);
+
+    // Cierre masivo de tópicos en una sola sentencia
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Topico t SET t.status = 'CERRADO' WHERE t.id IN :ids")
+    int cerrarTopicos(@Param("ids") Collection<Long> ids);
+
+    // Marca masiva de tópicos como actualizados en una sola sentencia
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Topico t SET t.status = 'ACTUALIZADO', t.fecha = :fecha WHERE t.id IN :ids")
+    int marcarActualizados(@Param("ids") Collection<Long> ids, @Param("fecha") LocalDateTime fecha);
+
+    // Lectura en streaming de los resúmenes de tópicos activos (fetch size mínimo para que MySQL no cargue todo el resultado)
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "" + Integer.MIN_VALUE))
+    @Query("SELECT new com.forohub.foro_api.service.indice.ResumenTopico(t.id, t.titulo, t.fecha, t.status, t.curso, SIZE(t.mensajes)) " +
+            "FROM Topico t WHERE t.status <> 'CERRADO'")
+    Stream<ResumenTopico> streamResumenesActivos();
+
+    // Resumen de un tópico activo, para refrescar su entrada en los índices en memoria
+    @Query("SELECT new com.forohub.foro_api.service.indice.ResumenTopico(t.id, t.titulo, t.fecha, t.status, t.curso, SIZE(t.mensajes)) " +
+            "FROM Topico t WHERE t.id = :id AND t.status <> 'CERRADO'")
+    Optional<ResumenTopico> findResumenActivo(@Param("id") Long id);
+
+    // Cantidad y suma de ids de los tópicos activos por curso, para verificar índices en memoria
+    @Query("SELECT t.curso, COUNT(t), SUM(t.id) FROM Topico t WHERE t.status <> 'CERRADO' GROUP BY t.curso")
+    List<Object[]> resumenActivosPorCurso();
 }
@@ -0,0 +1,150 @@
+package com.forohub.foro_api.service;
+
+import com.forohub.foro_api.infra.cache.RegistroCambios;
+import com.forohub.foro_api.infra.shard.MapaShards;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+@Service
+public class ArchivoTopicosService {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchivoTopicosService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RegistroCambios registroCambios;
+    private final MapaShards mapaShards;
+    private final Counter topicosArchivados;
+
+    @Value("${forohub.archivo.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${forohub.archivo.antiguedad-dias:180}")
+    private long antiguedadDias;
+
+    @Value("${forohub.archivo.tamanio-bloque:100}")
+    private int tamanioBloque;
+
+    @Value("${forohub.archivo.pausa-ms:200}")
+    private long pausaMs;
+
+    @Value("${forohub.archivo.maximo-bloques:500}")
+    private int maximoBloques;
+
+    public ArchivoTopicosService(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 RegistroCambios registroCambios,
+                                 MapaShards mapaShards,
+                                 MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.registroCambios = registroCambios;
+        this.mapaShards = mapaShards;
+        this.topicosArchivados = Counter.builder("forohub.archivo.topicos")
+                .description("Tópicos cerrados movidos a las tablas de archivo")
+                .register(registry);
+    }
+
+
+    /**
+     * Mueve los tópicos cerrados más antiguos que la antigüedad configurada, junto con sus
+     * mensajes, a las tablas de archivo.
+     *
+     * El trabajo avanza en bloques pequeños ordenados por id (paginación por clave) con una
+     * pausa entre bloques, de modo que ninguna transacción retiene bloqueos por mucho tiempo.
+     * Cada bloque copia, elimina y guarda el último id procesado en la misma transacción, por
+     * lo que tras una caída el trabajo se retoma desde el último bloque confirmado.
+     */
+    @Scheduled(cron = "${forohub.archivo.cron:0 30 3 * * *}")
+    public void archivarTopicosCerrados() {
+        if (!habilitado) {
+            return;
+        }
+        LocalDateTime limite = LocalDateTime.now().minusDays(antiguedadDias);
+        mapaShards.enCadaShard(shard -> archivarEnShard(shard, limite));
+    }
+
+
+    /**
+     * Recorre los tópicos archivables del shard actual; cada shard tiene su propia fila de
+     * progreso en archivo_progreso.
+     */
+    private void archivarEnShard(String shard, LocalDateTime limite) {
+        int total = 0;
+        for (int bloque = 0; bloque < maximoBloques; bloque++) {
+            Integer archivados;
+            try {
+                archivados = transactionTemplate.execute(status -> archivarBloque(limite));
+            } catch (DataAccessException e) {
+                // Un tópico ya presente en el archivo detiene este shard hasta revisarlo, no los demás
+                log.error("No se pudo archivar un bloque de tópicos en el shard {}; se omite hasta el próximo ciclo", shard, e);
+                break;
+            }
+            if (archivados == null || archivados < 0) {
+                break;
+            }
+            total += archivados;
+            try {
+                Thread.sleep(pausaMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Archivados {} tópicos cerrados anteriores a {} en el shard {}", total, limite, shard);
+        }
+    }
+
+
+    /**
+     * Archiva un bloque de tópicos dentro de la transacción actual.
+     *
+     * @param limite Fecha antes de la cual un tópico cerrado se considera archivable.
+     * @return Cantidad de tópicos archivados, o -1 si no quedan tópicos por recorrer.
+     */
+    private int archivarBloque(LocalDateTime limite) {
+        // Bloquear la fila de progreso serializa el trabajo entre nodos
+        Long ultimoId = jdbcTemplate.queryForObject(
+                "SELECT ultimo_id FROM archivo_progreso WHERE nombre = 'topicos' FOR UPDATE", Long.class);
+
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM topicos WHERE status = 'CERRADO' AND fecha < ? AND id > ? ORDER BY id LIMIT ? FOR UPDATE",
+                Long.class, Timestamp.valueOf(limite), ultimoId, tamanioBloque);
+        if (ids.isEmpty()) {
+            // Recorrido completo: el próximo ciclo vuelve a empezar desde el principio
+            jdbcTemplate.update("UPDATE archivo_progreso SET ultimo_id = 0 WHERE nombre = 'topicos'");
+            return -1;
+        }
+
+        String enLista = String.join(",", Collections.nCopies(ids.size(), "?"));
+        Object[] parametros = ids.toArray();
+        // Sin IGNORE: si una fila ya estaba archivada el bloque falla y se revierte en lugar de
+        // borrar el original sin haberlo copiado
+        jdbcTemplate.update("INSERT INTO topicos_archivados (id, titulo, fecha, status, autor, curso, vistas) " +
+                "SELECT id, titulo, fecha, status, autor, curso, vistas FROM topicos WHERE id IN (" + enLista + ")", parametros);
+        jdbcTemplate.update("INSERT INTO mensajes_archivados (id, contenido, fecha, autor, topico_id) " +
+                "SELECT id, contenido, fecha, autor, topico_id FROM mensajes WHERE topico_id IN (" + enLista + ")", parametros);
+        jdbcTemplate.update("DELETE FROM mensajes WHERE topico_id IN (" + enLista + ")", parametros);
+        int archivados = jdbcTemplate.update("DELETE FROM topicos WHERE id IN (" + enLista + ")", parametros);
+
+        jdbcTemplate.update("UPDATE archivo_progreso SET ultimo_id = ? WHERE nombre = 'topicos'", ids.get(ids.size() - 1));
+        ids.forEach(id -> registroCambios.registrar(RegistroCambios.TOPICO, id));
+        topicosArchivados.increment(archivados);
+        return archivados;
+    }
+}
@@ -0,0 +1,180 @@
+package com.forohub.foro_api.service;
+
+import com.forohub.foro_api.infra.cache.CacheLocal;
+import com.forohub.foro_api.infra.cache.RegistroCambios;
+import com.forohub.foro_api.service.eventos.EventoTopico;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa lecturas idénticas concurrentes ("single flight"): mientras una carga con la misma
+ * operación y argumentos está en curso, las demás peticiones esperan su resultado en lugar de
+ * repetir la consulta.
+ *
+ * Opcionalmente el resultado se comparte también durante unos milisegundos después de terminar
+ * ({@code forohub.coalescencia.retencion-ms}), salvo que entre tanto se haya confirmado una
+ * escritura de tópicos o mensajes: cada escritura (de este nodo o, vía registro de cambios, de
+ * otro) avanza una generación, y una carga iniciada en una generación anterior ya no admite
+ * nuevos lectores. Así ninguna respuesta compartida es anterior a una escritura que ya estaba
+ * confirmada cuando llegó la petición.
+ */
+@Service
+public class CoalescenciaLecturas implements CacheLocal {
+
+    private record Clave(String operacion, List<Object> argumentos) {
+    }
+
+    private record Vuelo(CompletableFuture<Object> resultado, long generacion, AtomicLong terminadoEn) {
+    }
+
+    private final Map<Clave, Vuelo> vuelos = new ConcurrentHashMap<>();
+    private final AtomicLong generacion = new AtomicLong();
+    private final MeterRegistry registry;
+    private final Map<String, Contadores> contadores = new ConcurrentHashMap<>();
+
+    @Value("${forohub.coalescencia.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${forohub.coalescencia.retencion-ms:0}")
+    private long retencionMs;
+
+    public CoalescenciaLecturas(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Ejecuta la carga o se suma a una idéntica en curso.
+     *
+     * @param operacion Nombre de la operación, parte de la clave y etiqueta de las métricas.
+     * @param carga Lectura a ejecutar si no hay una compartible.
+     * @param argumentos Argumentos que, junto con la operación, identifican la lectura.
+     * @return El resultado de la carga, propio o compartido; no debe modificarse.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T ejecutar(String operacion, Supplier<T> carga, Object... argumentos) {
+        if (!habilitado) {
+            return carga.get();
+        }
+        Clave clave = new Clave(operacion, List.of(argumentos));
+        Contadores contador = contadores.computeIfAbsent(operacion, Contadores::new);
+        long generacionActual = generacion.get();
+        while (true) {
+            Vuelo existente = vuelos.get(clave);
+            if (existente != null && compartible(existente, generacionActual)) {
+                contador.compartidas.increment();
+                return (T) esperar(existente.resultado());
+            }
+            Vuelo propio = new Vuelo(new CompletableFuture<>(), generacionActual, new AtomicLong());
+            boolean instalado = existente == null
+                    ? vuelos.putIfAbsent(clave, propio) == null
+                    : vuelos.replace(clave, existente, propio);
+            if (!instalado) {
+                continue;
+            }
+            contador.ejecutadas.increment();
+            try {
+                T valor = carga.get();
+                propio.terminadoEn().set(System.nanoTime());
+                propio.resultado().complete(valor);
+                if (retencionMs <= 0) {
+                    vuelos.remove(clave, propio);
+                }
+                return valor;
+            } catch (RuntimeException | Error e) {
+                vuelos.remove(clave, propio);
+                propio.resultado().completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    private boolean compartible(Vuelo vuelo, long generacionActual) {
+        if (vuelo.generacion() != generacionActual) {
+            return false;
+        }
+        long terminado = vuelo.terminadoEn().get();
+        return terminado == 0 || System.nanoTime() - terminado <= retencionMs * 1_000_000;
+    }
+
+    private static Object esperar(CompletableFuture<Object> resultado) {
+        try {
+            return resultado.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Las escrituras de tópicos y mensajes de este nodo avanzan la generación al confirmarse.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alConfirmarCambio(EventoTopico evento) {
+        avanzarGeneracion();
+    }
+
+    @Override
+    public String entidad() {
+        return RegistroCambios.TOPICO;
+    }
+
+    @Override
+    public void invalidar(String clave) {
+        avanzarGeneracion();
+    }
+
+    @Override
+    public void invalidarTodo() {
+        avanzarGeneracion();
+    }
+
+    private void avanzarGeneracion() {
+        generacion.incrementAndGet();
+        // Los vuelos terminados de generaciones anteriores ya no sirven
+        vuelos.values().removeIf(vuelo -> vuelo.terminadoEn().get() != 0);
+    }
+
+    private final class Contadores {
+
+        private final Counter ejecutadas;
+        private final Counter compartidas;
+
+        private Contadores(String operacion) {
+            this.ejecutadas = Counter.builder("forohub.coalescencia.lecturas")
+                    .description("Lecturas atendidas por la capa de coalescencia")
+                    .tag("operacion", operacion)
+                    .tag("resultado", "ejecutada")
+                    .register(registry);
+            this.compartidas = Counter.builder("forohub.coalescencia.lecturas")
+                    .description("Lecturas atendidas por la capa de coalescencia")
+                    .tag("operacion", operacion)
+                    .tag("resultado", "compartida")
+                    .register(registry);
+            Gauge.builder("forohub.coalescencia.proporcion", this,
+                            c -> {
+                                double total = c.ejecutadas.count() + c.compartidas.count();
+                                return total == 0 ? 0 : c.compartidas.count() / total;
+                            })
+                    .description("Proporción de lecturas que compartieron el resultado de otra")
+                    .tag("operacion", operacion)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.forohub.foro_api.service;
+
+import com.forohub.foro_api.infra.compresion.CompresionContenido;
+import com.forohub.foro_api.infra.shard.MapaShards;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Relleno de los mensajes guardados antes de la compresión: calcula su extracto y comprime el
+ * contenido de los que superan el umbral.
+ *
+ * Recorre la tabla por id en bloques pequeños con una pausa entre bloques, igual que el archivo
+ * de tópicos, y guarda el último id procesado en archivo_progreso dentro de la misma
+ * transacción. Al terminar el recorrido el cursor queda al final: los mensajes nuevos ya se
+ * escriben con extracto, así que las ejecuciones siguientes solo miran las filas posteriores.
+ */
+@Service
+public class CompresionMensajesService {
+
+    private static final Logger log = LoggerFactory.getLogger(CompresionMensajesService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MapaShards mapaShards;
+    private final Counter mensajesComprimidos;
+    private final ExecutorService ejecutor = Executors.newSingleThreadExecutor(tarea -> {
+        Thread hilo = new Thread(tarea, "relleno-compresion");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+    private final AtomicBoolean enCurso = new AtomicBoolean();
+    private volatile boolean detenido;
+
+    @Value("${forohub.compresion.relleno.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${forohub.compresion.relleno.tamanio-bloque:500}")
+    private int tamanioBloque;
+
+    @Value("${forohub.compresion.relleno.pausa-ms:100}")
+    private long pausaMs;
+
+    @Value("${forohub.compresion.relleno.maximo-bloques:200}")
+    private int maximoBloques;
+
+    public CompresionMensajesService(JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     MapaShards mapaShards,
+                                     MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.mapaShards = mapaShards;
+        this.mensajesComprimidos = Counter.builder("forohub.compresion.mensajes")
+                .description("Mensajes existentes comprimidos por el relleno")
+                .register(registry);
+    }
+
+
+    /**
+     * Lanza una pasada del relleno en su propio hilo, para que sus pausas no ocupen el
+     * programador de tareas; si la pasada anterior sigue en curso, no hace nada.
+     */
+    @Scheduled(fixedDelayString = "${forohub.compresion.relleno.intervalo-ms:600000}",
+            initialDelayString = "${forohub.compresion.relleno.demora-inicial-ms:60000}")
+    public void rellenarMensajes() {
+        if (!habilitado || detenido || !enCurso.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            ejecutor.execute(() -> {
+                try {
+                    mapaShards.enCadaShard(this::rellenarEnShard);
+                } finally {
+                    enCurso.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            enCurso.set(false);
+        }
+    }
+
+
+    // Interrumpe la pasada en curso en la pausa entre bloques; el bloque actual termina o se revierte
+    @PreDestroy
+    public void detener() throws InterruptedException {
+        detenido = true;
+        ejecutor.shutdownNow();
+        ejecutor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+
+    private void rellenarEnShard(String shard) {
+        int total = 0;
+        for (int bloque = 0; bloque < maximoBloques && !detenido; bloque++) {
+            Integer procesados = transactionTemplate.execute(status -> rellenarBloque());
+            if (procesados == null || procesados < 0) {
+                break;
+            }
+            total += procesados;
+            try {
+                Thread.sleep(pausaMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Relleno de compresión: {} mensajes procesados en el shard {}", total, shard);
+        }
+    }
+
+
+    /**
+     * Recorre el siguiente bloque de ids dentro de la transacción actual y reescribe los mensajes
+     * sin extracto. La lectura del rango no toma bloqueos; solo se bloquean las filas que se
+     * reescriben, así que no se frenan las inserciones de mensajes nuevos. El cursor avanza hasta
+     * el último id recorrido aunque ningún mensaje del bloque necesite relleno.
+     *
+     * @return Cantidad de mensajes recorridos, o -1 si no quedan mensajes por recorrer.
+     */
+    private int rellenarBloque() {
+        // Bloquear la fila de progreso serializa el trabajo entre nodos
+        Long ultimoId = jdbcTemplate.queryForObject(
+                "SELECT ultimo_id FROM archivo_progreso WHERE nombre = 'mensajes_compresion' FOR UPDATE", Long.class);
+
+        List<Object[]> recorridos = jdbcTemplate.query(
+                "SELECT id, extracto IS NULL AS pendiente FROM mensajes WHERE id > ? ORDER BY id LIMIT ?",
+                (rs, i) -> new Object[]{rs.getLong("id"), rs.getBoolean("pendiente")},
+                ultimoId, tamanioBloque);
+        if (recorridos.isEmpty()) {
+            return -1;
+        }
+
+        List<Long> pendientes = recorridos.stream()
+                .filter(fila -> (Boolean) fila[1])
+                .map(fila -> (Long) fila[0])
+                .toList();
+        if (!pendientes.isEmpty()) {
+            // La lectura con bloqueo ve la última versión: descarta los que otro proceso ya rellenó
+            List<Object[]> cambios = namedJdbcTemplate.query(
+                    "SELECT id, contenido FROM mensajes WHERE id IN (:ids) AND extracto IS NULL FOR UPDATE",
+                    Map.of("ids", pendientes),
+                    (rs, i) -> {
+                        String contenido = CompresionContenido.decodificar(rs.getBytes("contenido"));
+                        return new Object[]{CompresionContenido.codificar(contenido),
+                                CompresionContenido.extracto(contenido), rs.getLong("id")};
+                    });
+            jdbcTemplate.batchUpdate("UPDATE mensajes SET contenido = ?, extracto = ? WHERE id = ?", cambios);
+            mensajesComprimidos.increment(cambios.stream()
+                    .filter(cambio -> CompresionContenido.estaComprimido((byte[]) cambio[0]))
+                    .count());
+        }
+
+        jdbcTemplate.update("UPDATE archivo_progreso SET ultimo_id = ? WHERE nombre = 'mensajes_compresion'",
+                recorridos.get(recorridos.size() - 1)[0]);
+        return recorridos.size();
+    }
+}
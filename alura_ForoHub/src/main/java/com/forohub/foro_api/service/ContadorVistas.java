@@ -0,0 +1,132 @@
+package com.forohub.foro_api.service;
+
+import com.forohub.foro_api.infra.shard.MapaShards;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+@Service
+public class ContadorVistas {
+
+    private static final Logger log = LoggerFactory.getLogger(ContadorVistas.class);
+
+    private final ConcurrentHashMap<Long, LongAdder> pendientes = new ConcurrentHashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MapaShards mapaShards;
+    private final Counter vistasVolcadas;
+
+    @Value("${forohub.vistas.tamanio-lote:500}")
+    private int tamanioLote;
+
+    public ContadorVistas(JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          MapaShards mapaShards,
+                          MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.mapaShards = mapaShards;
+        this.vistasVolcadas = Counter.builder("forohub.vistas.volcadas")
+                .description("Vistas de tópicos escritas en la base de datos")
+                .register(registry);
+        Gauge.builder("forohub.vistas.pendientes", pendientes, Map::size)
+                .description("Tópicos con vistas acumuladas en memoria pendientes de volcar")
+                .register(registry);
+    }
+
+
+    /**
+     * Cuenta una vista de un tópico en memoria.
+     *
+     * Cada tópico usa un LongAdder, que reparte los incrementos concurrentes entre celdas
+     * independientes, así que registrar una vista no bloquea ni compite con otras peticiones.
+     *
+     * @param idTopico Identificador del tópico visto.
+     */
+    public void registrar(Long idTopico) {
+        LongAdder contador = pendientes.get(idTopico);
+        if (contador == null) {
+            contador = pendientes.computeIfAbsent(idTopico, id -> new LongAdder());
+        }
+        contador.increment();
+    }
+
+
+    /**
+     * Vuelca a la columna vistas los incrementos acumulados desde el último volcado,
+     * con UPDATE en lote ordenados por id, agrupados por shard.
+     *
+     * Los tópicos sin vistas en el intervalo se retiran del mapa; una vista que coincida
+     * exactamente con ese retiro puede perderse, lo que es aceptable para un contador de lecturas.
+     */
+    @Scheduled(fixedDelayString = "${forohub.vistas.volcado-ms:5000}")
+    public void volcar() {
+        List<long[]> deltas = new ArrayList<>();
+        pendientes.forEach((id, contador) -> {
+            long delta = contador.sumThenReset();
+            if (delta > 0) {
+                deltas.add(new long[]{id, delta});
+            } else {
+                pendientes.remove(id, contador);
+            }
+        });
+        if (deltas.isEmpty()) {
+            return;
+        }
+        deltas.sort((a, b) -> Long.compare(a[0], b[0]));
+        Map<String, List<long[]>> porShard = new LinkedHashMap<>();
+        deltas.forEach(delta -> porShard.computeIfAbsent(mapaShards.shardDeId(delta[0]), shard -> new ArrayList<>()).add(delta));
+        porShard.forEach((shard, deltasShard) -> {
+            try (MapaShards.Alcance alcance = mapaShards.usar(shard)) {
+                volcarEnShard(deltasShard);
+            }
+        });
+    }
+
+
+    // Cada lote se confirma en su propia transacción: si falla, se revierte entero y solo sus
+    // incrementos vuelven al mapa, sin duplicar los de los lotes ya confirmados
+    private void volcarEnShard(List<long[]> deltas) {
+        for (int i = 0; i < deltas.size(); i += tamanioLote) {
+            List<long[]> lote = deltas.subList(i, Math.min(i + tamanioLote, deltas.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                        "UPDATE topicos SET vistas = vistas + ? WHERE id = ?",
+                        lote, lote.size(), (ps, delta) -> {
+                            ps.setLong(1, delta[1]);
+                            ps.setLong(2, delta[0]);
+                        }));
+                vistasVolcadas.increment(lote.stream().mapToLong(delta -> delta[1]).sum());
+            } catch (DataAccessException | TransactionException e) {
+                // Devolver los incrementos al mapa para reintentarlos en el próximo volcado
+                log.warn("No se pudieron volcar las vistas de {} tópicos; se reintentará", lote.size(), e);
+                lote.forEach(delta -> pendientes.computeIfAbsent(delta[0], id -> new LongAdder()).add(delta[1]));
+            }
+        }
+    }
+
+
+    // Vuelca lo pendiente al cerrar la aplicación, antes de que se cierre el pool de conexiones
+    @PreDestroy
+    public void vaciarAlDetener() {
+        volcar();
+    }
+}
@@ -2,25 +2,61 @@ package com.forohub.foro_api.service;
 
 import com.forohub.foro_api.controller.TopicoController;
 import com.forohub.foro_api.dto.*;
+import com.forohub.foro_api.infra.compresion.CompresionContenido;
+import com.forohub.foro_api.infra.shard.MapaShards;
+import com.forohub.foro_api.infra.shard.MezclaOrdenada;
 import com.forohub.foro_api.model.Curso;
 import com.forohub.foro_api.model.Mensaje;
 import com.forohub.foro_api.model.Topico;
+import com.forohub.foro_api.repository.ArchivoTopicoRepository;
+import com.forohub.foro_api.repository.ExtractoMensajeRepository;
 import com.forohub.foro_api.repository.TopicoRepository;
 import com.forohub.foro_api.repository.MensajeRepository;
+import com.forohub.foro_api.service.eventos.BandejaSalida;
+import com.forohub.foro_api.service.eventos.DatosEventoForo;
+import com.forohub.foro_api.service.eventos.EventoTopico;
+import com.forohub.foro_api.service.eventos.TipoEventoForo;
+import com.forohub.foro_api.service.estadisticas.CambiosEstadisticas;
+import com.forohub.foro_api.service.estadisticas.RegistroEstadisticas;
+import com.forohub.foro_api.service.indice.IndiceSugerencias;
+import com.forohub.foro_api.service.indice.IndiceTopicosActivos;
+import com.forohub.foro_api.service.indice.PaginaIndice;
+import com.forohub.foro_api.service.indice.TendenciasTopicos;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.data.web.SlicedResourcesAssembler;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.SlicedModel;
 import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
 import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.util.List;
-import java.util.Optional;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 public class TopicoService {
@@ -31,27 +67,84 @@ public class TopicoService {
     @Autowired
     private MensajeRepository mensajeRepository;
 
+    @Autowired
+    private ArchivoTopicoRepository archivoTopicoRepository;
+
+    @Autowired
+    private ExtractoMensajeRepository extractoMensajeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MapaShards mapaShards;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private BandejaSalida bandejaSalida;
+
+    @Autowired
+    private IndiceTopicosActivos indiceTopicosActivos;
+
+    @Autowired
+    private IndiceSugerencias indiceSugerencias;
+
+    @Autowired
+    private TendenciasTopicos tendenciasTopicos;
+
+    @Autowired
+    private CoalescenciaLecturas coalescencia;
+
+    @Autowired
+    private RegistroEstadisticas registroEstadisticas;
+
+    @Value("${forohub.lote.maximo-operaciones:1000}")
+    private int maximoOperacionesLote;
+
+    @Value("${forohub.lote.tamanio-bloque:500}")
+    private int tamanioBloqueLote;
+
+    @Value("${forohub.consulta-ids.maximo:100}")
+    private int maximoIdsConsulta;
+
+    @Value("${forohub.consulta-ids.mensajes-por-topico:3}")
+    private int mensajesPorTopicoConsulta;
+
 
     /**
      * Registra un nuevo tópico en el repositorio.
      *
      * Este método verifica si ya existe un tópico con el mismo título y mensaje.
      * Si ya existe, lanza una excepción indicando un error de solicitud.
-     * Si no existe, guarda el nuevo tópico en el repositorio.
+     * Si no existe, guarda el nuevo tópico en el repositorio y registra el evento TOPICO_CREADO
+     * en la bandeja de salida y el tópico en las estadísticas, dentro de la misma transacción.
      *
      * @param datosRegistroTopico Datos del nuevo tópico a registrar.
      * @return El tópico registrado.
      * @throws ResponseStatusException si el tópico ya existe.
      */
+    @Transactional
     public Topico registrarTopico(DatosRegistroTopico datosRegistroTopico) {
-        // Verificar si ya existe un tópico con el mismo título y mensaje
-        if (topicoRepository.existsByTituloAndMensajes_contenido(datosRegistroTopico.titulo(), datosRegistroTopico.mensaje())) {
-            // Lanzar una excepción indicando que el tópico ya existe
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "El tópico ya existe.");
+        try (MapaShards.Alcance shard = mapaShards.usar(mapaShards.shardDe(datosRegistroTopico.curso()))) {
+            // Verificar si ya existe un tópico con el mismo título y mensaje
+            if (topicoRepository.existsByTituloAndMensajes_contenido(datosRegistroTopico.titulo(), datosRegistroTopico.mensaje())) {
+                // Lanzar una excepción indicando que el tópico ya existe
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "El tópico ya existe.");
+            }
+            // Si no existe, proceder a guardar el nuevo tópico
+            Topico nuevoTopico = topicoRepository.save(new Topico(datosRegistroTopico));
+            eventPublisher.publishEvent(EventoTopico.creado(nuevoTopico));
+            bandejaSalida.registrar(TipoEventoForo.TOPICO_CREADO, nuevoTopico.getId(),
+                    DatosEventoForo.topicoCreado(nuevoTopico));
+            registroEstadisticas.aplicar(new CambiosEstadisticas().topicoCreado(nuevoTopico.getCurso(),
+                    nuevoTopico.getStatus(), nuevoTopico.getMensajes().get(0).getFecha(), nuevoTopico.getAutor()));
+            return nuevoTopico;
         }
-        // Si no existe, proceder a guardar el nuevo tópico
-        Topico nuevoTopico = new Topico(datosRegistroTopico);
-        return topicoRepository.save(nuevoTopico);
     }
 
 
@@ -61,25 +154,257 @@ public class TopicoService {
      * Este método obtiene todos los tópicos activos del repositorio y los
      * mapea a objetos de DTO de listado de tópicos para ser retornados en una página.
      *
+     * La conversión a DTO ocurre dentro de una transacción de solo lectura, de modo que
+     * la conexión vuelve al pool antes de que comience la serialización de la respuesta.
+     * Si el índice en memoria de tópicos activos puede resolver la página, solo se cargan
+     * de la base de datos los tópicos de esa página. Si no, con varios shards la página se arma
+     * mezclando los listados ordenados de cada shard. En ambos casos el total sale de los
+     * contadores del índice, sin consulta de conteo. Los mensajes se listan como vista previa,
+     * con los primeros caracteres de su contenido; el detalle del tópico trae el contenido completo.
+     *
      * @param paginacion Parámetros de paginación y ordenamiento.
      * @return Una página de objetos de DTO de listado de tópicos.
      */
     public Page<DatosListadoTopico> listarTopicos(Pageable paginacion) {
-        return topicoRepository.findAllActive(paginacion).map(DatosListadoTopico::new);
+        return coalescencia.ejecutar("listado", () -> listarDesdeIndice(null, paginacion)
+                .orElseGet(() -> conTotal(null, listarEnShards(null, paginacion))), paginacion);
     }
 
 
     /**
-     * Convierte una página de entidades Topico a un modelo paginado de recursos de DTO DatosListadoTopico.
+     * Lista los tópicos activos sin calcular el total, para clientes que solo avanzan página a página.
+     *
+     * @param paginacion Parámetros de paginación y ordenamiento.
+     * @return Un tramo de objetos de DTO de listado de tópicos que indica si hay uno siguiente.
+     */
+    public Slice<DatosListadoTopico> listarTopicosSinTotal(Pageable paginacion) {
+        return coalescencia.ejecutar("listado-sin-total", () -> listarDesdeIndice(null, paginacion)
+                .<Slice<DatosListadoTopico>>map(pagina -> pagina)
+                .orElseGet(() -> listarEnShards(null, paginacion)), paginacion);
+    }
+
+
+    /**
+     * Lista los tópicos activos, de un curso o de todos, desde la base de datos y sin COUNT(*).
+     *
+     * Con un curso, o con un único shard, es la consulta paginada directa sobre ese shard.
+     * Con varios, cada shard devuelve en el orden pedido los primeros offset + tamaño de página
+     * tópicos y una mezcla de k vías sobre esas listas ordenadas produce la página global; hay
+     * página siguiente si la mezcla encuentra un elemento más o si algún shard tenía más filas.
+     */
+    private Slice<DatosListadoTopico> listarEnShards(Curso curso, Pageable paginacion) {
+        return listarEnShards(curso, paginacion, pagina -> consultarActivos(curso, pagina), this::aListado);
+    }
+
+
+    /**
+     * Mezcla entre shards común a los listados: la consulta trae los tópicos de un shard en el
+     * orden pedido y la conversión los pasa a DTO dentro de la misma transacción.
+     */
+    private <T> Slice<T> listarEnShards(Curso curso, Pageable paginacion,
+                                        Function<Pageable, Slice<Topico>> consulta,
+                                        Function<List<Topico>, List<T>> conversion) {
+        List<String> shards = curso == null ? mapaShards.shards() : List.of(mapaShards.shardDe(curso));
+        if (shards.size() == 1) {
+            return leerEnShard(shards.get(0), () -> {
+                Slice<Topico> topicos = consulta.apply(paginacion);
+                return new SliceImpl<>(conversion.apply(topicos.getContent()), topicos.getPageable(), topicos.hasNext());
+            });
+        }
+        Comparator<Topico> orden = ordenListado(paginacion.getSort());
+        Pageable primeros = PageRequest.of(0, (int) (paginacion.getOffset() + paginacion.getPageSize()), paginacion.getSort());
+        List<List<Topico>> listas = new ArrayList<>();
+        Map<Topico, T> datos = new IdentityHashMap<>();
+        boolean quedanEnShard = false;
+        for (String shard : shards) {
+            Slice<Topico> tramo = leerEnShard(shard, () -> {
+                Slice<Topico> topicos = consulta.apply(primeros);
+                List<T> listado = conversion.apply(topicos.getContent());
+                for (int i = 0; i < listado.size(); i++) {
+                    datos.put(topicos.getContent().get(i), listado.get(i));
+                }
+                return topicos;
+            });
+            listas.add(tramo.getContent());
+            quedanEnShard |= tramo.hasNext();
+        }
+        List<T> contenido = MezclaOrdenada.mezclar(listas, orden, paginacion.getOffset(), paginacion.getPageSize() + 1)
+                .stream()
+                .map(datos::get)
+                .collect(Collectors.toCollection(ArrayList::new));
+        boolean haySiguiente = quedanEnShard || contenido.size() > paginacion.getPageSize();
+        if (contenido.size() > paginacion.getPageSize()) {
+            contenido.remove(contenido.size() - 1);
+        }
+        return new SliceImpl<>(contenido, paginacion, haySiguiente);
+    }
+
+
+    /**
+     * Convierte tópicos del shard actual a DTO de listado. Los mensajes llevan solo su extracto,
+     * leído en una única consulta sin tocar el contenido completo (que puede estar comprimido);
+     * los que todavía no tienen extracto se cargan completos y se recortan.
+     */
+    private List<DatosListadoTopico> aListado(List<Topico> topicos) {
+        if (topicos.isEmpty()) {
+            return List.of();
+        }
+        return aListado(topicos, mensajeRepository.findExtractos(topicos.stream().map(Topico::getId).toList()));
+    }
+
+
+    private List<DatosListadoTopico> aListado(List<Topico> topicos, List<DatosExtractoMensaje> extractos) {
+        Map<Long, List<DatosListadoMensaje>> porTopico = vistasPrevias(extractos);
+        return topicos.stream()
+                .map(topico -> new DatosListadoTopico(topico, porTopico.getOrDefault(topico.getId(), List.of())))
+                .toList();
+    }
+
+
+    /**
+     * Agrupa por tópico las vistas previas de mensajes; los que todavía no tienen extracto se
+     * cargan completos en una sola consulta y se recortan.
+     */
+    private Map<Long, List<DatosListadoMensaje>> vistasPrevias(List<DatosExtractoMensaje> extractos) {
+        List<Long> sinExtracto = extractos.stream()
+                .filter(extracto -> extracto.extracto() == null)
+                .map(DatosExtractoMensaje::id)
+                .toList();
+        Map<Long, String> recortados = sinExtracto.isEmpty() ? Map.of() : mensajeRepository.findAllById(sinExtracto).stream()
+                .collect(Collectors.toMap(Mensaje::getId, mensaje -> CompresionContenido.extracto(mensaje.getContenido())));
+        Map<Long, List<DatosListadoMensaje>> porTopico = new HashMap<>();
+        for (DatosExtractoMensaje extracto : extractos) {
+            String texto = extracto.extracto() != null ? extracto.extracto() : recortados.get(extracto.id());
+            porTopico.computeIfAbsent(extracto.idTopico(), id -> new ArrayList<>())
+                    .add(new DatosListadoMensaje(extracto.id(), texto, extracto.fecha(), extracto.autor()));
+        }
+        return porTopico;
+    }
+
+
+    /**
+     * Convierte tópicos proyectados del shard actual a DTO parcial. Los mensajes se consultan
+     * solo si se pidieron, y entonces como vista previa, igual que en el listado completo.
+     */
+    private List<DatosTopicoParcial> aParciales(List<Topico> topicos, Set<CampoTopico> campos) {
+        Map<Long, List<DatosListadoMensaje>> mensajes = campos.contains(CampoTopico.MENSAJES) && !topicos.isEmpty()
+                ? vistasPrevias(mensajeRepository.findExtractos(topicos.stream().map(Topico::getId).toList()))
+                : Map.of();
+        return topicos.stream()
+                .map(topico -> new DatosTopicoParcial(topico, campos, mensajes.getOrDefault(topico.getId(), List.of())))
+                .toList();
+    }
+
+
+    /**
+     * Busca varios tópicos por sus IDs de una vez.
+     *
+     * Con una consulta IN por shard carga los tópicos y con otra los últimos mensajes de cada uno
+     * como vista previa (a lo sumo {@code forohub.consulta-ids.mensajes-por-topico}); los IDs que
+     * no están en las tablas principales se buscan, también juntos, en las de archivo. La cantidad
+     * de consultas no depende de cuántos IDs se pidan.
+     *
+     * @param ids IDs de los tópicos, como mucho {@code forohub.consulta-ids.maximo}.
+     * @return Un resultado por ID, en el orden pedido, que indica si el tópico se encontró.
+     * @throws ResponseStatusException Si la lista está vacía o supera el máximo.
+     */
+    public List<DatosResultadoTopico> buscarTopicosPorIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty() || ids.contains(null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Debe indicar al menos un id válido");
+        }
+        if (ids.size() > maximoIdsConsulta) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "La consulta no puede superar los " + maximoIdsConsulta + " ids");
+        }
+        Map<Long, DatosListadoTopico> porId = new HashMap<>();
+        mapaShards.agruparPorShard(new LinkedHashSet<>(ids)).forEach((shard, idsShard) -> porId.putAll(leerEnShard(shard, () -> {
+            List<Topico> topicos = topicoRepository.findAllById(idsShard);
+            Map<Long, DatosListadoTopico> encontrados = aListado(topicos,
+                    extractoMensajeRepository.recientes(topicos.stream().map(Topico::getId).toList(), mensajesPorTopicoConsulta))
+                    .stream()
+                    .collect(Collectors.toMap(DatosListadoTopico::id, datos -> datos));
+            List<Long> faltantes = idsShard.stream().filter(id -> !encontrados.containsKey(id)).toList();
+            archivoTopicoRepository.buscarListados(faltantes, mensajesPorTopicoConsulta)
+                    .forEach(datos -> encontrados.put(datos.id(), datos));
+            return encontrados;
+        })));
+        return ids.stream()
+                .map(id -> new DatosResultadoTopico(id, porId.containsKey(id), porId.get(id)))
+                .toList();
+    }
+
+
+    private Slice<Topico> consultarActivos(Curso curso, Pageable paginacion) {
+        return curso == null
+                ? topicoRepository.findAllActive(paginacion)
+                : topicoRepository.findByCursoAndStatusNotClosed(curso, paginacion);
+    }
+
+
+    /**
+     * Completa un tramo con el total de tópicos activos. Lo toma de los contadores del índice
+     * en memoria y solo si el índice no está listo cuenta en la base de datos, shard por shard.
+     */
+    private <T> Page<T> conTotal(Curso curso, Slice<T> tramo) {
+        long total = indiceTopicosActivos.totalActivos(curso).orElseGet(() -> {
+            List<String> shards = curso == null ? mapaShards.shards() : List.of(mapaShards.shardDe(curso));
+            long suma = 0;
+            for (String shard : shards) {
+                suma += leerEnShard(shard, () -> topicoRepository.contarActivos(curso));
+            }
+            return suma;
+        });
+        return new PageImpl<>(tramo.getContent(), tramo.getPageable(), total);
+    }
+
+
+    /**
+     * Traduce el orden de la petición a un comparador equivalente al ORDER BY de MySQL, con el
+     * id como desempate.
+     *
+     * @throws ResponseStatusException si se pide ordenar por una propiedad no admitida.
+     */
+    private Comparator<Topico> ordenListado(Sort sort) {
+        Comparator<Topico> orden = (a, b) -> 0;
+        for (Sort.Order criterio : sort) {
+            Comparator<Topico> comparador = switch (criterio.getProperty()) {
+                case "fecha" -> Comparator.comparing(Topico::getFecha, Comparator.nullsFirst(Comparator.naturalOrder()));
+                case "id" -> Comparator.comparing(Topico::getId);
+                case "titulo" -> Comparator.comparing(Topico::getTitulo, String.CASE_INSENSITIVE_ORDER);
+                case "autor" -> Comparator.comparing(Topico::getAutor, String.CASE_INSENSITIVE_ORDER);
+                case "status" -> Comparator.comparing(Topico::getStatus, String.CASE_INSENSITIVE_ORDER);
+                case "curso" -> Comparator.comparing(Topico::getCurso);
+                case "vistas" -> Comparator.comparing(Topico::getVistas, Comparator.nullsFirst(Comparator.naturalOrder()));
+                default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "No se puede ordenar por " + criterio.getProperty());
+            };
+            orden = orden.thenComparing(criterio.isDescending() ? comparador.reversed() : comparador);
+        }
+        return orden.thenComparing(Topico::getId);
+    }
+
+
+    /**
+     * Ejecuta una lectura en una transacción de solo lectura sobre el shard indicado.
+     */
+    private <T> T leerEnShard(String shard, Supplier<T> lectura) {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        transaccion.setReadOnly(true);
+        return mapaShards.en(shard, () -> transaccion.execute(status -> lectura.get()));
+    }
+
+
+    /**
+     * Convierte una página de DTO de tópicos (completos o parciales) a un modelo paginado de recursos.
      *
      * @param topicosPage La página de entidades Topico.
      * @param pagedResourcesAssembler El ensamblador de recursos paginados.
      * @param paginacion Los parámetros de paginación.
      * @return El modelo paginado de recursos.
      */
-    public PagedModel<EntityModel<DatosListadoTopico>> convertirAPagedModel(Page<DatosListadoTopico> topicosPage,
-                                                                            PagedResourcesAssembler<DatosListadoTopico> pagedResourcesAssembler,
-                                                                            Pageable paginacion) {
+    public <T> PagedModel<EntityModel<T>> convertirAPagedModel(Page<T> topicosPage,
+                                                               PagedResourcesAssembler<T> pagedResourcesAssembler,
+                                                               Pageable paginacion) {
         return pagedResourcesAssembler.toModel(topicosPage,
                 topico -> EntityModel.of(topico,
                         WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(TopicoController.class)
@@ -87,6 +412,24 @@ public class TopicoService {
     }
 
 
+    /**
+     * Convierte un tramo de DTO DatosListadoTopico a un modelo de recursos sin total.
+     *
+     * @param topicosSlice El tramo de tópicos.
+     * @param slicedResourcesAssembler El ensamblador de recursos por tramos.
+     * @param paginacion Los parámetros de paginación.
+     * @return El modelo de recursos con enlaces a los tramos anterior y siguiente.
+     */
+    public SlicedModel<EntityModel<DatosListadoTopico>> convertirASlicedModel(Slice<DatosListadoTopico> topicosSlice,
+                                                                              SlicedResourcesAssembler<DatosListadoTopico> slicedResourcesAssembler,
+                                                                              Pageable paginacion) {
+        return slicedResourcesAssembler.toModel(topicosSlice,
+                topico -> EntityModel.of(topico,
+                        WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(TopicoController.class)
+                                .listadoTopicos(paginacion)).withSelfRel()));
+    }
+
+
     /**
      * Busca y lista tópicos activos por curso con paginación.
      *
@@ -100,30 +443,226 @@ public class TopicoService {
      * @throws ResponseStatusException Si el nombre del curso es inválido.
      */
     public Page<DatosListadoTopico> buscarTopicosPorCurso(String nombreCurso, Pageable paginacion) {
-        Curso curso;
+        Curso curso = convertirCurso(nombreCurso);
+        return coalescencia.ejecutar("curso", () -> listarDesdeIndice(curso, paginacion)
+                .orElseGet(() -> conTotal(curso, listarEnShards(curso, paginacion))), curso, paginacion);
+    }
+
+
+    /**
+     * Busca tópicos activos por curso sin calcular el total.
+     *
+     * @param nombreCurso Nombre del curso a buscar.
+     * @param paginacion Parámetros de paginación y ordenamiento.
+     * @return Un tramo de objetos de DTO de listado de tópicos que indica si hay uno siguiente.
+     * @throws ResponseStatusException Si el nombre del curso es inválido.
+     */
+    public Slice<DatosListadoTopico> buscarTopicosPorCursoSinTotal(String nombreCurso, Pageable paginacion) {
+        Curso curso = convertirCurso(nombreCurso);
+        return coalescencia.ejecutar("curso-sin-total", () -> listarDesdeIndice(curso, paginacion)
+                .<Slice<DatosListadoTopico>>map(pagina -> pagina)
+                .orElseGet(() -> listarEnShards(curso, paginacion)), curso, paginacion);
+    }
+
+
+    /**
+     * Lista los tópicos activos con solo los campos pedidos, p. ej. {@code fields=id,titulo,status}.
+     *
+     * Los campos determinan las columnas de la consulta, que además no toca los mensajes salvo
+     * que se pidan; la respuesta omite los campos no pedidos. El id siempre se incluye.
+     *
+     * @param campos Nombres de los campos separados por comas.
+     * @param paginacion Parámetros de paginación y ordenamiento.
+     * @return Una página de tópicos parciales.
+     * @throws ResponseStatusException Si algún campo es inválido.
+     */
+    public Page<DatosTopicoParcial> listarTopicosParciales(String campos, Pageable paginacion) {
+        return listarParciales(null, convertirCampos(campos), paginacion);
+    }
+
+
+    /**
+     * Busca tópicos activos por curso con solo los campos pedidos.
+     *
+     * @param nombreCurso Nombre del curso a buscar.
+     * @param campos Nombres de los campos separados por comas.
+     * @param paginacion Parámetros de paginación y ordenamiento.
+     * @return Una página de tópicos parciales del curso.
+     * @throws ResponseStatusException Si el nombre del curso o algún campo es inválido.
+     */
+    public Page<DatosTopicoParcial> buscarTopicosPorCursoParciales(String nombreCurso, String campos, Pageable paginacion) {
+        return listarParciales(convertirCurso(nombreCurso), convertirCampos(campos), paginacion);
+    }
+
+
+    /**
+     * Igual que el listado completo: los ids de la página salen del índice en memoria si está
+     * listo, y si no la página se arma en la base de datos mezclando shards.
+     */
+    private Page<DatosTopicoParcial> listarParciales(Curso curso, Set<CampoTopico> campos, Pageable paginacion) {
+        // Valida el orden antes de llevarlo a la consulta
+        ordenListado(paginacion.getSort());
+        Optional<PaginaIndice> pagina = indiceTopicosActivos.pagina(curso, paginacion);
+        if (pagina.isPresent()) {
+            List<Long> ids = pagina.get().ids();
+            Map<Long, DatosTopicoParcial> porId = new HashMap<>();
+            mapaShards.agruparPorShard(ids).forEach((shard, idsShard) -> leerEnShard(shard, () ->
+                    aParciales(topicoRepository.proyectarPorIds(campos, idsShard, true), campos))
+                    .forEach(datos -> porId.put(datos.id(), datos)));
+            if (porId.size() == ids.size()) {
+                return new PageImpl<>(ids.stream().map(porId::get).toList(), paginacion, pagina.get().total());
+            }
+        }
+        return conTotal(curso, listarEnShards(curso, paginacion,
+                primeros -> topicoRepository.proyectarActivos(campos, curso, primeros),
+                topicos -> aParciales(topicos, campos)));
+    }
+
+
+    /**
+     * Convierte la lista de campos de la petición, ignorando espacios y mayúsculas.
+     *
+     * @throws ResponseStatusException Si algún campo es inválido.
+     */
+    private Set<CampoTopico> convertirCampos(String campos) {
+        Set<CampoTopico> seleccion = EnumSet.of(CampoTopico.ID);
+        for (String nombre : campos.split(",")) {
+            if (!nombre.isBlank()) {
+                seleccion.add(CampoTopico.dePropiedad(nombre.trim())
+                        .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Campo inválido: " + nombre.trim())));
+            }
+        }
+        return seleccion;
+    }
+
+
+    /**
+     * Sugiere títulos de tópicos activos que empiezan con el prefijo indicado.
+     *
+     * Las sugerencias se resuelven en memoria, sin consultar la base de datos, comparando sin
+     * tildes ni mayúsculas y ordenando por actividad.
+     *
+     * @param prefijo Texto escrito por el usuario.
+     * @param nombreCurso Nombre del curso a filtrar, o null para todos.
+     * @param limite Cantidad máxima de sugerencias.
+     * @return Lista de sugerencias, las de mayor actividad primero.
+     * @throws ResponseStatusException Si el nombre del curso es inválido.
+     */
+    public List<DatosSugerenciaTopico> sugerirTitulos(String prefijo, String nombreCurso, int limite) {
+        Curso curso = nombreCurso == null ? null : convertirCurso(nombreCurso);
+        return indiceSugerencias.sugerir(prefijo, curso, limite);
+    }
+
+
+    /**
+     * Lista los tópicos con más mensajes recientes, con un puntaje que decae con el tiempo.
+     *
+     * El ranking se mantiene en memoria con los eventos de creación y de mensajes nuevos, así
+     * que la consulta no toca la base de datos.
+     *
+     * @param nombreCurso Nombre del curso a filtrar, o null para todos.
+     * @param limite Cantidad máxima de tópicos.
+     * @return Los tópicos en tendencia, el de mayor puntaje primero.
+     * @throws ResponseStatusException Si el nombre del curso es inválido.
+     */
+    public List<DatosTendenciaTopico> listarTendencias(String nombreCurso, int limite) {
+        Curso curso = nombreCurso == null ? null : convertirCurso(nombreCurso);
+        return tendenciasTopicos.tendencias(curso, limite);
+    }
+
+
+    /**
+     * Convierte el nombre de un curso a su valor del enum Curso.
+     *
+     * @throws ResponseStatusException Si el nombre del curso es inválido.
+     */
+    private Curso convertirCurso(String nombreCurso) {
         try {
             // Convertir el String a Curso enum
-            curso = Curso.valueOf(nombreCurso.toUpperCase()); // Convertir el String a Curso enum
+            return Curso.valueOf(nombreCurso.toUpperCase());
         } catch (IllegalArgumentException e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Curso inválido");
         }
-        return topicoRepository.findByCursoAndStatusNotClosed(curso, paginacion).map(DatosListadoTopico::new);
     }
 
 
     /**
-     * Busca un tópico por su ID.
+     * Construye una página de tópicos activos a partir del índice en memoria.
      *
-     * Este método recibe un identificador único de un tópico y lo busca en el repositorio.
-     * Si el tópico existe, retorna un Optional que contiene el tópico; de lo contrario,
-     * retorna un Optional vacío.
+     * El índice aporta los ids de la página y el total; los tópicos se cargan por id con una
+     * consulta por shard. Si el índice no puede responder, o alguno de los tópicos ya no está activo, se
+     * retorna vacío para que el llamador consulte la base de datos.
+     *
+     * @param curso Curso a filtrar o null para todos.
+     * @param paginacion Parámetros de paginación y ordenamiento.
+     * @return La página construida, o vacío si debe usarse la consulta a la base de datos.
+     */
+    private Optional<Page<DatosListadoTopico>> listarDesdeIndice(Curso curso, Pageable paginacion) {
+        Optional<PaginaIndice> pagina = indiceTopicosActivos.pagina(curso, paginacion);
+        if (pagina.isEmpty()) {
+            return Optional.empty();
+        }
+        List<Long> ids = pagina.get().ids();
+        Map<Long, DatosListadoTopico> porId = new HashMap<>();
+        mapaShards.agruparPorShard(ids).forEach((shard, idsShard) -> porId.putAll(leerEnShard(shard, () ->
+                aListado(topicoRepository.findAllById(idsShard).stream()
+                        .filter(topico -> !"CERRADO".equals(topico.getStatus()))
+                        .toList()).stream()
+                        .collect(Collectors.toMap(DatosListadoTopico::id, datos -> datos)))));
+        if (porId.size() != ids.size()) {
+            return Optional.empty();
+        }
+        List<DatosListadoTopico> contenido = ids.stream()
+                .map(porId::get)
+                .toList();
+        return Optional.of(new PageImpl<>(contenido, paginacion, pagina.get().total()));
+    }
+
+
+    /**
+     * Busca el detalle de un tópico por su ID.
+     *
+     * Este método carga el tópico junto con sus mensajes en una sola consulta y construye
+     * el DTO de detalle dentro de una transacción de solo lectura. Si el tópico ya no está en
+     * las tablas principales, se busca en las tablas de archivo. Si el tópico existe, retorna
+     * un Optional que contiene el detalle; de lo contrario, retorna un Optional vacío.
+     *
+     * Las peticiones concurrentes por el mismo tópico comparten una sola carga.
      *
      * @param id Identificador único del tópico.
-     * @return Un Optional que contiene el tópico si se encuentra, de lo contrario, un Optional vacío.
+     * @return Un Optional que contiene el detalle del tópico si se encuentra, de lo contrario, un Optional vacío.
      */
-    public Optional<Topico> buscarTopicoPorId(Long id) {
+    public Optional<DatosDetalleTopico> buscarTopicoPorId(Long id) {
+        return coalescencia.ejecutar("detalle", () -> leerEnShard(mapaShards.shardDeId(id), () -> {
+            Optional<DatosDetalleTopico> detalle = topicoRepository.findDetalleById(id).map(DatosDetalleTopico::new);
+            return detalle.isPresent() ? detalle : archivoTopicoRepository.buscarDetalle(id);
+        }), id);
+    }
 
-        return topicoRepository.findById(id);
+
+    /**
+     * Busca un tópico por su ID con solo los campos pedidos.
+     *
+     * Lee únicamente las columnas de esos campos; los mensajes, completos, solo si se piden. Si el
+     * tópico no está en las tablas principales se busca en las de archivo.
+     *
+     * @param id Identificador único del tópico.
+     * @param campos Nombres de los campos separados por comas.
+     * @return Un Optional con el tópico parcial si se encuentra, de lo contrario vacío.
+     * @throws ResponseStatusException Si algún campo es inválido.
+     */
+    public Optional<DatosTopicoParcial> buscarTopicoParcialPorId(Long id, String campos) {
+        Set<CampoTopico> seleccion = convertirCampos(campos);
+        return coalescencia.ejecutar("detalle-parcial", () -> leerEnShard(mapaShards.shardDeId(id), () -> {
+            Optional<Topico> topico = topicoRepository.proyectarPorIds(seleccion, List.of(id), false).stream().findFirst();
+            if (topico.isEmpty()) {
+                return archivoTopicoRepository.buscarDetalle(id).map(detalle -> new DatosTopicoParcial(detalle, seleccion));
+            }
+            List<DatosListadoMensaje> mensajes = seleccion.contains(CampoTopico.MENSAJES)
+                    ? mensajeRepository.findByTopico_IdOrderByIdAsc(id).stream().map(DatosListadoMensaje::new).toList()
+                    : null;
+            return Optional.of(new DatosTopicoParcial(topico.get(), seleccion, mensajes));
+        }), id, seleccion);
     }
 
 
@@ -140,15 +679,28 @@ public class TopicoService {
      */
     @Transactional
     public void actualizarTopico(Long id, DatosActualizarTopico datosActualizarTopico) {
-        // Buscar el tópico por su ID en el repositorio
-        Topico topico = topicoRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Tópico no encontrado"));
+        try (MapaShards.Alcance shard = mapaShards.usar(mapaShards.shardDeId(id))) {
+            // Buscar y bloquear el tópico por su ID en el repositorio
+            Topico topico = bloquearTopico(id);
+            String statusAnterior = topico.getStatus();
+            CambiosEstadisticas cambios = new CambiosEstadisticas();
+            if (datosActualizarTopico.mensaje() != null) {
+                contarPrimerosMensajes(cambios, Map.of(id, topico), Map.of(), Map.of(id, List.of(LocalDateTime.now())));
+            }
 
-        // Actualizar el tópico con los nuevos datos
-        topico.actualizarTopico(datosActualizarTopico);
+            // Actualizar el tópico con los nuevos datos
+            topico.actualizarTopico(datosActualizarTopico);
 
-        // Guardar los cambios en el repositorio
-        topicoRepository.save(topico);
+            // Guardar los cambios en el repositorio
+            topicoRepository.save(topico);
+            eventPublisher.publishEvent(EventoTopico.actualizado(id, topico.getFecha(),
+                    datosActualizarTopico.mensaje() != null ? 1 : 0));
+            cambios.estado(topico.getCurso(), statusAnterior, topico.getStatus());
+            if (datosActualizarTopico.mensaje() != null) {
+                cambios.mensaje(topico.getCurso(), topico.getFecha(), datosActualizarTopico.autor(), 1);
+            }
+            registroEstadisticas.aplicar(cambios);
+        }
     }
 
 
@@ -159,22 +711,17 @@ public class TopicoService {
      * @return DatosListadoMensaje con la información del último mensaje.
      * @throws ResponseStatusException si el tópico no se encuentra.
      */
+    @Transactional(readOnly = true)
     public DatosListadoMensaje obtenerUltimoMensaje(Long id) {
-        // Buscar el tópico por su ID en el repositorio
-        Topico topico = topicoRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Tópico no encontrado"));
-
-        // Obtener el último mensaje agregado al tópico (asumiendo que está en la última posición)
-        List<Mensaje> mensajes = topico.getMensajes();
-        if (!mensajes.isEmpty()) {
-            Mensaje ultimoMensaje = mensajes.get(mensajes.size() - 1);
-            return new DatosListadoMensaje(
-                    ultimoMensaje.getId(),
-                    ultimoMensaje.getContenido(),
-                    ultimoMensaje.getFecha(),
-                    ultimoMensaje.getAutor()
-            );
-        } else {
+        try (MapaShards.Alcance shard = mapaShards.usar(mapaShards.shardDeId(id))) {
+            // Obtener el último mensaje agregado al tópico sin cargar el resto de sus mensajes
+            Optional<Mensaje> ultimoMensaje = mensajeRepository.findFirstByTopico_IdOrderByIdDesc(id);
+            if (ultimoMensaje.isPresent()) {
+                return new DatosListadoMensaje(ultimoMensaje.get());
+            }
+            if (!topicoRepository.existsById(id)) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Tópico no encontrado");
+            }
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No hay mensajes en el tópico");
         }
     }
@@ -184,9 +731,9 @@ public class TopicoService {
      * Agrega un nuevo mensaje a un tópico existente.
      *
      * Este método busca un tópico por su ID en el repositorio. Si el tópico existe, se crea un nuevo mensaje
-     * con la información proporcionada y se añade al tópico. Luego, se guarda el mensaje y el tópico en los
-     * repositorios correspondientes. Si el tópico no se encuentra, lanza una excepción con un código de estado
-     * 404 Not Found.
+     * con la información proporcionada y se añade al tópico. Luego, se guarda el mensaje y se registra el evento
+     * MENSAJE_AGREGADO en la bandeja de salida, dentro de la misma transacción. Si el tópico no se encuentra,
+     * lanza una excepción con un código de estado 404 Not Found.
      *
      * @param id Identificador único del tópico al cual se añadirá el mensaje.
      * @param datosNuevoMensaje Objeto que contiene los datos del nuevo mensaje a agregar.
@@ -194,52 +741,56 @@ public class TopicoService {
      */
     @Transactional
     public DatosListadoMensaje agregarMensaje(Long id, DatosNuevoMensaje datosNuevoMensaje) {
-        // Buscar el tópico por su ID en el repositorio
-        Topico topico = topicoRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Tópico no encontrado"));
+        try (MapaShards.Alcance shard = mapaShards.usar(mapaShards.shardDeId(id))) {
+            // Buscar y bloquear el tópico por su ID en el repositorio
+            Topico topico = bloquearTopico(id);
 
-        // Crear un nuevo mensaje con los datos proporcionados
-        Mensaje nuevoMensaje = new Mensaje(datosNuevoMensaje);
+            // Crear un nuevo mensaje con los datos proporcionados
+            Mensaje nuevoMensaje = new Mensaje(datosNuevoMensaje);
+            CambiosEstadisticas cambios = new CambiosEstadisticas();
+            contarPrimerosMensajes(cambios, Map.of(id, topico), Map.of(), Map.of(id, List.of(nuevoMensaje.getFecha())));
 
-        // Añadir el mensaje al tópico
-        topico.agregarMensaje(nuevoMensaje);
+            // Añadir el mensaje al tópico
+            topico.agregarMensaje(nuevoMensaje);
 
-        // Guardar el mensaje y el tópico en los repositorios
-        topicoRepository.save(topico);
-        return new DatosListadoMensaje(nuevoMensaje);
+            // Guardar el mensaje; el INSERT inmediato le asigna el id que lleva el evento
+            mensajeRepository.save(nuevoMensaje);
+            eventPublisher.publishEvent(EventoTopico.mensajeAgregado(topico));
+            bandejaSalida.registrar(TipoEventoForo.MENSAJE_AGREGADO, topico.getId(),
+                    DatosEventoForo.mensajeAgregado(topico, nuevoMensaje));
+            registroEstadisticas.aplicar(cambios.mensaje(topico.getCurso(), nuevoMensaje.getFecha(), nuevoMensaje.getAutor(), 1));
+            return new DatosListadoMensaje(nuevoMensaje);
+        }
     }
 
 
     /**
      * Marca un tópico como "CERRADO".
      *
-     * Este método busca un tópico por su ID en el repositorio. Si el tópico existe, se marca como "CERRADO"
-     * y se guarda el estado actualizado en el repositorio. Si el tópico no se encuentra, lanza una excepción
-     * con un código de estado 404 Not Found.
+     * Este método bloquea el tópico, sin cargar sus mensajes, para conocer el estado del que sale
+     * en las estadísticas y lo actualiza a "CERRADO" directamente en la base de datos. Si el
+     * tópico no se encuentra, lanza una excepción con un código de estado 404 Not Found.
      *
      * @param id Identificador único del tópico a cerrar.
      */
     @Transactional
     public void cerrarTopico(Long id) {
-        // Buscar el tópico por su ID
-        Topico topico = topicoRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Tópico no encontrado"));
-
-        // Marcar el tópico como "CERRADO"
-        topico.cerrarTopico();
-
-        // Guardar el estado actualizado del tópico en el repositorio
-        topicoRepository.save(topico);
+        try (MapaShards.Alcance shard = mapaShards.usar(mapaShards.shardDeId(id))) {
+            Topico topico = bloquearTopico(id);
+            // Marcar el tópico como "CERRADO" con una sola sentencia UPDATE, sin cargar sus mensajes
+            topicoRepository.cerrarTopicos(List.of(id));
+            eventPublisher.publishEvent(EventoTopico.cerrado(id));
+            registroEstadisticas.aplicar(new CambiosEstadisticas().estado(topico.getCurso(), topico.getStatus(), "CERRADO"));
+        }
     }
 
 
     /**
      * Elimina definitivamente un mensaje de un tópico.
      *
-     * Este método busca y elimina de manera permanente un mensaje específico asociado a un tópico.
-     * Primero busca el tópico por su ID y luego busca el mensaje dentro de los mensajes del tópico.
-     * Una vez encontrado, elimina el mensaje tanto de la lista de mensajes del tópico como de la
-     * base de datos.
+     * Este método elimina con una única sentencia DELETE el mensaje indicado, siempre que
+     * pertenezca al tópico. Si no se elimina ninguna fila, distingue si el que falta es el
+     * tópico o el mensaje para informar el error correspondiente.
      *
      * @param idTopico Identificador del tópico que contiene el mensaje.
      * @param idMensaje Identificador del mensaje a eliminar.
@@ -247,23 +798,293 @@ public class TopicoService {
      */
     @Transactional
     public void eliminarMensaje(Long idTopico, Long idMensaje) {
-        // Buscar el tópico por su ID en el repositorio
-        Topico topico = topicoRepository.findById(idTopico)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Tópico no encontrado"));
+        try (MapaShards.Alcance shard = mapaShards.usar(mapaShards.shardDeId(idTopico))) {
+            // Bloquear el tópico fija sus primeros mensajes hasta el commit
+            Topico topico = bloquearTopico(idTopico);
+            List<Object[]> datosMensaje = mensajeRepository.findDatosParaEliminar(List.of(idMensaje));
+            CambiosEstadisticas cambios = new CambiosEstadisticas();
+            contarPrimerosMensajes(cambios, Map.of(idTopico, topico), Map.of(idTopico, Set.of(idMensaje)), Map.of());
+            if (mensajeRepository.eliminarDeTopico(idTopico, idMensaje) == 0) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Mensaje no encontrado");
+            }
+            eventPublisher.publishEvent(EventoTopico.mensajeEliminado(idTopico));
+            // El DELETE ya verificó que el mensaje pertenece al tópico
+            for (Object[] fila : datosMensaje) {
+                cambios.mensaje((Curso) fila[2], (LocalDateTime) fila[3], (String) fila[4], -1);
+            }
+            registroEstadisticas.aplicar(cambios);
+        }
+    }
+
 
-        // Buscar el mensaje dentro de los mensajes del tópico
-        Mensaje mensaje = topico.getMensajes().stream()
-                .filter(m -> m.getId().equals(idMensaje))
+    /**
+     * Carga el tópico del shard actual con un bloqueo de escritura.
+     *
+     * @throws ResponseStatusException si el tópico no se encuentra.
+     */
+    private Topico bloquearTopico(Long id) {
+        return topicoRepository.findParaModificar(List.of(id)).stream()
                 .findFirst()
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Mensaje no encontrado"));
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Tópico no encontrado"));
+    }
+
+
+    /**
+     * Suma a las estadísticas el cambio en los primeros mensajes de los tópicos que toca una
+     * escritura: el primero fija la hora de creación y el segundo es la primera respuesta, igual
+     * que en ReconstruccionEstadisticas. Debe consultarse antes de escribir, con los tópicos
+     * bloqueados.
+     *
+     * @param eliminados Ids de los mensajes que se eliminan, por tópico.
+     * @param agregados Fechas de los mensajes que se agregan, por tópico; quedan después de los existentes.
+     */
+    private void contarPrimerosMensajes(CambiosEstadisticas cambios, Map<Long, Topico> topicos,
+                                        Map<Long, Set<Long>> eliminados, Map<Long, List<LocalDateTime>> agregados) {
+        Set<Long> afectados = new HashSet<>(eliminados.keySet());
+        afectados.addAll(agregados.keySet());
+        // Con dos mensajes más que los eliminados siempre quedan los dos primeros después de eliminar
+        int porTopico = 2 + eliminados.values().stream().mapToInt(Set::size).max().orElse(0);
+        Map<Long, List<DatosExtractoMensaje>> iniciales = new HashMap<>();
+        for (List<Long> bloque : enBloques(afectados)) {
+            extractoMensajeRepository.iniciales(bloque, porTopico)
+                    .forEach(mensaje -> iniciales.computeIfAbsent(mensaje.idTopico(), id -> new ArrayList<>()).add(mensaje));
+        }
+        for (Long id : afectados) {
+            List<DatosExtractoMensaje> existentes = iniciales.getOrDefault(id, List.of());
+            Set<Long> quitar = eliminados.getOrDefault(id, Set.of());
+            List<LocalDateTime> antes = existentes.stream().limit(2).map(DatosExtractoMensaje::fecha).toList();
+            List<LocalDateTime> despues = new ArrayList<>();
+            existentes.stream()
+                    .filter(mensaje -> !quitar.contains(mensaje.id()))
+                    .forEach(mensaje -> despues.add(mensaje.fecha()));
+            if (existentes.size() < porTopico) {
+                despues.addAll(agregados.getOrDefault(id, List.of()));
+            }
+            List<LocalDateTime> primeros = despues.subList(0, Math.min(2, despues.size()));
+            if (!antes.equals(primeros)) {
+                cambios.primerosMensajes(topicos.get(id).getCurso(), antes, primeros);
+            }
+        }
+    }
+
+
+    /**
+     * Procesa un lote de operaciones de moderación en una única transacción por shard.
+     *
+     * Las operaciones se agrupan por tipo y se ejecutan con sentencias masivas sobre bloques de
+     * ids: primero las actualizaciones (inserción de mensajes en lote y un UPDATE por bloque),
+     * luego las eliminaciones de mensajes (un DELETE por bloque) y por último los cierres
+     * (un UPDATE por bloque). Los mensajes agregados registran su evento MENSAJE_AGREGADO en la
+     * bandeja de salida, igual que los agregados de a uno. Cada operación recibe su propio
+     * resultado, en el orden del lote.
+     * Si el lote toca tópicos de varios shards, cada shard se confirma por separado: el lote
+     * es atómico dentro de cada shard pero no entre shards.
+     *
+     * @param lote Operaciones a procesar.
+     * @return Lista de resultados, uno por operación y en el mismo orden.
+     * @throws ResponseStatusException si el lote supera el tamaño máximo permitido.
+     */
+    public List<DatosResultadoOperacion> procesarLote(DatosLoteOperaciones lote) {
+        List<DatosOperacionLote> operaciones = lote.operaciones();
+        if (operaciones.size() > maximoOperacionesLote) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "El lote no puede superar las " + maximoOperacionesLote + " operaciones");
+        }
+
+        Map<String, List<Integer>> indicesPorShard = new LinkedHashMap<>();
+        for (int i = 0; i < operaciones.size(); i++) {
+            indicesPorShard.computeIfAbsent(mapaShards.shardDeId(operaciones.get(i).idTopico()),
+                    shard -> new ArrayList<>()).add(i);
+        }
+        String[] resultados = new String[operaciones.size()];
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        indicesPorShard.forEach((shard, indices) -> {
+            List<DatosOperacionLote> delShard = indices.stream().map(operaciones::get).toList();
+            String[] resultadosShard = mapaShards.en(shard,
+                    () -> transaccion.execute(status -> procesarLoteEnShard(delShard)));
+            for (int i = 0; i < indices.size(); i++) {
+                resultados[indices.get(i)] = resultadosShard[i];
+            }
+        });
+
+        List<DatosResultadoOperacion> respuesta = new ArrayList<>(operaciones.size());
+        for (int i = 0; i < operaciones.size(); i++) {
+            DatosOperacionLote op = operaciones.get(i);
+            respuesta.add(new DatosResultadoOperacion(i, op.tipo(), op.idTopico(), op.idMensaje(), resultados[i]));
+        }
+        return respuesta;
+    }
+
+
+    /**
+     * Procesa las operaciones de un lote que pertenecen al shard actual, dentro de la
+     * transacción en curso.
+     *
+     * @return El resultado de cada operación, en el mismo orden.
+     */
+    private String[] procesarLoteEnShard(List<DatosOperacionLote> operaciones) {
+        String[] resultados = new String[operaciones.size()];
 
-        // Remover el mensaje de la lista de mensajes del tópico
-        topico.getMensajes().remove(mensaje);
+        // Bloquear en bloque los tópicos del lote, lo que además indica cuáles existen
+        Set<Long> idsTopicos = new HashSet<>();
+        operaciones.forEach(op -> idsTopicos.add(op.idTopico()));
+        Map<Long, Topico> topicosExistentes = new HashMap<>();
+        for (List<Long> bloque : enBloques(idsTopicos)) {
+            topicoRepository.findParaModificar(bloque).forEach(topico -> topicosExistentes.put(topico.getId(), topico));
+        }
 
-        // Guardar los cambios en el repositorio del tópico
-        topicoRepository.save(topico);
+        // Verificar en bloque a qué tópico pertenece cada mensaje a eliminar
+        Set<Long> idsMensajes = new HashSet<>();
+        operaciones.stream()
+                .filter(op -> op.tipo() == TipoOperacionLote.ELIMINAR_MENSAJE && op.idMensaje() != null)
+                .forEach(op -> idsMensajes.add(op.idMensaje()));
+        Map<Long, Object[]> datosMensajes = new HashMap<>();
+        for (List<Long> bloque : enBloques(idsMensajes)) {
+            for (Object[] fila : mensajeRepository.findDatosParaEliminar(bloque)) {
+                datosMensajes.put((Long) fila[0], fila);
+            }
+        }
 
-        // Eliminar el mensaje de la base de datos
-        mensajeRepository.deleteById(idMensaje);
+        Map<Long, Integer> actualizar = new LinkedHashMap<>();
+        List<DatosOperacionLote> nuevosMensajes = new ArrayList<>();
+        Map<Long, Long> eliminar = new LinkedHashMap<>();
+        Set<Long> cerrar = new LinkedHashSet<>();
+
+        for (int i = 0; i < operaciones.size(); i++) {
+            DatosOperacionLote op = operaciones.get(i);
+            if (!topicosExistentes.containsKey(op.idTopico())) {
+                resultados[i] = "TOPICO_NO_ENCONTRADO";
+                continue;
+            }
+            switch (op.tipo()) {
+                case ACTUALIZAR_TOPICO -> {
+                    if (op.mensaje() != null) {
+                        if (op.autor() == null || op.autor().isBlank()) {
+                            resultados[i] = "AUTOR_OBLIGATORIO";
+                            continue;
+                        }
+                        nuevosMensajes.add(op);
+                    }
+                    actualizar.merge(op.idTopico(), op.mensaje() != null ? 1 : 0, Integer::sum);
+                }
+                case ELIMINAR_MENSAJE -> {
+                    if (op.idMensaje() == null || !datosMensajes.containsKey(op.idMensaje())
+                            || !op.idTopico().equals(datosMensajes.get(op.idMensaje())[1])) {
+                        resultados[i] = "MENSAJE_NO_ENCONTRADO";
+                        continue;
+                    }
+                    eliminar.put(op.idMensaje(), op.idTopico());
+                }
+                case CERRAR_TOPICO -> cerrar.add(op.idTopico());
+            }
+            resultados[i] = "OK";
+        }
+
+        LocalDateTime ahora = LocalDateTime.now();
+        CambiosEstadisticas cambios = cambiosDeLote(topicosExistentes, nuevosMensajes, actualizar.keySet(),
+                eliminar.keySet(), datosMensajes, cerrar, ahora);
+        List<Long> idsNuevosMensajes = insertarMensajes(nuevosMensajes, ahora);
+        for (List<Long> bloque : enBloques(actualizar.keySet())) {
+            topicoRepository.marcarActualizados(bloque, ahora);
+        }
+        for (List<Long> bloque : enBloques(eliminar.keySet())) {
+            mensajeRepository.eliminarPorIds(bloque);
+        }
+        for (List<Long> bloque : enBloques(cerrar)) {
+            topicoRepository.cerrarTopicos(bloque);
+        }
+
+        // Publicar los cambios para los oyentes que se ejecutan tras el commit
+        actualizar.forEach((idTopico, mensajes) ->
+                eventPublisher.publishEvent(EventoTopico.actualizado(idTopico, ahora, mensajes)));
+        eliminar.values().forEach(idTopico -> eventPublisher.publishEvent(EventoTopico.mensajeEliminado(idTopico)));
+        cerrar.forEach(idTopico -> eventPublisher.publishEvent(EventoTopico.cerrado(idTopico)));
+        for (int i = 0; i < nuevosMensajes.size(); i++) {
+            DatosOperacionLote op = nuevosMensajes.get(i);
+            bandejaSalida.registrar(TipoEventoForo.MENSAJE_AGREGADO, op.idTopico(),
+                    DatosEventoForo.mensajeAgregado(topicosExistentes.get(op.idTopico()), idsNuevosMensajes.get(i),
+                            op.autor(), CompresionContenido.extracto(op.mensaje()), ahora));
+        }
+        registroEstadisticas.aplicar(cambios);
+        return resultados;
+    }
+
+
+    /**
+     * Inserta en bloques los mensajes de un lote.
+     *
+     * @return Los ids generados, en el mismo orden que los mensajes.
+     */
+    private List<Long> insertarMensajes(List<DatosOperacionLote> nuevosMensajes, LocalDateTime ahora) {
+        List<Long> ids = new ArrayList<>(nuevosMensajes.size());
+        for (int i = 0; i < nuevosMensajes.size(); i += tamanioBloqueLote) {
+            List<DatosOperacionLote> bloque = nuevosMensajes.subList(i, Math.min(i + tamanioBloqueLote, nuevosMensajes.size()));
+            GeneratedKeyHolder claves = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(con -> con.prepareStatement(
+                            "INSERT INTO mensajes (contenido, extracto, fecha, autor, topico_id) VALUES (?, ?, ?, ?, ?)",
+                            Statement.RETURN_GENERATED_KEYS),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int j) throws SQLException {
+                            DatosOperacionLote op = bloque.get(j);
+                            ps.setBytes(1, CompresionContenido.codificar(op.mensaje()));
+                            ps.setString(2, CompresionContenido.extracto(op.mensaje()));
+                            ps.setTimestamp(3, Timestamp.valueOf(ahora));
+                            ps.setString(4, op.autor());
+                            ps.setLong(5, op.idTopico());
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return bloque.size();
+                        }
+                    }, claves);
+            claves.getKeyList().forEach(fila -> ids.add(((Number) fila.values().iterator().next()).longValue()));
+        }
+        return ids;
+    }
+
+
+    /**
+     * Calcula las variaciones de las estadísticas de un lote antes de ejecutarlo: los primeros
+     * mensajes de los tópicos con mensajes agregados o eliminados, los mensajes de cada autor y el
+     * paso de cada tópico de su estado actual al final del lote (los cierres se ejecutan después
+     * de las actualizaciones).
+     */
+    private CambiosEstadisticas cambiosDeLote(Map<Long, Topico> topicos, List<DatosOperacionLote> nuevosMensajes,
+                                              Set<Long> actualizar, Set<Long> eliminar, Map<Long, Object[]> datosMensajes,
+                                              Set<Long> cerrar, LocalDateTime ahora) {
+        CambiosEstadisticas cambios = new CambiosEstadisticas();
+        Map<Long, Set<Long>> eliminadosPorTopico = new HashMap<>();
+        eliminar.forEach(idMensaje -> eliminadosPorTopico
+                .computeIfAbsent((Long) datosMensajes.get(idMensaje)[1], id -> new HashSet<>()).add(idMensaje));
+        Map<Long, List<LocalDateTime>> agregadosPorTopico = new HashMap<>();
+        nuevosMensajes.forEach(op -> agregadosPorTopico.computeIfAbsent(op.idTopico(), id -> new ArrayList<>()).add(ahora));
+        contarPrimerosMensajes(cambios, topicos, eliminadosPorTopico, agregadosPorTopico);
+        nuevosMensajes.forEach(op -> cambios.mensaje(topicos.get(op.idTopico()).getCurso(), ahora, op.autor(), 1));
+        eliminar.forEach(idMensaje -> {
+            Object[] fila = datosMensajes.get(idMensaje);
+            cambios.mensaje((Curso) fila[2], (LocalDateTime) fila[3], (String) fila[4], -1);
+        });
+        Set<Long> modificados = new HashSet<>(actualizar);
+        modificados.addAll(cerrar);
+        for (Long id : modificados) {
+            Topico topico = topicos.get(id);
+            cambios.estado(topico.getCurso(), topico.getStatus(), cerrar.contains(id) ? "CERRADO" : "ACTUALIZADO");
+        }
+        return cambios;
+    }
+
+
+    /**
+     * Divide un conjunto de ids en bloques para acotar el tamaño de las listas IN.
+     */
+    private List<List<Long>> enBloques(Collection<Long> ids) {
+        List<Long> lista = new ArrayList<>(ids);
+        List<List<Long>> bloques = new ArrayList<>();
+        for (int i = 0; i < lista.size(); i += tamanioBloqueLote) {
+            bloques.add(lista.subList(i, Math.min(i + tamanioBloqueLote, lista.size())));
+        }
+        return bloques;
     }
 }
@@ -1,11 +1,14 @@
 package com.forohub.foro_api.service;
 
 import com.forohub.foro_api.dto.DatosNuevoUsuario;
+import com.forohub.foro_api.infra.security.BCryptCalibrado;
+import com.forohub.foro_api.infra.security.ListaRevocacion;
 import com.forohub.foro_api.model.Usuario;
 import com.forohub.foro_api.repository.UsuarioRepository;
+import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class UsuarioService {
@@ -14,8 +17,12 @@ public class UsuarioService {
     private UsuarioRepository usuarioRepository;
 
     @Autowired
-    private BCryptPasswordEncoder passwordEncoder;
+    private BCryptCalibrado passwordEncoder;
 
+    @Autowired
+    private ListaRevocacion listaRevocacion;
+
+    @Transactional
     public Usuario registrarNuevoUsuario(DatosNuevoUsuario datosNuevoUsuario) {
         // Crear una instancia de Usuario con los datos del DTO
         Usuario nuevoUsuario = new Usuario();
@@ -27,4 +34,35 @@ public class UsuarioService {
         // Guardar el nuevo usuario en la base de datos
         return usuarioRepository.save(nuevoUsuario);
     }
+
+    /**
+     * Regenera el hash de la clave si fue creado con un costo de BCrypt menor que el actual.
+     *
+     * Se invoca tras un login exitoso, único momento en que se dispone de la clave en texto plano,
+     * para que los hashes existentes suban de costo sin intervención del usuario.
+     *
+     * @param usuario Usuario recién autenticado.
+     * @param clave Clave en texto plano ya verificada.
+     */
+    @Transactional
+    public void actualizarHashSiCorresponde(Usuario usuario, String clave) {
+        if (!passwordEncoder.requiereRehash(usuario.getClave())) {
+            return;
+        }
+        usuarioRepository.findById(usuario.getId())
+                .ifPresent(guardado -> guardado.setClave(passwordEncoder.encode(clave)));
+    }
+
+    /**
+     * Revoca todos los tokens emitidos hasta ahora para un usuario.
+     *
+     * @param id Identificador del usuario.
+     * @throws EntityNotFoundException si el usuario no existe.
+     */
+    public void revocarTokens(Long id) {
+        if (!usuarioRepository.existsById(id)) {
+            throw new EntityNotFoundException("No existe el usuario " + id);
+        }
+        listaRevocacion.revocarTodos(id);
+    }
 }
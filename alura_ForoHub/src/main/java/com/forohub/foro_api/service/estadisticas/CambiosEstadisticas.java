@@ -0,0 +1,117 @@
+package com.forohub.foro_api.service.estadisticas;
+
+import com.forohub.foro_api.model.Curso;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Variaciones de los agregados de estadísticas que produce una escritura, acumuladas para
+ * aplicarlas juntas con RegistroEstadisticas al final de la transacción.
+ *
+ * Las claves se guardan ordenadas para que todas las transacciones actualicen las filas de
+ * agregados en el mismo orden y no se bloqueen mutuamente en orden inverso.
+ */
+public class CambiosEstadisticas {
+
+    record Clave<T>(Curso curso, T valor) {
+    }
+
+    record Hora(long topicosCreados, long mensajes) {
+
+        Hora sumar(Hora otra) {
+            return new Hora(topicosCreados + otra.topicosCreados, mensajes + otra.mensajes);
+        }
+    }
+
+    private static <T extends Comparable<? super T>> Comparator<Clave<T>> orden() {
+        return Comparator.<Clave<T>, Curso>comparing(Clave::curso).thenComparing(Clave::valor);
+    }
+
+    final Map<Clave<String>, Long> estados = new TreeMap<>(orden());
+    final Map<Clave<LocalDateTime>, Hora> horas = new TreeMap<>(orden());
+    final Map<Clave<Integer>, Long> primerasRespuestas = new TreeMap<>(orden());
+    final Map<Clave<String>, Long> autores = new TreeMap<>(orden());
+
+    /**
+     * Un tópico nuevo, con su mensaje inicial.
+     */
+    public CambiosEstadisticas topicoCreado(Curso curso, String status, LocalDateTime fecha, String autor) {
+        estado(curso, null, status);
+        horas.merge(new Clave<>(curso, hora(fecha)), new Hora(1, 0), Hora::sumar);
+        return mensaje(curso, fecha, autor, 1);
+    }
+
+    /**
+     * Un tópico que pasa de un estado a otro; null como anterior para uno nuevo.
+     */
+    public CambiosEstadisticas estado(Curso curso, String anterior, String nuevo) {
+        if (nuevo.equals(anterior)) {
+            return this;
+        }
+        if (anterior != null) {
+            estados.merge(new Clave<>(curso, anterior), -1L, Long::sum);
+        }
+        estados.merge(new Clave<>(curso, nuevo), 1L, Long::sum);
+        return this;
+    }
+
+    /**
+     * Mensajes agregados (cantidad positiva) o eliminados (negativa) de un autor.
+     */
+    public CambiosEstadisticas mensaje(Curso curso, LocalDateTime fecha, String autor, long cantidad) {
+        horas.merge(new Clave<>(curso, hora(fecha)), new Hora(0, cantidad), Hora::sumar);
+        autores.merge(new Clave<>(curso, autor), cantidad, Long::sum);
+        return this;
+    }
+
+    /**
+     * La primera respuesta de un tópico, con la demora desde su mensaje inicial.
+     */
+    public CambiosEstadisticas primeraRespuesta(Curso curso, LocalDateTime inicial, LocalDateTime respuesta) {
+        return primeraRespuesta(curso, inicial, respuesta, 1);
+    }
+
+    /**
+     * Cambio de los primeros mensajes de un tópico al agregar o eliminar mensajes: el primero
+     * fija la hora de creación y el segundo es la primera respuesta. Descuenta la situación
+     * anterior y suma la nueva, que es como las calcula la reconstrucción desde los datos crudos.
+     *
+     * @param antes Fechas de los dos primeros mensajes (o menos) antes de la escritura, en orden de id.
+     * @param despues Fechas de los dos primeros mensajes (o menos) después de la escritura.
+     */
+    public CambiosEstadisticas primerosMensajes(Curso curso, List<LocalDateTime> antes, List<LocalDateTime> despues) {
+        if (!antes.isEmpty()) {
+            horas.merge(new Clave<>(curso, hora(antes.get(0))), new Hora(-1, 0), Hora::sumar);
+        }
+        if (!despues.isEmpty()) {
+            horas.merge(new Clave<>(curso, hora(despues.get(0))), new Hora(1, 0), Hora::sumar);
+        }
+        if (antes.size() > 1) {
+            primeraRespuesta(curso, antes.get(0), antes.get(1), -1);
+        }
+        if (despues.size() > 1) {
+            primeraRespuesta(curso, despues.get(0), despues.get(1), 1);
+        }
+        return this;
+    }
+
+    private CambiosEstadisticas primeraRespuesta(Curso curso, LocalDateTime inicial, LocalDateTime respuesta, long cantidad) {
+        long segundos = Duration.between(inicial, respuesta).getSeconds();
+        primerasRespuestas.merge(new Clave<>(curso, HistogramaLatencias.cubeta(segundos)), cantidad, Long::sum);
+        return this;
+    }
+
+    public boolean vacio() {
+        return estados.isEmpty() && horas.isEmpty() && primerasRespuestas.isEmpty() && autores.isEmpty();
+    }
+
+    static LocalDateTime hora(LocalDateTime fecha) {
+        return fecha.truncatedTo(ChronoUnit.HOURS);
+    }
+}
@@ -0,0 +1,113 @@
+package com.forohub.foro_api.service.estadisticas;
+
+import com.forohub.foro_api.dto.DatosActividadDia;
+import com.forohub.foro_api.dto.DatosAutorEstadisticas;
+import com.forohub.foro_api.dto.DatosEstadisticasCurso;
+import com.forohub.foro_api.infra.shard.MapaShards;
+import com.forohub.foro_api.model.Curso;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Lectura de las estadísticas por curso desde las tablas de agregados.
+ *
+ * Cada curso cuesta cuatro consultas por clave primaria o índice en el shard del curso, dentro
+ * de una transacción de solo lectura para que todas vean el mismo instante. Ninguna recorre
+ * topicos ni mensajes, así que el costo no crece con la historia del foro.
+ */
+@Service
+public class EstadisticasService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MapaShards mapaShards;
+    private final TransactionTemplate transaccionLectura;
+
+    @Value("${forohub.estadisticas.maximo-dias:365}")
+    private int maximoDias;
+
+    @Value("${forohub.estadisticas.maximo-autores:50}")
+    private int maximoAutores;
+
+    public EstadisticasService(JdbcTemplate jdbcTemplate,
+                               MapaShards mapaShards,
+                               PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.mapaShards = mapaShards;
+        this.transaccionLectura = new TransactionTemplate(transactionManager);
+        this.transaccionLectura.setReadOnly(true);
+    }
+
+    /**
+     * @param nombreCurso Curso a consultar, o null para todos.
+     * @param dias Días hacia atrás de la actividad diaria, incluido el actual.
+     * @param autores Cantidad de autores principales por curso.
+     * @return Las estadísticas de cada curso pedido.
+     * @throws ResponseStatusException Si el curso es inválido o los límites están fuera de rango.
+     */
+    public List<DatosEstadisticasCurso> consultar(String nombreCurso, int dias, int autores) {
+        if (dias < 1 || dias > maximoDias) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Los días deben estar entre 1 y " + maximoDias);
+        }
+        if (autores < 0 || autores > maximoAutores) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Los autores deben estar entre 0 y " + maximoAutores);
+        }
+        List<Curso> cursos = nombreCurso == null ? List.of(Curso.values()) : List.of(convertirCurso(nombreCurso));
+        Timestamp desde = Timestamp.valueOf(LocalDate.now().minusDays(dias - 1L).atStartOfDay());
+        return cursos.stream()
+                .map(curso -> mapaShards.en(mapaShards.shardDe(curso),
+                        () -> transaccionLectura.execute(status -> consultarCurso(curso, desde, autores))))
+                .toList();
+    }
+
+    private DatosEstadisticasCurso consultarCurso(Curso curso, Timestamp desde, int autores) {
+        Map<String, Long> estados = new HashMap<>();
+        jdbcTemplate.query("SELECT status, topicos FROM estadisticas_estados WHERE curso = ?",
+                rs -> {
+                    estados.put(rs.getString("status"), rs.getLong("topicos"));
+                }, curso.name());
+
+        List<DatosActividadDia> actividad = jdbcTemplate.query(
+                "SELECT DATE(hora) AS dia, SUM(topicos_creados) AS topicos_creados, SUM(mensajes) AS mensajes " +
+                        "FROM estadisticas_horas WHERE curso = ? AND hora >= ? GROUP BY DATE(hora) ORDER BY dia",
+                (rs, i) -> new DatosActividadDia(rs.getDate("dia").toLocalDate(), rs.getLong("topicos_creados"),
+                        rs.getLong("mensajes")),
+                curso.name(), desde);
+
+        SortedMap<Integer, Long> demoras = new TreeMap<>();
+        jdbcTemplate.query("SELECT cubeta, topicos FROM estadisticas_primera_respuesta WHERE curso = ?",
+                rs -> {
+                    demoras.put(rs.getInt("cubeta"), rs.getLong("topicos"));
+                }, curso.name());
+
+        List<DatosAutorEstadisticas> principales = autores == 0 ? List.of() : jdbcTemplate.query(
+                "SELECT autor, mensajes FROM estadisticas_autores WHERE curso = ? AND mensajes > 0 " +
+                        "ORDER BY mensajes DESC LIMIT ?",
+                (rs, i) -> new DatosAutorEstadisticas(rs.getString("autor"), rs.getLong("mensajes")),
+                curso.name(), autores);
+
+        return new DatosEstadisticasCurso(curso,
+                estados.getOrDefault("ABIERTO", 0L),
+                estados.getOrDefault("ACTUALIZADO", 0L),
+                estados.getOrDefault("CERRADO", 0L),
+                actividad,
+                HistogramaLatencias.mediana(demoras),
+                principales);
+    }
+
+    private static Curso convertirCurso(String nombreCurso) {
+        try {
+            return Curso.valueOf(nombreCurso.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Curso inválido");
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.forohub.foro_api.service.estadisticas;
+
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Cubetas logarítmicas para las demoras hasta la primera respuesta, en segundos.
+ *
+ * Hasta 8 segundos cada valor tiene su cubeta; desde ahí cada potencia de dos se divide en
+ * cuatro cubetas iguales, así que el ancho de una cubeta nunca supera un cuarto de su límite
+ * inferior. Con cubetas enteras y calculadas con operaciones de bits, la misma demora cae en la
+ * misma cubeta en la escritura incremental y en la reconstrucción. Un curso con años de
+ * historia ocupa menos de cien filas.
+ */
+public final class HistogramaLatencias {
+
+    private HistogramaLatencias() {
+    }
+
+    public static int cubeta(long segundos) {
+        if (segundos < 8) {
+            return (int) Math.max(segundos, 0);
+        }
+        int exponente = 63 - Long.numberOfLeadingZeros(segundos);
+        int cuarto = (int) (segundos >>> (exponente - 2)) & 3;
+        return 8 + 4 * (exponente - 3) + cuarto;
+    }
+
+    public static long limiteInferior(int cubeta) {
+        if (cubeta < 8) {
+            return cubeta;
+        }
+        int exponente = 3 + (cubeta - 8) / 4;
+        return (long) (4 + (cubeta - 8) % 4) << (exponente - 2);
+    }
+
+    public static long limiteSuperior(int cubeta) {
+        if (cubeta < 8) {
+            return cubeta + 1L;
+        }
+        int exponente = 3 + (cubeta - 8) / 4;
+        return (long) (5 + (cubeta - 8) % 4) << (exponente - 2);
+    }
+
+    /**
+     * Estima la mediana interpolando linealmente dentro de la cubeta que la contiene.
+     *
+     * @param cantidades Cantidad de tópicos por cubeta, ordenadas por cubeta.
+     * @return La mediana en segundos, o null si no hay datos.
+     */
+    public static Long mediana(SortedMap<Integer, Long> cantidades) {
+        long total = cantidades.values().stream().mapToLong(Long::longValue).filter(c -> c > 0).sum();
+        if (total == 0) {
+            return null;
+        }
+        double mitad = total / 2.0;
+        long acumulado = 0;
+        for (Map.Entry<Integer, Long> entrada : cantidades.entrySet()) {
+            long cantidad = entrada.getValue();
+            if (cantidad <= 0) {
+                continue;
+            }
+            if (acumulado + cantidad >= mitad) {
+                long inferior = limiteInferior(entrada.getKey());
+                long ancho = limiteSuperior(entrada.getKey()) - inferior;
+                return inferior + Math.round(ancho * (mitad - acumulado) / cantidad);
+            }
+            acumulado += cantidad;
+        }
+        return limiteSuperior(cantidades.lastKey());
+    }
+}
@@ -0,0 +1,130 @@
+package com.forohub.foro_api.service.estadisticas;
+
+import com.forohub.foro_api.infra.shard.MapaShards;
+import com.forohub.foro_api.model.Curso;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * Recalcula desde cero las tablas de agregados de estadísticas a partir de topicos, mensajes y
+ * sus tablas de archivo (perfil "reconstruir-estadisticas"). Sirve para poblarlas la primera
+ * vez, después de cargar datos sin pasar por TopicoService (como el perfil "generador") o para
+ * corregir cualquier desvío.
+ *
+ * Cada shard se reconstruye en una sola transacción con INSERT ... SELECT agrupados; mientras
+ * dura, InnoDB bloquea las filas leídas y las escrituras del shard esperan, de modo que ninguna
+ * se pierde ni se cuenta dos veces. Son recorridos completos: conviene ejecutarlo fuera de las
+ * horas de mayor uso. Un tópico se crea en la hora de su primer mensaje y su primera respuesta
+ * es el segundo mensaje por id; TopicoService aplica la misma regla al agregar y al eliminar
+ * mensajes, así que la reconstrucción coincide con los agregados incrementales.
+ */
+@Component
+@Profile("reconstruir-estadisticas")
+public class ReconstruccionEstadisticas implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ReconstruccionEstadisticas.class);
+    private static final String HORA = "DATE_FORMAT(m.fecha, '%Y-%m-%d %H:00:00')";
+    // Pares de tablas de tópicos y mensajes: las principales y las de archivo
+    private static final String[][] ORIGENES = {{"topicos", "mensajes"}, {"topicos_archivados", "mensajes_archivados"}};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MapaShards mapaShards;
+    private final TransactionTemplate transactionTemplate;
+    private final ConfigurableApplicationContext contexto;
+
+    @Value("${forohub.estadisticas.reconstruccion.salir-al-terminar:true}")
+    private boolean salirAlTerminar;
+
+    public ReconstruccionEstadisticas(JdbcTemplate jdbcTemplate,
+                                      MapaShards mapaShards,
+                                      PlatformTransactionManager transactionManager,
+                                      ConfigurableApplicationContext contexto) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.mapaShards = mapaShards;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.contexto = contexto;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long inicio = System.nanoTime();
+        mapaShards.enCadaShard(shard -> {
+            long inicioShard = System.nanoTime();
+            transactionTemplate.executeWithoutResult(status -> reconstruirShard());
+            log.info("Estadísticas del shard {} reconstruidas en {} ms", shard, (System.nanoTime() - inicioShard) / 1_000_000);
+        });
+        log.info("Reconstrucción de estadísticas terminada en {} s", (System.nanoTime() - inicio) / 1_000_000_000);
+
+        if (salirAlTerminar) {
+            System.exit(SpringApplication.exit(contexto, () -> 0));
+        }
+    }
+
+    private void reconstruirShard() {
+        for (String tabla : List.of("estadisticas_estados", "estadisticas_horas", "estadisticas_primera_respuesta",
+                "estadisticas_autores")) {
+            jdbcTemplate.update("DELETE FROM " + tabla);
+        }
+        for (String[] origen : ORIGENES) {
+            String topicos = origen[0];
+            String mensajes = origen[1];
+            jdbcTemplate.update("INSERT INTO estadisticas_estados (curso, status, topicos) " +
+                    "SELECT curso, status, COUNT(*) FROM " + topicos + " GROUP BY curso, status " +
+                    "ON DUPLICATE KEY UPDATE topicos = topicos + VALUES(topicos)");
+            jdbcTemplate.update("INSERT INTO estadisticas_horas (curso, hora, topicos_creados, mensajes) " +
+                    "SELECT t.curso, " + HORA + ", 0, COUNT(*) FROM " + mensajes + " m JOIN " + topicos + " t ON t.id = m.topico_id " +
+                    "GROUP BY t.curso, " + HORA + " " +
+                    "ON DUPLICATE KEY UPDATE mensajes = mensajes + VALUES(mensajes)");
+            // Un tópico se cuenta en la hora de su primer mensaje, que se crea junto con él
+            jdbcTemplate.update("INSERT INTO estadisticas_horas (curso, hora, topicos_creados, mensajes) " +
+                    "SELECT t.curso, " + HORA + ", COUNT(*), 0 FROM " +
+                    "(SELECT topico_id, MIN(fecha) AS fecha FROM " + mensajes + " GROUP BY topico_id) m " +
+                    "JOIN " + topicos + " t ON t.id = m.topico_id GROUP BY t.curso, " + HORA + " " +
+                    "ON DUPLICATE KEY UPDATE topicos_creados = topicos_creados + VALUES(topicos_creados)");
+            jdbcTemplate.update("INSERT INTO estadisticas_autores (curso, autor, mensajes) " +
+                    "SELECT t.curso, m.autor, COUNT(*) FROM " + mensajes + " m JOIN " + topicos + " t ON t.id = m.topico_id " +
+                    "GROUP BY t.curso, m.autor " +
+                    "ON DUPLICATE KEY UPDATE mensajes = mensajes + VALUES(mensajes)");
+            reconstruirPrimerasRespuestas(topicos, mensajes);
+        }
+    }
+
+    /**
+     * Las cubetas del histograma se calculan en Java, con la misma función que la escritura
+     * incremental; la consulta se lee en streaming y solo se acumula un contador por cubeta.
+     */
+    private void reconstruirPrimerasRespuestas(String topicos, String mensajes) {
+        Map<Curso, Map<Integer, Long>> cantidades = new EnumMap<>(Curso.class);
+        JdbcTemplate streaming = new JdbcTemplate(Objects.requireNonNull(jdbcTemplate.getDataSource()));
+        streaming.setFetchSize(Integer.MIN_VALUE);
+        streaming.query("SELECT t.curso, TIMESTAMPDIFF(SECOND, r.primera, r.segunda) AS segundos FROM (" +
+                        "SELECT topico_id, MIN(CASE WHEN posicion = 1 THEN fecha END) AS primera, " +
+                        "MIN(CASE WHEN posicion = 2 THEN fecha END) AS segunda FROM (" +
+                        "SELECT topico_id, fecha, ROW_NUMBER() OVER (PARTITION BY topico_id ORDER BY id) AS posicion " +
+                        "FROM " + mensajes + ") n WHERE posicion <= 2 GROUP BY topico_id) r " +
+                        "JOIN " + topicos + " t ON t.id = r.topico_id WHERE r.segunda IS NOT NULL",
+                rs -> {
+                    cantidades.computeIfAbsent(Curso.valueOf(rs.getString("curso")), curso -> new TreeMap<>())
+                            .merge(HistogramaLatencias.cubeta(rs.getLong("segundos")), 1L, Long::sum);
+                });
+        List<Object[]> filas = new ArrayList<>();
+        cantidades.forEach((curso, porCubeta) -> porCubeta.forEach((cubeta, cantidad) ->
+                filas.add(new Object[]{curso.name(), cubeta, cantidad})));
+        if (!filas.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO estadisticas_primera_respuesta (curso, cubeta, topicos) VALUES (?, ?, ?) " +
+                    "ON DUPLICATE KEY UPDATE topicos = topicos + VALUES(topicos)", filas);
+        }
+    }
+}
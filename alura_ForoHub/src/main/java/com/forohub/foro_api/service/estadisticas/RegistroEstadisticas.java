@@ -0,0 +1,67 @@
+package com.forohub.foro_api.service.estadisticas;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aplica a las tablas de agregados las variaciones de una escritura, en la transacción y el
+ * shard del llamador (las estadísticas de un curso viven en el shard del curso). Cada tabla
+ * recibe un único INSERT ... ON DUPLICATE KEY UPDATE en lote que suma las variaciones, así que
+ * el costo no depende del tamaño de la historia.
+ *
+ * TopicoService lo invoca al final de cada escritura, para que los bloqueos de las filas de
+ * agregados (la hora en curso de cada curso es la más disputada) se retengan lo menos posible.
+ */
+@Component
+public class RegistroEstadisticas {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${forohub.estadisticas.habilitado:true}")
+    private boolean habilitado;
+
+    public RegistroEstadisticas(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void aplicar(CambiosEstadisticas cambios) {
+        if (!habilitado || cambios.vacio()) {
+            return;
+        }
+        sumar("INSERT INTO estadisticas_estados (curso, status, topicos) VALUES (?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE topicos = topicos + VALUES(topicos)", cambios.estados);
+        List<Object[]> horas = new ArrayList<>();
+        cambios.horas.forEach((clave, hora) -> {
+            if (hora.topicosCreados() != 0 || hora.mensajes() != 0) {
+                horas.add(new Object[]{clave.curso().name(), Timestamp.valueOf(clave.valor()), hora.topicosCreados(), hora.mensajes()});
+            }
+        });
+        if (!horas.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO estadisticas_horas (curso, hora, topicos_creados, mensajes) VALUES (?, ?, ?, ?) " +
+                    "ON DUPLICATE KEY UPDATE topicos_creados = topicos_creados + VALUES(topicos_creados), " +
+                    "mensajes = mensajes + VALUES(mensajes)", horas);
+        }
+        sumar("INSERT INTO estadisticas_primera_respuesta (curso, cubeta, topicos) VALUES (?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE topicos = topicos + VALUES(topicos)", cambios.primerasRespuestas);
+        sumar("INSERT INTO estadisticas_autores (curso, autor, mensajes) VALUES (?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE mensajes = mensajes + VALUES(mensajes)", cambios.autores);
+    }
+
+    private <T> void sumar(String sql, Map<CambiosEstadisticas.Clave<T>, Long> variaciones) {
+        List<Object[]> filas = new ArrayList<>();
+        variaciones.forEach((clave, variacion) -> {
+            if (variacion != 0) {
+                filas.add(new Object[]{clave.curso().name(), clave.valor(), variacion});
+            }
+        });
+        if (!filas.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, filas);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.forohub.foro_api.service.eventos;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Escribe eventos de actividad en la tabla eventos_salida dentro de la transacción de
+ * escritura en curso (bandeja de salida transaccional).
+ *
+ * Los eventos se acumulan durante la transacción y se insertan en un único lote justo antes
+ * del commit: el cambio y sus eventos se confirman o se descartan juntos, y el trabajo de los
+ * manejadores queda fuera de la transacción y de la petición. DespachadorEventos los entrega.
+ */
+@Component
+public class BandejaSalida {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public BandejaSalida(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Registra un evento en la transacción actual.
+     *
+     * @param tipo Tipo de evento.
+     * @param idTopico Tópico al que se refiere el evento; define el orden de entrega.
+     * @param datos Contenido del evento.
+     * @throws IllegalStateException si no hay una transacción activa.
+     */
+    public void registrar(TipoEventoForo tipo, Long idTopico, DatosEventoForo datos) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("La bandeja de salida requiere una transacción activa");
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(datos);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el evento " + tipo, e);
+        }
+        Lote lote = (Lote) TransactionSynchronizationManager.getResource(this);
+        if (lote == null) {
+            lote = new Lote();
+            TransactionSynchronizationManager.bindResource(this, lote);
+            TransactionSynchronizationManager.registerSynchronization(lote);
+        }
+        lote.eventos.add(new Object[]{tipo.name(), idTopico, json});
+    }
+
+    private final class Lote implements TransactionSynchronization {
+
+        private final List<Object[]> eventos = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            jdbcTemplate.batchUpdate("INSERT INTO eventos_salida (tipo, id_topico, datos) VALUES (?, ?, ?)", eventos);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(BandejaSalida.this);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.forohub.foro_api.service.eventos;
+
+import com.forohub.foro_api.model.Curso;
+import com.forohub.foro_api.model.Mensaje;
+import com.forohub.foro_api.model.Topico;
+
+import java.time.LocalDateTime;
+
+/**
+ * Contenido de un evento de la bandeja de salida, guardado como JSON en la columna datos.
+ *
+ * Del mensaje solo viaja el id y el extracto: el contenido completo puede superar los 64 KB de
+ * la columna, y un manejador que lo necesite lo lee por idMensaje.
+ */
+public record DatosEventoForo(
+        String titulo,
+        Curso curso,
+        String autorTopico,
+        Long idMensaje,
+        String autorMensaje,
+        String extracto,
+        LocalDateTime fecha) {
+
+    public static DatosEventoForo topicoCreado(Topico topico) {
+        Mensaje mensaje = topico.getMensajes().isEmpty() ? null : topico.getMensajes().get(0);
+        return new DatosEventoForo(topico.getTitulo(), topico.getCurso(), topico.getAutor(),
+                mensaje != null ? mensaje.getId() : null, topico.getAutor(),
+                mensaje != null ? mensaje.getExtracto() : null, topico.getFecha());
+    }
+
+    public static DatosEventoForo mensajeAgregado(Topico topico, Mensaje mensaje) {
+        return mensajeAgregado(topico, mensaje.getId(), mensaje.getAutor(), mensaje.getExtracto(), mensaje.getFecha());
+    }
+
+    // Para los mensajes insertados en lote, que no pasan por la entidad Mensaje
+    public static DatosEventoForo mensajeAgregado(Topico topico, Long idMensaje, String autor, String extracto,
+                                                  LocalDateTime fecha) {
+        return new DatosEventoForo(topico.getTitulo(), topico.getCurso(), topico.getAutor(),
+                idMensaje, autor, extracto, fecha);
+    }
+}
@@ -0,0 +1,428 @@
+package com.forohub.foro_api.service.eventos;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.forohub.foro_api.infra.cache.RegistroCambios;
+import com.forohub.foro_api.infra.shard.MapaShards;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Entrega los eventos de la tabla eventos_salida a los beans ManejadorEventoForo.
+ *
+ * En cada sondeo se reclama un lote de eventos pendientes con SELECT ... FOR UPDATE SKIP
+ * LOCKED, así varios nodos pueden despachar a la vez sin repartirse el mismo evento. Un evento
+ * solo se reclama si todos los eventos anteriores de su tópico ya terminaron o están en el mismo
+ * lote; el lote se reparte en carriles de un solo hilo según el tópico, con lo que los eventos
+ * de un tópico se procesan en orden y los de tópicos distintos en paralelo.
+ *
+ * Un evento que falla vuelve a quedar pendiente con una espera exponencial y detiene a los
+ * siguientes de su tópico hasta que se entregue; tras el máximo de intentos queda FALLIDO y deja
+ * de bloquear. Si un nodo cae con eventos reclamados, se liberan al vencer el arriendo.
+ */
+@Component
+public class DespachadorEventos {
+
+    private static final Logger log = LoggerFactory.getLogger(DespachadorEventos.class);
+
+    private static final String PENDIENTE = "PENDIENTE";
+    private static final String PROCESADO = "PROCESADO";
+    private static final String FALLIDO = "FALLIDO";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final List<ManejadorEventoForo> manejadores;
+    private final String nodo;
+    private final MapaShards mapaShards;
+    private final ExecutorService[] carriles;
+    private final MeterRegistry registry;
+    private final Timer retraso;
+    private final AtomicLong pendienteMasAntiguo = new AtomicLong();
+
+    @Value("${forohub.eventos.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${forohub.eventos.tamanio-lote:100}")
+    private int tamanioLote;
+
+    @Value("${forohub.eventos.maximo-intentos:10}")
+    private int maximoIntentos;
+
+    @Value("${forohub.eventos.espera-base-ms:1000}")
+    private long esperaBaseMs;
+
+    @Value("${forohub.eventos.espera-maxima-ms:300000}")
+    private long esperaMaximaMs;
+
+    @Value("${forohub.eventos.arriendo-segundos:300}")
+    private long arriendoSegundos;
+
+    @Value("${forohub.eventos.retencion-horas:72}")
+    private long retencionHoras;
+
+    private volatile boolean detenido;
+
+    public DespachadorEventos(JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper,
+                              List<ManejadorEventoForo> manejadores,
+                              RegistroCambios registroCambios,
+                              MapaShards mapaShards,
+                              MeterRegistry registry,
+                              @Value("${forohub.eventos.trabajadores:4}") int trabajadores) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.manejadores = manejadores;
+        this.nodo = registroCambios.nodo();
+        this.mapaShards = mapaShards;
+        this.registry = registry;
+        this.carriles = new ExecutorService[Math.max(1, trabajadores)];
+        AtomicInteger numero = new AtomicInteger();
+        for (int i = 0; i < carriles.length; i++) {
+            carriles[i] = Executors.newSingleThreadExecutor(tarea -> {
+                Thread hilo = new Thread(tarea, "eventos-carril-" + numero.getAndIncrement());
+                hilo.setDaemon(true);
+                return hilo;
+            });
+        }
+        this.retraso = Timer.builder("forohub.eventos.retraso")
+                .description("Tiempo entre el registro de un evento y su entrega a los manejadores")
+                .register(registry);
+        Gauge.builder("forohub.eventos.antiguedad", pendienteMasAntiguo,
+                        masAntiguo -> masAntiguo.get() == 0 ? 0 : (System.currentTimeMillis() - masAntiguo.get()) / 1000.0)
+                .description("Segundos de espera del evento pendiente más antiguo")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+
+    /**
+     * Reclama y entrega lotes de eventos mientras haya lotes completos disponibles.
+     */
+    @Scheduled(fixedDelayString = "${forohub.eventos.sondeo-ms:500}")
+    public void despachar() {
+        if (!habilitado || detenido) {
+            return;
+        }
+        actualizarAntiguedad();
+        mapaShards.enCadaShard(shard -> despacharShardActual());
+    }
+
+
+    // Cada shard tiene su propia tabla eventos_salida con los eventos de sus tópicos
+    private void despacharShardActual() {
+        List<EventoForo> eventos;
+        do {
+            eventos = transactionTemplate.execute(status -> reclamar());
+            if (eventos == null || eventos.isEmpty()) {
+                return;
+            }
+            procesar(eventos);
+        } while (eventos.size() == tamanioLote && !detenido);
+    }
+
+
+    private void actualizarAntiguedad() {
+        long[] masAntiguo = {0};
+        mapaShards.enCadaShard(shard -> {
+            List<Timestamp> fechas = jdbcTemplate.queryForList(
+                    "SELECT fecha FROM eventos_salida WHERE estado = 'PENDIENTE' ORDER BY id LIMIT 1", Timestamp.class);
+            if (!fechas.isEmpty() && (masAntiguo[0] == 0 || fechas.get(0).getTime() < masAntiguo[0])) {
+                masAntiguo[0] = fechas.get(0).getTime();
+            }
+        });
+        pendienteMasAntiguo.set(masAntiguo[0]);
+    }
+
+
+    private List<EventoForo> reclamar() {
+        List<Fila> candidatos = jdbcTemplate.query(
+                "SELECT id, tipo, id_topico, datos, fecha, intentos FROM eventos_salida " +
+                        "WHERE estado = 'PENDIENTE' AND proximo_intento <= NOW(3) " +
+                        "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED",
+                this::leerFila, tamanioLote);
+        if (candidatos.isEmpty()) {
+            return List.of();
+        }
+        List<Fila> reclamados = respetarOrden(candidatos);
+        if (reclamados.isEmpty()) {
+            return List.of();
+        }
+        List<Object> parametros = new ArrayList<>(List.of(nodo, Timestamp.from(Instant.now().plusSeconds(arriendoSegundos))));
+        reclamados.forEach(fila -> parametros.add(fila.id()));
+        jdbcTemplate.update("UPDATE eventos_salida SET estado = 'EN_CURSO', nodo = ?, arriendo_hasta = ? WHERE id IN ("
+                + marcadores(reclamados.size()) + ")", parametros.toArray());
+        List<EventoForo> eventos = new ArrayList<>(reclamados.size());
+        for (Fila fila : reclamados) {
+            DatosEventoForo datos;
+            try {
+                datos = objectMapper.readValue(fila.datos(), DatosEventoForo.class);
+            } catch (Exception e) {
+                log.error("Evento {} ilegible; se marca como fallido", fila.id(), e);
+                jdbcTemplate.update("UPDATE eventos_salida SET estado = 'FALLIDO', ultimo_error = ? WHERE id = ?",
+                        recortar(e.toString()), fila.id());
+                contar(FALLIDO);
+                continue;
+            }
+            eventos.add(new EventoForo(fila.id(), fila.tipo(), fila.idTopico(), datos, fila.fecha().toLocalDateTime(),
+                    fila.intentos()));
+        }
+        return eventos;
+    }
+
+
+    /**
+     * Descarta los candidatos que tienen un evento anterior de su tópico sin terminar fuera del
+     * lote (en curso en otro nodo, esperando un reintento o bloqueado por otro despachador).
+     */
+    List<Fila> respetarOrden(List<Fila> candidatos) {
+        Set<Long> idsCandidatos = new HashSet<>();
+        Set<Long> topicos = new LinkedHashSet<>();
+        long maximoId = 0;
+        for (Fila fila : candidatos) {
+            idsCandidatos.add(fila.id());
+            topicos.add(fila.idTopico());
+            maximoId = Math.max(maximoId, fila.id());
+        }
+        List<Object> parametros = new ArrayList<>(topicos);
+        parametros.add(maximoId);
+        Map<Long, Long> primerBloqueo = new HashMap<>();
+        jdbcTemplate.query("SELECT id, id_topico FROM eventos_salida WHERE id_topico IN (" + marcadores(topicos.size())
+                        + ") AND estado IN ('PENDIENTE', 'EN_CURSO') AND id < ? ORDER BY id",
+                rs -> {
+                    long id = rs.getLong("id");
+                    if (!idsCandidatos.contains(id)) {
+                        primerBloqueo.putIfAbsent(rs.getLong("id_topico"), id);
+                    }
+                },
+                parametros.toArray());
+        List<Fila> reclamados = new ArrayList<>(candidatos.size());
+        for (Fila fila : candidatos) {
+            Long bloqueo = primerBloqueo.get(fila.idTopico());
+            if (bloqueo == null || bloqueo > fila.id()) {
+                reclamados.add(fila);
+            }
+        }
+        return reclamados;
+    }
+
+
+    private void procesar(List<EventoForo> eventos) {
+        Map<Integer, List<EventoForo>> porCarril = new LinkedHashMap<>();
+        for (EventoForo evento : eventos) {
+            porCarril.computeIfAbsent(Math.floorMod(Long.hashCode(evento.idTopico()), carriles.length),
+                    carril -> new ArrayList<>()).add(evento);
+        }
+        List<Future<List<Resultado>>> futuros = new ArrayList<>();
+        porCarril.forEach((carril, lista) -> futuros.add(carriles[carril].submit(() -> procesarCarril(lista))));
+
+        List<Long> procesados = new ArrayList<>();
+        List<Long> liberados = new ArrayList<>();
+        for (Future<List<Resultado>> futuro : futuros) {
+            List<Resultado> resultados;
+            try {
+                resultados = futuro.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                // Los eventos del carril quedan EN_CURSO y se liberan al vencer el arriendo
+                log.error("Error inesperado en un carril de eventos", e.getCause());
+                continue;
+            }
+            for (Resultado resultado : resultados) {
+                EventoForo evento = resultado.evento();
+                switch (resultado.estado()) {
+                    case PROCESADO -> {
+                        procesados.add(evento.id());
+                        retraso.record(Duration.between(evento.fecha(), LocalDateTime.now()));
+                    }
+                    case PENDIENTE -> liberados.add(evento.id());
+                    default -> registrarFallo(evento, resultado.error());
+                }
+            }
+        }
+        if (!procesados.isEmpty()) {
+            jdbcTemplate.update("UPDATE eventos_salida SET estado = 'PROCESADO', procesado = NOW(3), arriendo_hasta = NULL "
+                    + "WHERE id IN (" + marcadores(procesados.size()) + ")", procesados.toArray());
+            contar(PROCESADO, procesados.size());
+        }
+        if (!liberados.isEmpty()) {
+            jdbcTemplate.update("UPDATE eventos_salida SET estado = 'PENDIENTE', arriendo_hasta = NULL "
+                    + "WHERE id IN (" + marcadores(liberados.size()) + ")", liberados.toArray());
+        }
+    }
+
+
+    /**
+     * Entrega en orden los eventos de un carril. Cuando un evento falla, los siguientes de su
+     * tópico se devuelven sin procesar para no adelantarse al reintento.
+     */
+    List<Resultado> procesarCarril(List<EventoForo> eventos) {
+        List<Resultado> resultados = new ArrayList<>(eventos.size());
+        Set<Long> topicosDetenidos = new HashSet<>();
+        for (EventoForo evento : eventos) {
+            if (detenido || topicosDetenidos.contains(evento.idTopico())) {
+                resultados.add(new Resultado(evento, PENDIENTE, null));
+                continue;
+            }
+            try {
+                entregar(evento);
+                resultados.add(new Resultado(evento, PROCESADO, null));
+            } catch (Exception e) {
+                log.warn("Falló la entrega del evento {} ({}) del tópico {}, intento {}",
+                        evento.id(), evento.tipo(), evento.idTopico(), evento.intentos() + 1, e);
+                resultados.add(new Resultado(evento, FALLIDO, e));
+                if (evento.intentos() + 1 < maximoIntentos) {
+                    topicosDetenidos.add(evento.idTopico());
+                }
+            }
+        }
+        return resultados;
+    }
+
+
+    private void entregar(EventoForo evento) throws Exception {
+        for (ManejadorEventoForo manejador : manejadores) {
+            if (!manejador.acepta(evento.tipo())) {
+                continue;
+            }
+            Timer.Sample muestra = Timer.start(registry);
+            String resultado = "ok";
+            try {
+                manejador.manejar(evento);
+            } catch (Exception e) {
+                resultado = "error";
+                throw e;
+            } finally {
+                muestra.stop(registry.timer("forohub.eventos.manejador",
+                        "manejador", manejador.nombre(), "resultado", resultado));
+            }
+        }
+    }
+
+
+    private void registrarFallo(EventoForo evento, Exception error) {
+        int intentos = evento.intentos() + 1;
+        if (intentos >= maximoIntentos) {
+            log.error("El evento {} ({}) del tópico {} se descarta tras {} intentos",
+                    evento.id(), evento.tipo(), evento.idTopico(), intentos);
+            jdbcTemplate.update("UPDATE eventos_salida SET estado = 'FALLIDO', intentos = ?, ultimo_error = ?, "
+                    + "arriendo_hasta = NULL WHERE id = ?", intentos, recortar(String.valueOf(error)), evento.id());
+            contar(FALLIDO);
+            return;
+        }
+        long espera = Math.min(esperaMaximaMs, esperaBaseMs << Math.min(intentos - 1, 20));
+        jdbcTemplate.update("UPDATE eventos_salida SET estado = 'PENDIENTE', intentos = ?, ultimo_error = ?, "
+                        + "proximo_intento = ?, arriendo_hasta = NULL WHERE id = ?",
+                intentos, recortar(String.valueOf(error)), Timestamp.from(Instant.now().plusMillis(espera)), evento.id());
+        contar("reintento");
+    }
+
+
+    /**
+     * Devuelve a pendientes los eventos reclamados por un nodo que no terminó a tiempo.
+     */
+    @Scheduled(fixedDelayString = "${forohub.eventos.recuperacion-ms:60000}")
+    public void recuperarArriendosVencidos() {
+        if (!habilitado) {
+            return;
+        }
+        mapaShards.enCadaShard(shard -> {
+            int recuperados = jdbcTemplate.update("UPDATE eventos_salida SET estado = 'PENDIENTE', arriendo_hasta = NULL "
+                    + "WHERE estado = 'EN_CURSO' AND arriendo_hasta < NOW(3)");
+            if (recuperados > 0) {
+                log.warn("Se liberaron {} eventos con el arriendo vencido en el shard {}", recuperados, shard);
+            }
+        });
+    }
+
+
+    /**
+     * Elimina en bloques los eventos procesados que ya superaron el período de retención.
+     * Los fallidos se conservan para revisarlos.
+     */
+    @Scheduled(cron = "${forohub.eventos.limpieza-cron:0 45 * * * *}")
+    public void limpiar() {
+        Timestamp limite = Timestamp.from(Instant.now().minus(Duration.ofHours(retencionHoras)));
+        mapaShards.enCadaShard(shard -> {
+            int eliminados;
+            do {
+                eliminados = jdbcTemplate.update(
+                        "DELETE FROM eventos_salida WHERE estado = 'PROCESADO' AND procesado < ? LIMIT 5000", limite);
+            } while (eliminados == 5000);
+        });
+    }
+
+
+    // Deja de reclamar y espera a que terminen los carriles; lo no entregado se libera por arriendo
+    @PreDestroy
+    public void detener() throws InterruptedException {
+        detenido = true;
+        for (ExecutorService carril : carriles) {
+            carril.shutdown();
+        }
+        for (ExecutorService carril : carriles) {
+            carril.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+
+    private void contar(String resultado) {
+        contar(resultado, 1);
+    }
+
+    private void contar(String resultado, int cantidad) {
+        Counter.builder("forohub.eventos.procesados")
+                .description("Eventos de la bandeja de salida terminados, por resultado")
+                .tag("resultado", resultado.toLowerCase())
+                .register(registry)
+                .increment(cantidad);
+    }
+
+    private Fila leerFila(ResultSet rs, int i) throws SQLException {
+        return new Fila(rs.getLong("id"), TipoEventoForo.valueOf(rs.getString("tipo")), rs.getLong("id_topico"),
+                rs.getString("datos"), rs.getTimestamp("fecha"), rs.getInt("intentos"));
+    }
+
+    private static String marcadores(int cantidad) {
+        return String.join(",", Collections.nCopies(cantidad, "?"));
+    }
+
+    private static String recortar(String texto) {
+        return texto.length() <= 500 ? texto : texto.substring(0, 500);
+    }
+
+    record Fila(long id, TipoEventoForo tipo, long idTopico, String datos, Timestamp fecha, int intentos) {
+    }
+
+    record Resultado(EventoForo evento, String estado, Exception error) {
+    }
+}
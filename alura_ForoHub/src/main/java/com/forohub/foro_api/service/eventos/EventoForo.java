@@ -0,0 +1,18 @@
+package com.forohub.foro_api.service.eventos;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento de la bandeja de salida tal como lo reciben los manejadores.
+ *
+ * @param id Identificador del evento en la tabla eventos_salida.
+ * @param intentos Entregas fallidas anteriores de este evento.
+ */
+public record EventoForo(
+        long id,
+        TipoEventoForo tipo,
+        long idTopico,
+        DatosEventoForo datos,
+        LocalDateTime fecha,
+        int intentos) {
+}
@@ -0,0 +1,46 @@
+package com.forohub.foro_api.service.eventos;
+
+import com.forohub.foro_api.model.Curso;
+import com.forohub.foro_api.model.Topico;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cambio sobre un tópico publicado por TopicoService. Los oyentes lo reciben una vez
+ * confirmada la transacción que lo produjo.
+ *
+ * Los campos que la operación no conoce sin consultar la base de datos (por ejemplo, el
+ * curso en los cierres masivos) quedan en null.
+ */
+public record EventoTopico(
+        TipoEventoTopico tipo,
+        Long idTopico,
+        String titulo,
+        Curso curso,
+        LocalDateTime fecha,
+        String status,
+        int deltaMensajes) {
+
+    public static EventoTopico creado(Topico topico) {
+        return new EventoTopico(TipoEventoTopico.CREADO, topico.getId(), topico.getTitulo(), topico.getCurso(),
+                topico.getFecha(), topico.getStatus(), topico.getMensajes().size());
+    }
+
+    public static EventoTopico actualizado(Long idTopico, LocalDateTime fecha, int mensajesAgregados) {
+        return new EventoTopico(TipoEventoTopico.ACTUALIZADO, idTopico, null, null, fecha, "ACTUALIZADO",
+                mensajesAgregados);
+    }
+
+    public static EventoTopico mensajeAgregado(Topico topico) {
+        return new EventoTopico(TipoEventoTopico.MENSAJE_AGREGADO, topico.getId(), topico.getTitulo(),
+                topico.getCurso(), null, null, 1);
+    }
+
+    public static EventoTopico mensajeEliminado(Long idTopico) {
+        return new EventoTopico(TipoEventoTopico.MENSAJE_ELIMINADO, idTopico, null, null, null, null, -1);
+    }
+
+    public static EventoTopico cerrado(Long idTopico) {
+        return new EventoTopico(TipoEventoTopico.CERRADO, idTopico, null, null, null, "CERRADO", 0);
+    }
+}
@@ -0,0 +1,32 @@
+package com.forohub.foro_api.service.eventos;
+
+/**
+ * Reacción en segundo plano a la actividad del foro (notificaciones, indexación, analítica).
+ *
+ * Cada bean que implementa esta interfaz recibe los eventos de la bandeja de salida a través
+ * de DespachadorEventos. La entrega es al menos una vez: si un manejador falla, el evento se
+ * reintenta para todos los manejadores, así que cada uno debe tolerar duplicados. Los eventos
+ * de un mismo tópico llegan en el orden en que se registraron.
+ */
+public interface ManejadorEventoForo {
+
+    /**
+     * @return Nombre usado en las métricas y en los registros.
+     */
+    String nombre();
+
+    /**
+     * @param tipo Tipo de evento.
+     * @return true si este manejador procesa los eventos de ese tipo.
+     */
+    default boolean acepta(TipoEventoForo tipo) {
+        return true;
+    }
+
+    /**
+     * Procesa un evento. Una excepción programa un reintento con espera creciente.
+     *
+     * @param evento Evento a procesar.
+     */
+    void manejar(EventoForo evento) throws Exception;
+}
@@ -0,0 +1,35 @@
+package com.forohub.foro_api.service.eventos;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Avisa al autor de un tópico cuando otro usuario le responde. Por ahora el aviso se deja
+ * en el registro de la aplicación.
+ */
+@Component
+public class NotificacionAutorManejador implements ManejadorEventoForo {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificacionAutorManejador.class);
+
+    @Override
+    public String nombre() {
+        return "notificacion-autor";
+    }
+
+    @Override
+    public boolean acepta(TipoEventoForo tipo) {
+        return tipo == TipoEventoForo.MENSAJE_AGREGADO;
+    }
+
+    @Override
+    public void manejar(EventoForo evento) {
+        DatosEventoForo datos = evento.datos();
+        if (datos.autorTopico() == null || datos.autorTopico().equals(datos.autorMensaje())) {
+            return;
+        }
+        log.info("Notificar a {}: {} respondió en el tópico {} ('{}')",
+                datos.autorTopico(), datos.autorMensaje(), evento.idTopico(), datos.titulo());
+    }
+}
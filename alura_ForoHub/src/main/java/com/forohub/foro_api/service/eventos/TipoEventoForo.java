@@ -0,0 +1,6 @@
+package com.forohub.foro_api.service.eventos;
+
+public enum TipoEventoForo {
+    TOPICO_CREADO,
+    MENSAJE_AGREGADO
+}
@@ -0,0 +1,9 @@
+package com.forohub.foro_api.service.eventos;
+
+public enum TipoEventoTopico {
+    CREADO,
+    ACTUALIZADO,
+    MENSAJE_AGREGADO,
+    MENSAJE_ELIMINADO,
+    CERRADO
+}
@@ -0,0 +1,269 @@
+package com.forohub.foro_api.service.indice;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Árbol de prefijos compacto (radix tree) que devuelve las k entradas de mayor peso
+ * para cualquier prefijo.
+ *
+ * Las aristas guardan fragmentos completos de la clave en lugar de un carácter por nodo,
+ * así que la cantidad de nodos crece con la cantidad de claves y no con su longitud. Cada
+ * nodo mantiene en caché las k mejores entradas de su subárbol: una consulta recorre solo
+ * los caracteres del prefijo y no visita el subárbol. Las escrituras recalculan esa caché
+ * únicamente a lo largo del camino modificado.
+ *
+ * @param <T> Tipo del valor asociado a cada entrada.
+ */
+public class ArbolPrefijos<T> {
+
+    private final int k;
+    private final Nodo<T> raiz = new Nodo<>(new char[0]);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public ArbolPrefijos(int k) {
+        this.k = k;
+    }
+
+    /**
+     * Agrega una entrada bajo la clave indicada. Varias entradas pueden compartir clave.
+     */
+    public void insertar(String clave, Entrada<T> entrada) {
+        lock.writeLock().lock();
+        try {
+            List<Nodo<T>> camino = new ArrayList<>();
+            Nodo<T> nodo = raiz;
+            camino.add(nodo);
+            int i = 0;
+            while (i < clave.length()) {
+                int posicion = nodo.buscarHijo(clave.charAt(i));
+                if (posicion < 0) {
+                    Nodo<T> hoja = new Nodo<>(clave.substring(i).toCharArray());
+                    nodo.agregarHijo(-posicion - 1, hoja);
+                    nodo = hoja;
+                    camino.add(nodo);
+                    i = clave.length();
+                    break;
+                }
+                Nodo<T> hijo = nodo.hijos[posicion];
+                int comun = prefijoComun(hijo.etiqueta, clave, i);
+                if (comun < hijo.etiqueta.length) {
+                    // Partir la arista: el nodo intermedio hereda la caché del hijo
+                    Nodo<T> intermedio = new Nodo<>(Arrays.copyOf(hijo.etiqueta, comun));
+                    hijo.etiqueta = Arrays.copyOfRange(hijo.etiqueta, comun, hijo.etiqueta.length);
+                    intermedio.hijos = nuevoArreglo(hijo);
+                    intermedio.top = hijo.top;
+                    nodo.hijos[posicion] = intermedio;
+                    hijo = intermedio;
+                }
+                nodo = hijo;
+                camino.add(nodo);
+                i += comun;
+            }
+            nodo.terminales = agregar(nodo.terminales, entrada);
+            recalcular(camino);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Quita la entrada con el id indicado de la clave. Los nodos que quedan vacíos se eliminan
+     * y los que quedan con un único hijo se fusionan con él.
+     *
+     * @return true si la entrada existía.
+     */
+    public boolean quitar(String clave, long id) {
+        lock.writeLock().lock();
+        try {
+            List<Nodo<T>> camino = new ArrayList<>();
+            Nodo<T> nodo = raiz;
+            camino.add(nodo);
+            int i = 0;
+            while (i < clave.length()) {
+                int posicion = nodo.buscarHijo(clave.charAt(i));
+                if (posicion < 0) {
+                    return false;
+                }
+                Nodo<T> hijo = nodo.hijos[posicion];
+                if (prefijoComun(hijo.etiqueta, clave, i) < hijo.etiqueta.length) {
+                    return false;
+                }
+                nodo = hijo;
+                camino.add(nodo);
+                i += hijo.etiqueta.length;
+            }
+            Entrada<T>[] restantes = quitar(nodo.terminales, id);
+            if (restantes == nodo.terminales) {
+                return false;
+            }
+            nodo.terminales = restantes;
+            compactar(camino);
+            recalcular(camino);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return Las entradas de mayor peso cuya clave empieza con el prefijo, de mayor a menor.
+     */
+    public List<Entrada<T>> buscar(String prefijo, int limite) {
+        lock.readLock().lock();
+        try {
+            Nodo<T> nodo = raiz;
+            int i = 0;
+            while (i < prefijo.length()) {
+                int posicion = nodo.buscarHijo(prefijo.charAt(i));
+                if (posicion < 0) {
+                    return List.of();
+                }
+                Nodo<T> hijo = nodo.hijos[posicion];
+                int comun = prefijoComun(hijo.etiqueta, prefijo, i);
+                if (comun < hijo.etiqueta.length && i + comun < prefijo.length()) {
+                    return List.of();
+                }
+                nodo = hijo;
+                i += comun;
+            }
+            return Arrays.asList(nodo.top).subList(0, Math.max(0, Math.min(limite, nodo.top.length)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Elimina hojas vacías y fusiona nodos sin entradas que quedaron con un único hijo
+    private void compactar(List<Nodo<T>> camino) {
+        for (int j = camino.size() - 1; j > 0; j--) {
+            Nodo<T> nodo = camino.get(j);
+            Nodo<T> padre = camino.get(j - 1);
+            if (nodo.terminales.length > 0) {
+                continue;
+            }
+            if (nodo.hijos.length == 0) {
+                padre.quitarHijo(padre.buscarHijo(nodo.etiqueta[0]));
+                camino.remove(j);
+            } else if (nodo.hijos.length == 1) {
+                Nodo<T> unico = nodo.hijos[0];
+                char[] etiqueta = Arrays.copyOf(nodo.etiqueta, nodo.etiqueta.length + unico.etiqueta.length);
+                System.arraycopy(unico.etiqueta, 0, etiqueta, nodo.etiqueta.length, unico.etiqueta.length);
+                unico.etiqueta = etiqueta;
+                padre.hijos[padre.buscarHijo(etiqueta[0])] = unico;
+                camino.set(j, unico);
+            }
+        }
+    }
+
+    // Recalcula de abajo hacia arriba la caché de mejores entradas de los nodos del camino
+    private void recalcular(List<Nodo<T>> camino) {
+        for (int j = camino.size() - 1; j >= 0; j--) {
+            Nodo<T> nodo = camino.get(j);
+            List<Entrada<T>> candidatos = new ArrayList<>(Arrays.asList(nodo.terminales));
+            for (Nodo<T> hijo : nodo.hijos) {
+                candidatos.addAll(Arrays.asList(hijo.top));
+            }
+            candidatos.sort(Entrada.POR_PESO);
+            nodo.top = candidatos.subList(0, Math.min(k, candidatos.size())).toArray(vacio());
+        }
+    }
+
+    private static int prefijoComun(char[] etiqueta, String clave, int desde) {
+        int limite = Math.min(etiqueta.length, clave.length() - desde);
+        int i = 0;
+        while (i < limite && etiqueta[i] == clave.charAt(desde + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Entrada<T>[] vacio() {
+        return (Entrada<T>[]) new Entrada[0];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Nodo<T>[] nuevoArreglo(Nodo<T> nodo) {
+        Nodo<T>[] arreglo = (Nodo<T>[]) new Nodo[1];
+        arreglo[0] = nodo;
+        return arreglo;
+    }
+
+    private static <T> Entrada<T>[] agregar(Entrada<T>[] entradas, Entrada<T> entrada) {
+        Entrada<T>[] resultado = Arrays.copyOf(entradas, entradas.length + 1);
+        resultado[entradas.length] = entrada;
+        return resultado;
+    }
+
+    private static <T> Entrada<T>[] quitar(Entrada<T>[] entradas, long id) {
+        for (int i = 0; i < entradas.length; i++) {
+            if (entradas[i].id() == id) {
+                Entrada<T>[] resultado = Arrays.copyOf(entradas, entradas.length - 1);
+                System.arraycopy(entradas, i + 1, resultado, i, entradas.length - i - 1);
+                return resultado;
+            }
+        }
+        return entradas;
+    }
+
+    /**
+     * Entrada del árbol: un id, su peso para el ranking y el valor a devolver.
+     */
+    public record Entrada<T>(long id, long peso, T valor) {
+
+        static final Comparator<Entrada<?>> POR_PESO = Comparator
+                .comparingLong((Entrada<?> entrada) -> entrada.peso()).reversed()
+                .thenComparingLong(Entrada::id);
+    }
+
+    private static final class Nodo<T> {
+
+        private char[] etiqueta;
+        private Nodo<T>[] hijos;
+        private Entrada<T>[] terminales;
+        private Entrada<T>[] top;
+
+        @SuppressWarnings("unchecked")
+        private Nodo(char[] etiqueta) {
+            this.etiqueta = etiqueta;
+            this.hijos = (Nodo<T>[]) new Nodo[0];
+            this.terminales = vacio();
+            this.top = vacio();
+        }
+
+        // Búsqueda binaria por el primer carácter de la etiqueta; negativo si no existe (punto de inserción)
+        private int buscarHijo(char c) {
+            int bajo = 0;
+            int alto = hijos.length - 1;
+            while (bajo <= alto) {
+                int medio = (bajo + alto) >>> 1;
+                char actual = hijos[medio].etiqueta[0];
+                if (actual < c) {
+                    bajo = medio + 1;
+                } else if (actual > c) {
+                    alto = medio - 1;
+                } else {
+                    return medio;
+                }
+            }
+            return -(bajo + 1);
+        }
+
+        private void agregarHijo(int posicion, Nodo<T> hijo) {
+            Nodo<T>[] nuevos = Arrays.copyOf(hijos, hijos.length + 1);
+            System.arraycopy(hijos, posicion, nuevos, posicion + 1, hijos.length - posicion);
+            nuevos[posicion] = hijo;
+            hijos = nuevos;
+        }
+
+        private void quitarHijo(int posicion) {
+            Nodo<T>[] nuevos = Arrays.copyOf(hijos, hijos.length - 1);
+            System.arraycopy(hijos, posicion + 1, nuevos, posicion, hijos.length - posicion - 1);
+            hijos = nuevos;
+        }
+    }
+}
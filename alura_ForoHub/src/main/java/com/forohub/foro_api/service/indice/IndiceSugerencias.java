@@ -0,0 +1,248 @@
+package com.forohub.foro_api.service.indice;
+
+import com.forohub.foro_api.dto.DatosSugerenciaTopico;
+import com.forohub.foro_api.infra.cache.CacheLocal;
+import com.forohub.foro_api.infra.cache.RegistroCambios;
+import com.forohub.foro_api.infra.shard.MapaShards;
+import com.forohub.foro_api.model.Curso;
+import com.forohub.foro_api.repository.TopicoRepository;
+import com.forohub.foro_api.service.eventos.EventoTopico;
+import com.forohub.foro_api.service.eventos.TipoEventoTopico;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Sugerencias de títulos de tópicos activos por prefijo, globales y por curso.
+ *
+ * Las claves se normalizan sin tildes ni mayúsculas ("Configuración" y "configuracion" coinciden)
+ * y las sugerencias se ordenan por actividad (cantidad de mensajes). Se construye al arrancar
+ * y se actualiza con los eventos de TopicoService: los tópicos nuevos se agregan y los cerrados
+ * se quitan. Los eventos recibidos durante una reconstrucción se reaplican sobre los árboles
+ * nuevos antes de publicarlos.
+ */
+@Component
+public class IndiceSugerencias implements CacheLocal {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceSugerencias.class);
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+
+    private final TopicoRepository topicoRepository;
+    private final MapaShards mapaShards;
+    private final TransactionTemplate transaccionLectura;
+    private final int maximo;
+    private final int longitudClave;
+    private final boolean habilitado;
+
+    private volatile Arboles arboles = new Arboles(0);
+    private List<EventoTopico> pendientes;
+
+    public IndiceSugerencias(TopicoRepository topicoRepository,
+                             MapaShards mapaShards,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${forohub.sugerencias.maximo:10}") int maximo,
+                             @Value("${forohub.sugerencias.longitud-clave:60}") int longitudClave,
+                             @Value("${forohub.sugerencias.habilitado:true}") boolean habilitado) {
+        this.topicoRepository = topicoRepository;
+        this.mapaShards = mapaShards;
+        this.transaccionLectura = new TransactionTemplate(transactionManager);
+        this.transaccionLectura.setReadOnly(true);
+        this.maximo = maximo;
+        this.longitudClave = longitudClave;
+        this.habilitado = habilitado;
+    }
+
+    /**
+     * Normaliza un texto para compararlo por prefijo: sin tildes, en minúsculas y con los
+     * espacios colapsados.
+     */
+    public static String normalizar(String texto) {
+        String sinMarcas = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return ESPACIOS.matcher(sinMarcas.toLowerCase(Locale.ROOT).strip()).replaceAll(" ");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarAlIniciar() {
+        if (habilitado) {
+            reconstruir();
+        }
+    }
+
+    public void reconstruir() {
+        synchronized (this) {
+            if (pendientes != null) {
+                return;
+            }
+            pendientes = new ArrayList<>();
+        }
+        Arboles nuevos = new Arboles(maximo);
+        try {
+            mapaShards.enCadaShard(shard -> transaccionLectura.executeWithoutResult(status -> {
+                try (Stream<ResumenTopico> resumenes = topicoRepository.streamResumenesActivos()) {
+                    resumenes.forEach(nuevos::poner);
+                }
+            }));
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendientes = null;
+            }
+            log.warn("No se pudo construir el índice de sugerencias", e);
+            return;
+        }
+        synchronized (this) {
+            pendientes.forEach(nuevos::aplicar);
+            pendientes = null;
+            arboles = nuevos;
+        }
+        log.info("Índice de sugerencias construido con {} títulos", nuevos.porId.size());
+    }
+
+    /**
+     * @param prefijo Texto escrito por el usuario.
+     * @param curso Curso a filtrar o null para todos.
+     * @param limite Cantidad máxima de sugerencias.
+     * @return Títulos activos que empiezan con el prefijo, los de mayor actividad primero.
+     */
+    public List<DatosSugerenciaTopico> sugerir(String prefijo, Curso curso, int limite) {
+        String clave = normalizar(prefijo);
+        if (clave.isEmpty()) {
+            return List.of();
+        }
+        if (clave.length() > longitudClave) {
+            clave = clave.substring(0, longitudClave);
+        }
+        Arboles actuales = arboles;
+        ArbolPrefijos<DatosSugerenciaTopico> arbol = curso == null ? actuales.global : actuales.porCurso.get(curso);
+        return arbol.buscar(clave, Math.max(1, Math.min(limite, maximo))).stream()
+                .map(ArbolPrefijos.Entrada::valor)
+                .toList();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alConfirmarCambio(EventoTopico evento) {
+        // Actualizar un tópico cerrado lo reabre; el evento no trae el título, así que se lee
+        if (habilitado && evento.tipo() == TipoEventoTopico.ACTUALIZADO && noIndexado(evento.idTopico())) {
+            invalidar(String.valueOf(evento.idTopico()));
+            return;
+        }
+        synchronized (this) {
+            if (pendientes != null) {
+                pendientes.add(evento);
+            }
+            arboles.aplicar(evento);
+        }
+    }
+
+    // Durante una reconstrucción no se sabe si la carga en curso ya leyó el tópico
+    private synchronized boolean noIndexado(long id) {
+        return pendientes != null || !arboles.porId.containsKey(id);
+    }
+
+    @Override
+    public String entidad() {
+        return RegistroCambios.TOPICO;
+    }
+
+    @Override
+    public void invalidar(String clave) {
+        long id = Long.parseLong(clave);
+        Optional<ResumenTopico> resumen = mapaShards.en(mapaShards.shardDeId(id),
+                () -> transaccionLectura.execute(status -> topicoRepository.findResumenActivo(id)));
+        synchronized (this) {
+            if (pendientes != null) {
+                pendientes.add(resumen.map(IndiceSugerencias::comoCreado).orElseGet(() -> EventoTopico.cerrado(id)));
+            }
+            Arboles actuales = arboles;
+            resumen.ifPresentOrElse(actuales::poner, () -> actuales.quitar(id));
+        }
+    }
+
+    @Override
+    public void invalidarTodo() {
+        if (habilitado) {
+            reconstruir();
+        }
+    }
+
+    private static EventoTopico comoCreado(ResumenTopico resumen) {
+        return new EventoTopico(TipoEventoTopico.CREADO, resumen.id(), resumen.titulo(), resumen.curso(),
+                resumen.fecha(), resumen.status(), resumen.mensajes());
+    }
+
+    private final class Arboles {
+
+        private final ArbolPrefijos<DatosSugerenciaTopico> global;
+        private final Map<Curso, ArbolPrefijos<DatosSugerenciaTopico>> porCurso = new EnumMap<>(Curso.class);
+        private final Map<Long, DatosSugerenciaTopico> porId = new ConcurrentHashMap<>();
+
+        private Arboles(int k) {
+            global = new ArbolPrefijos<>(k);
+            for (Curso curso : Curso.values()) {
+                porCurso.put(curso, new ArbolPrefijos<>(k));
+            }
+        }
+
+        private synchronized void poner(ResumenTopico resumen) {
+            quitar(resumen.id());
+            agregar(new DatosSugerenciaTopico(resumen.id(), resumen.titulo(), resumen.curso(), resumen.mensajes()));
+        }
+
+        private synchronized void quitar(long id) {
+            DatosSugerenciaTopico anterior = porId.remove(id);
+            if (anterior != null) {
+                String clave = clave(anterior.titulo());
+                global.quitar(clave, id);
+                porCurso.get(anterior.curso()).quitar(clave, id);
+            }
+        }
+
+        private synchronized void sumarMensajes(long id, int delta) {
+            DatosSugerenciaTopico anterior = porId.get(id);
+            if (anterior != null) {
+                quitar(id);
+                agregar(new DatosSugerenciaTopico(anterior.id(), anterior.titulo(), anterior.curso(),
+                        Math.max(0, anterior.mensajes() + delta)));
+            }
+        }
+
+        private void aplicar(EventoTopico evento) {
+            switch (evento.tipo()) {
+                case CREADO -> poner(new ResumenTopico(evento.idTopico(), evento.titulo(),
+                        ResumenTopico.aMillis(evento.fecha()), evento.status(), evento.curso(), evento.deltaMensajes()));
+                case CERRADO -> quitar(evento.idTopico());
+                default -> {
+                    if (evento.deltaMensajes() != 0) {
+                        sumarMensajes(evento.idTopico(), evento.deltaMensajes());
+                    }
+                }
+            }
+        }
+
+        private void agregar(DatosSugerenciaTopico sugerencia) {
+            String clave = clave(sugerencia.titulo());
+            ArbolPrefijos.Entrada<DatosSugerenciaTopico> entrada =
+                    new ArbolPrefijos.Entrada<>(sugerencia.id(), sugerencia.mensajes(), sugerencia);
+            porId.put(sugerencia.id(), sugerencia);
+            global.insertar(clave, entrada);
+            porCurso.get(sugerencia.curso()).insertar(clave, entrada);
+        }
+
+        private String clave(String titulo) {
+            String clave = normalizar(titulo);
+            return clave.length() > longitudClave ? clave.substring(0, longitudClave) : clave;
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package com.forohub.foro_api.service.indice;
+
+import com.forohub.foro_api.infra.cache.CacheLocal;
+import com.forohub.foro_api.infra.cache.RegistroCambios;
+import com.forohub.foro_api.infra.shard.MapaShards;
+import com.forohub.foro_api.model.Curso;
+import com.forohub.foro_api.repository.TopicoRepository;
+import com.forohub.foro_api.service.eventos.EventoTopico;
+import com.forohub.foro_api.service.eventos.TipoEventoTopico;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Índice en memoria de los tópicos no cerrados, ordenados por fecha, global y por curso.
+ *
+ * Se construye al arrancar con una lectura en streaming, se mantiene al día con los eventos
+ * que TopicoService publica tras cada commit (y con el registro de cambios para las escrituras de
+ * otros nodos) y se compara periódicamente con la base de datos.
+ * Resuelve qué ids forman una página y el total de elementos sin consultar MySQL; si el índice
+ * no está listo o el orden pedido no es por fecha, los listados recurren a la base de datos,
+ * pero siguen tomando el total de los contadores por curso para evitar el COUNT(*).
+ *
+ * Huella con 1.000.000 de tópicos activos (JVM 17 de 64 bits con oops comprimidas y títulos de
+ * 45 a 55 caracteres): unos 277 MB, es decir, ~280 B por tópico. Se mide con
+ * HuellaIndiceTopicosActivos, en los tests; la mayor parte son el resumen, el título, la entrada
+ * del mapa por id y los nodos de las dos skip lists (global y por curso).
+ */
+@Component
+public class IndiceTopicosActivos implements CacheLocal {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceTopicosActivos.class);
+
+    private final TopicoRepository topicoRepository;
+    private final MapaShards mapaShards;
+    private final TransactionTemplate transaccionLectura;
+    private final boolean habilitado;
+    private final Counter inconsistencias;
+
+    private volatile Estructura actual;
+    private List<EventoTopico> pendientes;
+    private Set<Curso> sospechosos = EnumSet.noneOf(Curso.class);
+
+    public IndiceTopicosActivos(TopicoRepository topicoRepository,
+                                MapaShards mapaShards,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry registry,
+                                @Value("${forohub.indice-activos.habilitado:true}") boolean habilitado) {
+        this.topicoRepository = topicoRepository;
+        this.mapaShards = mapaShards;
+        this.transaccionLectura = new TransactionTemplate(transactionManager);
+        this.transaccionLectura.setReadOnly(true);
+        this.habilitado = habilitado;
+        this.inconsistencias = Counter.builder("forohub.indice.activos.inconsistencias")
+                .description("Reconstrucciones del índice de tópicos activos por diferencias con la base de datos")
+                .register(registry);
+        Gauge.builder("forohub.indice.activos.tamanio", this, indice -> indice.actual == null ? 0 : indice.actual.porId.size())
+                .description("Tópicos activos presentes en el índice en memoria")
+                .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarAlIniciar() {
+        if (habilitado) {
+            reconstruir();
+        }
+    }
+
+    /**
+     * Reconstruye el índice leyendo en streaming los tópicos activos. Mientras dura la carga
+     * el índice anterior (si lo hay) sigue respondiendo y los eventos recibidos se reaplican
+     * sobre la nueva estructura antes de publicarla.
+     */
+    public void reconstruir() {
+        synchronized (this) {
+            if (pendientes != null) {
+                return;
+            }
+            pendientes = new ArrayList<>();
+        }
+        Estructura nueva = new Estructura();
+        try {
+            mapaShards.enCadaShard(shard -> transaccionLectura.executeWithoutResult(status -> {
+                try (Stream<ResumenTopico> resumenes = topicoRepository.streamResumenesActivos()) {
+                    resumenes.forEach(nueva::poner);
+                }
+            }));
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendientes = null;
+            }
+            log.warn("No se pudo construir el índice de tópicos activos; los listados usarán la base de datos", e);
+            return;
+        }
+        synchronized (this) {
+            pendientes.forEach(nueva::aplicar);
+            pendientes = null;
+            actual = nueva;
+            sospechosos = EnumSet.noneOf(Curso.class);
+        }
+        log.info("Índice de tópicos activos construido con {} tópicos", nueva.porId.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alConfirmarCambio(EventoTopico evento) {
+        // Actualizar un tópico cerrado lo reabre: el evento no trae el título ni los mensajes,
+        // así que el resumen se lee de la base de datos fuera del bloqueo
+        if (evento.tipo() == TipoEventoTopico.ACTUALIZADO && noIndexado(evento.idTopico())) {
+            invalidar(String.valueOf(evento.idTopico()));
+            return;
+        }
+        synchronized (this) {
+            if (pendientes != null) {
+                pendientes.add(evento);
+            }
+            if (actual != null) {
+                actual.aplicar(evento);
+            }
+        }
+    }
+
+    // Durante una reconstrucción no se sabe si la carga en curso ya leyó el tópico
+    private synchronized boolean noIndexado(long id) {
+        return pendientes != null || (actual != null && !actual.porId.containsKey(id));
+    }
+
+    @Override
+    public String entidad() {
+        return RegistroCambios.TOPICO;
+    }
+
+    /**
+     * Refresca la entrada de un tópico modificado en otro nodo leyendo su estado actual.
+     */
+    @Override
+    public void invalidar(String clave) {
+        synchronized (this) {
+            if (actual == null && pendientes == null) {
+                return;
+            }
+        }
+        long id = Long.parseLong(clave);
+        Optional<ResumenTopico> resumen = mapaShards.en(mapaShards.shardDeId(id),
+                () -> transaccionLectura.execute(status -> topicoRepository.findResumenActivo(id)));
+        synchronized (this) {
+            if (pendientes != null) {
+                pendientes.add(resumen.map(IndiceTopicosActivos::comoCreado).orElseGet(() -> EventoTopico.cerrado(id)));
+            }
+            if (actual != null) {
+                resumen.ifPresentOrElse(actual::poner, () -> actual.quitar(id));
+            }
+        }
+    }
+
+    @Override
+    public void invalidarTodo() {
+        if (habilitado) {
+            reconstruir();
+        }
+    }
+
+    private static EventoTopico comoCreado(ResumenTopico resumen) {
+        return new EventoTopico(TipoEventoTopico.CREADO, resumen.id(), resumen.titulo(), resumen.curso(),
+                resumen.fecha(), resumen.status(), resumen.mensajes());
+    }
+
+    /**
+     * Resuelve una página de tópicos activos, opcionalmente filtrada por curso.
+     *
+     * @param curso Curso a filtrar o null para todos.
+     * @param paginacion Parámetros de paginación; solo se admite orden por fecha.
+     * @return Los ids de la página y el total, o vacío si la consulta debe ir a la base de datos.
+     */
+    public Optional<PaginaIndice> pagina(Curso curso, Pageable paginacion) {
+        Estructura estructura = actual;
+        if (estructura == null) {
+            return Optional.empty();
+        }
+        NavigableSet<ResumenTopico> conjunto = curso == null ? estructura.global : estructura.porCurso.get(curso);
+        Sort.Order orden = paginacion.getSort().getOrderFor("fecha");
+        if (paginacion.getSort().isSorted() && (orden == null || paginacion.getSort().stream().count() > 1)) {
+            return Optional.empty();
+        }
+        if (orden != null && orden.isDescending()) {
+            conjunto = conjunto.descendingSet();
+        }
+        List<Long> ids = new ArrayList<>(paginacion.isPaged() ? paginacion.getPageSize() : conjunto.size());
+        Iterator<ResumenTopico> it = conjunto.iterator();
+        long saltar = paginacion.isPaged() ? paginacion.getOffset() : 0;
+        for (long i = 0; i < saltar && it.hasNext(); i++) {
+            it.next();
+        }
+        int limite = paginacion.isPaged() ? paginacion.getPageSize() : Integer.MAX_VALUE;
+        while (it.hasNext() && ids.size() < limite) {
+            ids.add(it.next().id());
+        }
+        return Optional.of(new PaginaIndice(ids, estructura.cantidad(curso)));
+    }
+
+    /**
+     * Cantidad de tópicos activos según los contadores del índice, sin recorrerlo ni consultar
+     * la base de datos.
+     *
+     * @param curso Curso a contar o null para todos.
+     * @return El total, o vacío si el índice no está listo.
+     */
+    public OptionalLong totalActivos(Curso curso) {
+        Estructura estructura = actual;
+        return estructura == null ? OptionalLong.empty() : OptionalLong.of(estructura.cantidad(curso));
+    }
+
+    /**
+     * Compara periódicamente la cantidad, los contadores y la suma de ids por curso con la base de datos.
+     * Una diferencia que persiste en dos verificaciones seguidas provoca la reconstrucción.
+     */
+    @Scheduled(fixedDelayString = "${forohub.indice-activos.verificacion-ms:300000}",
+            initialDelayString = "${forohub.indice-activos.verificacion-ms:300000}")
+    public void verificarConsistencia() {
+        Estructura estructura = actual;
+        if (estructura == null) {
+            return;
+        }
+        Map<Curso, long[]> enBase = new EnumMap<>(Curso.class);
+        mapaShards.enCadaShard(shard -> {
+            for (Object[] fila : topicoRepository.resumenActivosPorCurso()) {
+                long[] acumulado = enBase.computeIfAbsent((Curso) fila[0], curso -> new long[2]);
+                acumulado[0] += ((Number) fila[1]).longValue();
+                acumulado[1] += ((Number) fila[2]).longValue();
+            }
+        });
+        Set<Curso> diferentes = EnumSet.noneOf(Curso.class);
+        for (Curso curso : Curso.values()) {
+            long[] esperado = enBase.getOrDefault(curso, new long[]{0, 0});
+            NavigableSet<ResumenTopico> conjunto = estructura.porCurso.get(curso);
+            long suma = 0;
+            for (ResumenTopico resumen : conjunto) {
+                suma += resumen.id();
+            }
+            if (conjunto.size() != esperado[0] || estructura.cantidad(curso) != esperado[0] || suma != esperado[1]) {
+                diferentes.add(curso);
+            }
+        }
+        boolean persistente = diferentes.stream().anyMatch(sospechosos::contains);
+        sospechosos = diferentes;
+        if (persistente) {
+            log.warn("Índice de tópicos activos inconsistente en {}; se reconstruye", diferentes);
+            inconsistencias.increment();
+            reconstruir();
+        }
+    }
+
+    public boolean listo() {
+        return actual != null;
+    }
+
+    private static final class Estructura {
+
+        private final Map<Long, ResumenTopico> porId = new ConcurrentHashMap<>();
+        private final NavigableSet<ResumenTopico> global = new ConcurrentSkipListSet<>(ResumenTopico.POR_FECHA);
+        private final Map<Curso, NavigableSet<ResumenTopico>> porCurso = new EnumMap<>(Curso.class);
+        // size() de las skip lists recorre todos los nodos; los contadores dan el total en O(1)
+        private final Map<Curso, AtomicLong> cantidadPorCurso = new EnumMap<>(Curso.class);
+        private final AtomicLong cantidadGlobal = new AtomicLong();
+
+        private Estructura() {
+            for (Curso curso : Curso.values()) {
+                porCurso.put(curso, new ConcurrentSkipListSet<>(ResumenTopico.POR_FECHA));
+                cantidadPorCurso.put(curso, new AtomicLong());
+            }
+        }
+
+        // Los contadores solo cambian cuando el mapa por id agrega o quita la entrada,
+        // así un cierre repetido o un evento reaplicado no los desajusta
+        private void poner(ResumenTopico resumen) {
+            ResumenTopico anterior = porId.put(resumen.id(), resumen);
+            if (anterior != null) {
+                global.remove(anterior);
+                porCurso.get(anterior.curso()).remove(anterior);
+                cantidadPorCurso.get(anterior.curso()).decrementAndGet();
+            } else {
+                cantidadGlobal.incrementAndGet();
+            }
+            global.add(resumen);
+            porCurso.get(resumen.curso()).add(resumen);
+            cantidadPorCurso.get(resumen.curso()).incrementAndGet();
+        }
+
+        private void quitar(long id) {
+            ResumenTopico anterior = porId.remove(id);
+            if (anterior != null) {
+                global.remove(anterior);
+                porCurso.get(anterior.curso()).remove(anterior);
+                cantidadPorCurso.get(anterior.curso()).decrementAndGet();
+                cantidadGlobal.decrementAndGet();
+            }
+        }
+
+        private long cantidad(Curso curso) {
+            return curso == null ? cantidadGlobal.get() : cantidadPorCurso.get(curso).get();
+        }
+
+        private void aplicar(EventoTopico evento) {
+            switch (evento.tipo()) {
+                case CREADO -> poner(new ResumenTopico(evento.idTopico(), evento.titulo(),
+                        ResumenTopico.aMillis(evento.fecha()), evento.status(), evento.curso(), evento.deltaMensajes()));
+                case CERRADO -> quitar(evento.idTopico());
+                default -> {
+                    ResumenTopico anterior = porId.get(evento.idTopico());
+                    if (anterior != null) {
+                        long fecha = evento.fecha() != null ? ResumenTopico.aMillis(evento.fecha()) : anterior.fechaMillis();
+                        String status = evento.status() != null ? evento.status() : anterior.status();
+                        poner(anterior.conCambios(fecha, status, evento.deltaMensajes()));
+                    }
+                }
+            }
+        }
+    }
+}
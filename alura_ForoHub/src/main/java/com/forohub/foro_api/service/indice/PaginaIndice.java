@@ -0,0 +1,9 @@
+package com.forohub.foro_api.service.indice;
+
+import java.util.List;
+
+/**
+ * Ids de una página de tópicos resuelta en memoria, en el orden del listado, junto con el total.
+ */
+public record PaginaIndice(List<Long> ids, long total) {
+}
@@ -0,0 +1,121 @@
+package com.forohub.foro_api.service.indice;
+
+import com.forohub.foro_api.model.Curso;
+
+import java.util.*;
+
+/**
+ * Ranking acotado de los tópicos con más actividad reciente, con puntajes que decaen
+ * exponencialmente con el tiempo.
+ *
+ * El puntaje se guarda como logaritmo en un marco de tiempo fijo: una actividad de peso w en el
+ * instante t suma w·e^(λt), y el puntaje actual es esa suma por e^(-λ·ahora). Como todos los
+ * puntajes decaen al mismo ritmo el orden no cambia con el paso del tiempo, así que nunca hace
+ * falta recalcularlos; el logaritmo evita el desbordamiento de e^(λt).
+ *
+ * Guarda como mucho {@code capacidad} tópicos con el algoritmo Space-Saving: un tópico que no
+ * está en el ranking desplaza al de menor puntaje y hereda ese puntaje como cota de error, de
+ * modo que un tópico con actividad sostenida termina entrando. Cada actualización cuesta
+ * O(log capacidad). No es seguro para hilos: el llamador sincroniza.
+ */
+public class RankingDecaido {
+
+    /**
+     * @param logPuntaje Logaritmo del puntaje en el marco fijo.
+     * @param logError Logaritmo del puntaje heredado al entrar desplazando a otro tópico, o -infinito.
+     */
+    public record Entrada(long id, String titulo, Curso curso, double logPuntaje, double logError) {
+    }
+
+    private static final Comparator<Entrada> POR_PUNTAJE = Comparator.comparingDouble(Entrada::logPuntaje)
+            .thenComparingLong(Entrada::id);
+
+    private final int capacidad;
+    private final Map<Long, Entrada> porId = new HashMap<>();
+    private final TreeSet<Entrada> orden = new TreeSet<>(POR_PUNTAJE);
+
+    public RankingDecaido(int capacidad) {
+        this.capacidad = capacidad;
+    }
+
+    /**
+     * Suma actividad a un tópico.
+     *
+     * @param logIncremento Logaritmo del peso de la actividad en el marco fijo.
+     * @param titulo Título, o null para conservar el conocido.
+     * @param curso Curso, o null para conservar el conocido.
+     */
+    public void sumar(long id, String titulo, Curso curso, double logIncremento) {
+        Entrada anterior = porId.get(id);
+        Entrada nueva;
+        if (anterior != null) {
+            orden.remove(anterior);
+            nueva = new Entrada(id, titulo != null ? titulo : anterior.titulo(), curso != null ? curso : anterior.curso(),
+                    sumaLogaritmica(anterior.logPuntaje(), logIncremento), anterior.logError());
+        } else if (porId.size() < capacidad) {
+            nueva = new Entrada(id, titulo, curso, logIncremento, Double.NEGATIVE_INFINITY);
+        } else {
+            Entrada minimo = orden.pollFirst();
+            porId.remove(minimo.id());
+            nueva = new Entrada(id, titulo, curso, sumaLogaritmica(minimo.logPuntaje(), logIncremento), minimo.logPuntaje());
+        }
+        porId.put(id, nueva);
+        orden.add(nueva);
+    }
+
+    /**
+     * Restaura una entrada guardada, si tiene lugar o supera a la de menor puntaje.
+     */
+    public void restaurar(Entrada entrada) {
+        Entrada anterior = porId.remove(entrada.id());
+        if (anterior != null) {
+            orden.remove(anterior);
+        }
+        if (porId.size() >= capacidad) {
+            if (orden.isEmpty() || POR_PUNTAJE.compare(entrada, orden.first()) <= 0) {
+                return;
+            }
+            porId.remove(orden.pollFirst().id());
+        }
+        porId.put(entrada.id(), entrada);
+        orden.add(entrada);
+    }
+
+    public void quitar(long id) {
+        Entrada anterior = porId.remove(id);
+        if (anterior != null) {
+            orden.remove(anterior);
+        }
+    }
+
+    public Optional<Entrada> buscar(long id) {
+        return Optional.ofNullable(porId.get(id));
+    }
+
+    /**
+     * @return Las {@code cantidad} entradas de mayor puntaje, de mayor a menor.
+     */
+    public List<Entrada> primeros(int cantidad) {
+        List<Entrada> resultado = new ArrayList<>(Math.min(cantidad, orden.size()));
+        Iterator<Entrada> it = orden.descendingIterator();
+        while (it.hasNext() && resultado.size() < cantidad) {
+            resultado.add(it.next());
+        }
+        return resultado;
+    }
+
+    public int tamanio() {
+        return porId.size();
+    }
+
+    /**
+     * log(e^a + e^b) sin desbordamiento.
+     */
+    static double sumaLogaritmica(double a, double b) {
+        double mayor = Math.max(a, b);
+        if (mayor == Double.NEGATIVE_INFINITY) {
+            return mayor;
+        }
+        return mayor + Math.log1p(Math.exp(Math.min(a, b) - mayor));
+    }
+}
@@ -0,0 +1,43 @@
+package com.forohub.foro_api.service.indice;
+
+import com.forohub.foro_api.model.Curso;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+
+/**
+ * Resumen compacto e inmutable de un tópico activo. La fecha se guarda como milisegundos
+ * para no retener un LocalDateTime (tres objetos) por entrada.
+ */
+public record ResumenTopico(
+        long id,
+        String titulo,
+        long fechaMillis,
+        String status,
+        Curso curso,
+        int mensajes) {
+
+    // Orden de los listados: fecha y, a igualdad de fecha, id
+    public static final Comparator<ResumenTopico> POR_FECHA = Comparator
+            .comparingLong(ResumenTopico::fechaMillis)
+            .thenComparingLong(ResumenTopico::id);
+
+    // Constructor usado por la consulta JPQL de carga inicial
+    public ResumenTopico(Long id, String titulo, LocalDateTime fecha, String status, Curso curso, Integer mensajes) {
+        this(id, titulo, aMillis(fecha), status, curso, mensajes);
+    }
+
+    public LocalDateTime fecha() {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(fechaMillis, 1000L),
+                (int) Math.floorMod(fechaMillis, 1000L) * 1_000_000, ZoneOffset.UTC);
+    }
+
+    public ResumenTopico conCambios(long nuevaFechaMillis, String nuevoStatus, int deltaMensajes) {
+        return new ResumenTopico(id, titulo, nuevaFechaMillis, nuevoStatus, curso, Math.max(0, mensajes + deltaMensajes));
+    }
+
+    public static long aMillis(LocalDateTime fecha) {
+        return fecha.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
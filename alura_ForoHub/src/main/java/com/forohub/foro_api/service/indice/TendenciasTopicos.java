@@ -0,0 +1,326 @@
+package com.forohub.foro_api.service.indice;
+
+import com.forohub.foro_api.dto.DatosTendenciaTopico;
+import com.forohub.foro_api.infra.cache.CacheLocal;
+import com.forohub.foro_api.infra.cache.RegistroCambios;
+import com.forohub.foro_api.infra.shard.MapaShards;
+import com.forohub.foro_api.model.Curso;
+import com.forohub.foro_api.service.eventos.EventoTopico;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Tópicos en tendencia: los de más mensajes recientes, global y por curso, con una vida media
+ * configurable (un mensaje de hace una vida media vale la mitad que uno de ahora).
+ *
+ * Se alimenta de los eventos que TopicoService publica tras cada commit, sin consultar la base
+ * de datos: cada mensaje o tópico nuevo actualiza el ranking global y el de su curso en
+ * O(log k). Cada nodo cuenta solo las escrituras que atiende: cada cierto tiempo reemplaza sus
+ * filas en tendencias_topicos (shard principal, una fila por ámbito, tópico y nodo) y lee las de
+ * los demás nodos, y el puntaje publicado es la suma de su parte en vivo y la de los otros
+ * nodos al último guardado. Al arrancar recupera su propia parte si conserva el id de nodo; las
+ * filas de una instancia anterior con otro id siguen sumando como las de un nodo más hasta
+ * decaer.
+ *
+ * Los cierres en otros nodos llegan por el registro de cambios: si un tópico modificado ya no
+ * está activo se quita de los rankings y sus filas se borran en el siguiente guardado.
+ */
+@Component
+public class TendenciasTopicos implements CacheLocal {
+
+    private static final Logger log = LoggerFactory.getLogger(TendenciasTopicos.class);
+    private static final String GLOBAL = "GLOBAL";
+    // Origen fijo del marco de tiempo de los puntajes; debe ser el mismo en todos los nodos
+    private static final long ORIGEN_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final MapaShards mapaShards;
+    private final TransactionTemplate transactionTemplate;
+    private final String nodo;
+    private final double lambdaPorHora;
+    private final int maximo;
+    private final boolean habilitado;
+
+    private final RankingDecaido global;
+    private final Map<Curso, RankingDecaido> porCurso = new EnumMap<>(Curso.class);
+    // Parte de los demás nodos al último guardado, por ámbito y tópico
+    private final Map<String, Map<Long, RankingDecaido.Entrada>> ajenos = new HashMap<>();
+    private final Set<Long> cerradosPendientes = new HashSet<>();
+
+    public TendenciasTopicos(JdbcTemplate jdbcTemplate,
+                             MapaShards mapaShards,
+                             PlatformTransactionManager transactionManager,
+                             RegistroCambios registroCambios,
+                             @Value("${forohub.tendencias.vida-media-horas:6}") double vidaMediaHoras,
+                             @Value("${forohub.tendencias.maximo:50}") int maximo,
+                             @Value("${forohub.tendencias.habilitado:true}") boolean habilitado) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.mapaShards = mapaShards;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.nodo = registroCambios.nodo();
+        this.lambdaPorHora = Math.log(2) / vidaMediaHoras;
+        this.maximo = maximo;
+        this.habilitado = habilitado;
+        // Margen sobre el máximo publicado para que el Space-Saving tenga dónde descartar
+        this.global = new RankingDecaido(maximo * 4);
+        for (Curso curso : Curso.values()) {
+            porCurso.put(curso, new RankingDecaido(maximo * 4));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void alConfirmarCambio(EventoTopico evento) {
+        if (!habilitado) {
+            return;
+        }
+        switch (evento.tipo()) {
+            case CREADO, MENSAJE_AGREGADO, ACTUALIZADO -> {
+                if (evento.deltaMensajes() > 0) {
+                    sumar(evento.idTopico(), evento.titulo(), evento.curso(), evento.deltaMensajes());
+                }
+            }
+            case CERRADO -> quitar(evento.idTopico());
+            default -> {
+            }
+        }
+    }
+
+    @Override
+    public String entidad() {
+        return RegistroCambios.TOPICO;
+    }
+
+    /**
+     * Quita el tópico modificado en otro nodo si está en algún ranking y ya no sigue activo.
+     */
+    @Override
+    public void invalidar(String clave) {
+        long id = Long.parseLong(clave);
+        synchronized (this) {
+            if (!habilitado || !contiene(id)) {
+                return;
+            }
+        }
+        if (activos(List.of(id)).isEmpty()) {
+            synchronized (this) {
+                quitar(id);
+            }
+        }
+    }
+
+    /**
+     * Comprueba de una vez todos los tópicos de los rankings, por ejemplo tras perder cambios.
+     */
+    @Override
+    public void invalidarTodo() {
+        if (!habilitado) {
+            return;
+        }
+        Set<Long> ids = new HashSet<>();
+        synchronized (this) {
+            agregarIds(ids, global);
+            porCurso.values().forEach(ranking -> agregarIds(ids, ranking));
+            ajenos.values().forEach(entradas -> ids.addAll(entradas.keySet()));
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        ids.removeAll(activos(ids));
+        synchronized (this) {
+            ids.forEach(this::quitar);
+        }
+    }
+
+    private Set<Long> activos(Collection<Long> ids) {
+        Set<Long> activos = new HashSet<>();
+        mapaShards.agruparPorShard(ids).forEach((shard, idsShard) -> activos.addAll(mapaShards.en(shard, () ->
+                namedJdbcTemplate.queryForList("SELECT id FROM topicos WHERE id IN (:ids) AND status <> 'CERRADO'",
+                        Map.of("ids", idsShard), Long.class))));
+        return activos;
+    }
+
+    private boolean contiene(long id) {
+        return global.buscar(id).isPresent()
+                || porCurso.values().stream().anyMatch(ranking -> ranking.buscar(id).isPresent())
+                || ajenos.values().stream().anyMatch(entradas -> entradas.containsKey(id));
+    }
+
+    private void quitar(long id) {
+        global.quitar(id);
+        porCurso.values().forEach(ranking -> ranking.quitar(id));
+        ajenos.values().forEach(entradas -> entradas.remove(id));
+        cerradosPendientes.add(id);
+    }
+
+    private static void agregarIds(Set<Long> ids, RankingDecaido ranking) {
+        ranking.primeros(ranking.tamanio()).forEach(entrada -> ids.add(entrada.id()));
+    }
+
+    private void sumar(long id, String titulo, Curso curso, int mensajes) {
+        double logIncremento = lambdaPorHora * horas(System.currentTimeMillis()) + Math.log(mensajes);
+        // Las actualizaciones masivas no traen el curso: se toma el que ya conoce el ranking global
+        Curso cursoTopico = curso != null ? curso : global.buscar(id).map(RankingDecaido.Entrada::curso).orElse(null);
+        global.sumar(id, titulo, cursoTopico, logIncremento);
+        if (cursoTopico != null) {
+            porCurso.get(cursoTopico).sumar(id, titulo, cursoTopico, logIncremento);
+        }
+    }
+
+    /**
+     * @param curso Curso a filtrar o null para todos.
+     * @param limite Cantidad máxima de tópicos.
+     * @return Los tópicos en tendencia con su puntaje actual, el mayor primero.
+     */
+    public synchronized List<DatosTendenciaTopico> tendencias(Curso curso, int limite) {
+        RankingDecaido ranking = curso == null ? global : porCurso.get(curso);
+        Map<Long, RankingDecaido.Entrada> combinadas = new HashMap<>(ajenos.getOrDefault(curso == null ? GLOBAL : curso.name(), Map.of()));
+        for (RankingDecaido.Entrada propia : ranking.primeros(ranking.tamanio())) {
+            combinadas.merge(propia.id(), propia, TendenciasTopicos::combinar);
+        }
+        double ahora = lambdaPorHora * horas(System.currentTimeMillis());
+        return combinadas.values().stream()
+                .sorted(Comparator.comparingDouble(RankingDecaido.Entrada::logPuntaje).reversed())
+                .limit(Math.max(1, Math.min(limite, maximo)))
+                .map(entrada -> new DatosTendenciaTopico(entrada.id(), entrada.titulo(), entrada.curso(),
+                        Math.exp(entrada.logPuntaje() - ahora)))
+                .toList();
+    }
+
+    private static RankingDecaido.Entrada combinar(RankingDecaido.Entrada a, RankingDecaido.Entrada b) {
+        return new RankingDecaido.Entrada(a.id(), b.titulo() != null ? b.titulo() : a.titulo(),
+                b.curso() != null ? b.curso() : a.curso(),
+                RankingDecaido.sumaLogaritmica(a.logPuntaje(), b.logPuntaje()),
+                RankingDecaido.sumaLogaritmica(a.logError(), b.logError()));
+    }
+
+    /**
+     * Recupera la parte propia de los rankings (si este nodo conserva su id) y la de los demás nodos.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarAlIniciar() {
+        if (!habilitado) {
+            return;
+        }
+        try {
+            List<String> ambitos = new ArrayList<>(List.of(GLOBAL));
+            Arrays.stream(Curso.values()).map(Curso::name).forEach(ambitos::add);
+            int cargadas = 0;
+            try (MapaShards.Alcance alcance = mapaShards.usar(MapaShards.PRINCIPAL)) {
+                for (String ambito : ambitos) {
+                    List<RankingDecaido.Entrada> entradas = jdbcTemplate.query(
+                            "SELECT id_topico, titulo, curso, log_puntaje, log_error FROM tendencias_topicos " +
+                                    "WHERE ambito = ? AND nodo = ? ORDER BY log_puntaje DESC LIMIT ?",
+                            (rs, i) -> new RankingDecaido.Entrada(rs.getLong("id_topico"), rs.getString("titulo"),
+                                    rs.getString("curso") == null ? null : Curso.valueOf(rs.getString("curso")),
+                                    rs.getDouble("log_puntaje"),
+                                    rs.getObject("log_error") == null ? Double.NEGATIVE_INFINITY : rs.getDouble("log_error")),
+                            ambito, nodo, maximo * 4);
+                    synchronized (this) {
+                        RankingDecaido ranking = GLOBAL.equals(ambito) ? global : porCurso.get(Curso.valueOf(ambito));
+                        entradas.forEach(ranking::restaurar);
+                    }
+                    cargadas += entradas.size();
+                }
+                refrescarAjenos();
+            }
+            log.info("Rankings de tendencias recuperados con {} entradas propias", cargadas);
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron recuperar los rankings de tendencias; empiezan vacíos", e);
+        }
+    }
+
+    /**
+     * Reemplaza las filas de este nodo, quita los tópicos cerrados, descarta las filas cuyo
+     * puntaje ya decayó por debajo de una centésima de mensaje y vuelve a leer la parte de los
+     * demás nodos.
+     */
+    @Scheduled(fixedDelayString = "${forohub.tendencias.guardado-ms:60000}",
+            initialDelayString = "${forohub.tendencias.guardado-ms:60000}")
+    public void guardar() {
+        if (!habilitado) {
+            return;
+        }
+        List<Object[]> filas = new ArrayList<>();
+        List<Long> cerrados;
+        synchronized (this) {
+            agregarFilas(filas, GLOBAL, global);
+            porCurso.forEach((curso, ranking) -> agregarFilas(filas, curso.name(), ranking));
+            cerrados = new ArrayList<>(cerradosPendientes);
+            cerradosPendientes.clear();
+        }
+        double umbral = lambdaPorHora * horas(System.currentTimeMillis()) + Math.log(0.01);
+        try (MapaShards.Alcance alcance = mapaShards.usar(MapaShards.PRINCIPAL)) {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Los rankings en memoria tienen toda la parte de este nodo: sus filas se reemplazan, no se acumulan
+                jdbcTemplate.update("DELETE FROM tendencias_topicos WHERE nodo = ?", nodo);
+                jdbcTemplate.batchUpdate("INSERT INTO tendencias_topicos (ambito, nodo, id_topico, titulo, curso, log_puntaje, log_error) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?)", filas);
+                for (Long id : cerrados) {
+                    jdbcTemplate.update("DELETE FROM tendencias_topicos WHERE id_topico = ?", id);
+                }
+                jdbcTemplate.update("DELETE FROM tendencias_topicos WHERE log_puntaje < ?", umbral);
+            });
+            refrescarAjenos();
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                cerradosPendientes.addAll(cerrados);
+            }
+            log.warn("No se pudieron guardar los rankings de tendencias; se reintentará", e);
+        }
+    }
+
+    /**
+     * Lee las filas de los demás nodos sumando, por ámbito, las de un mismo tópico.
+     * Debe llamarse con el shard principal en uso.
+     */
+    private void refrescarAjenos() {
+        Map<String, Map<Long, RankingDecaido.Entrada>> leidos = new HashMap<>();
+        jdbcTemplate.query("SELECT ambito, id_topico, titulo, curso, log_puntaje, log_error FROM tendencias_topicos WHERE nodo <> ?",
+                rs -> {
+                    RankingDecaido.Entrada entrada = new RankingDecaido.Entrada(rs.getLong("id_topico"), rs.getString("titulo"),
+                            rs.getString("curso") == null ? null : Curso.valueOf(rs.getString("curso")),
+                            rs.getDouble("log_puntaje"),
+                            rs.getObject("log_error") == null ? Double.NEGATIVE_INFINITY : rs.getDouble("log_error"));
+                    leidos.computeIfAbsent(rs.getString("ambito"), ambito -> new HashMap<>())
+                            .merge(entrada.id(), entrada, TendenciasTopicos::combinar);
+                }, nodo);
+        ponerAjenos(leidos);
+    }
+
+    synchronized void ponerAjenos(Map<String, Map<Long, RankingDecaido.Entrada>> leidos) {
+        ajenos.clear();
+        leidos.forEach((ambito, entradas) -> {
+            Map<Long, RankingDecaido.Entrada> vigentes = new HashMap<>(entradas);
+            // Un cierre aún sin guardar no debe volver con las filas de otro nodo
+            vigentes.keySet().removeAll(cerradosPendientes);
+            ajenos.put(ambito, vigentes);
+        });
+    }
+
+    private void agregarFilas(List<Object[]> filas, String ambito, RankingDecaido ranking) {
+        for (RankingDecaido.Entrada entrada : ranking.primeros(ranking.tamanio())) {
+            filas.add(new Object[]{ambito, nodo, entrada.id(), entrada.titulo(),
+                    entrada.curso() == null ? null : entrada.curso().name(), entrada.logPuntaje(),
+                    Double.isInfinite(entrada.logError()) ? null : entrada.logError()});
+        }
+    }
+
+    private static double horas(long millis) {
+        return (millis - ORIGEN_MILLIS) / 3_600_000.0;
+    }
+}
@@ -0,0 +1,10 @@
+-- El contenido pasa a binario: las filas existentes conservan sus bytes UTF-8, que el
+-- conversor lee como texto plano; los mensajes largos se guardan comprimidos con un byte de formato
+ALTER TABLE mensajes
+    MODIFY contenido MEDIUMBLOB NOT NULL,
+    ADD COLUMN extracto VARCHAR(200) NULL;
+
+ALTER TABLE mensajes_archivados
+    MODIFY contenido MEDIUMBLOB NOT NULL;
+
+INSERT INTO archivo_progreso (nombre, ultimo_id) VALUES ('mensajes_compresion', 0);
@@ -0,0 +1,12 @@
+-- Último estado guardado de los rankings de tendencias en memoria, uno por curso y uno global
+CREATE TABLE tendencias_topicos (
+    ambito VARCHAR(20) NOT NULL,
+    id_topico BIGINT NOT NULL,
+    titulo VARCHAR(255),
+    curso VARCHAR(20),
+    log_puntaje DOUBLE NOT NULL,
+    log_error DOUBLE,
+    actualizado TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (ambito, id_topico),
+    INDEX idx_tendencias_puntaje (ambito, log_puntaje)
+);
@@ -0,0 +1,33 @@
+-- Agregados por curso para /estadisticas. TopicoService los actualiza en la misma transacción
+-- que cada escritura y cada shard guarda los de sus cursos; el perfil reconstruir-estadisticas
+-- los recalcula desde topicos, mensajes y las tablas de archivo
+CREATE TABLE estadisticas_estados (
+    curso ENUM('JAVA', 'JAVASCRIPT', 'MYSQL', 'SOFTSKILLS', 'CSS') NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    topicos BIGINT NOT NULL,
+    PRIMARY KEY (curso, status)
+);
+
+CREATE TABLE estadisticas_horas (
+    curso ENUM('JAVA', 'JAVASCRIPT', 'MYSQL', 'SOFTSKILLS', 'CSS') NOT NULL,
+    hora DATETIME NOT NULL,
+    topicos_creados BIGINT NOT NULL DEFAULT 0,
+    mensajes BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (curso, hora)
+);
+
+-- Histograma de demoras hasta la primera respuesta; ver HistogramaLatencias
+CREATE TABLE estadisticas_primera_respuesta (
+    curso ENUM('JAVA', 'JAVASCRIPT', 'MYSQL', 'SOFTSKILLS', 'CSS') NOT NULL,
+    cubeta SMALLINT NOT NULL,
+    topicos BIGINT NOT NULL,
+    PRIMARY KEY (curso, cubeta)
+);
+
+CREATE TABLE estadisticas_autores (
+    curso ENUM('JAVA', 'JAVASCRIPT', 'MYSQL', 'SOFTSKILLS', 'CSS') NOT NULL,
+    autor VARCHAR(255) NOT NULL,
+    mensajes BIGINT NOT NULL,
+    PRIMARY KEY (curso, autor),
+    INDEX idx_estadisticas_autores_mensajes (curso, mensajes)
+);
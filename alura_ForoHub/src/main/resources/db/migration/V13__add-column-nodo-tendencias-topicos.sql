@@ -0,0 +1,6 @@
+-- Cada nodo guarda su propia parte de los rankings; el puntaje de un tópico es la suma de las filas de todos los nodos
+ALTER TABLE tendencias_topicos
+    ADD COLUMN nodo VARCHAR(100) NOT NULL DEFAULT '' AFTER ambito,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (ambito, id_topico, nodo),
+    ADD INDEX idx_tendencias_nodo (nodo);
@@ -0,0 +1,3 @@
+-- Conserva el contador de vistas (V7) de los tópicos al archivarlos
+ALTER TABLE topicos_archivados
+ADD COLUMN vistas BIGINT NOT NULL DEFAULT 0 AFTER curso;
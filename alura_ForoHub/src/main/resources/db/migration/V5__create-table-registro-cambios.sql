@@ -0,0 +1,8 @@
+CREATE TABLE registro_cambios (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    entidad VARCHAR(50) NOT NULL,
+    clave VARCHAR(100) NOT NULL,
+    nodo VARCHAR(100) NOT NULL,
+    fecha TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_registro_cambios_fecha (fecha)
+);
@@ -0,0 +1,28 @@
+CREATE TABLE topicos_archivados (
+    id BIGINT PRIMARY KEY,
+    titulo VARCHAR(255) NOT NULL,
+    fecha DATETIME NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    autor VARCHAR(255) NOT NULL,
+    curso ENUM('JAVA', 'JAVASCRIPT', 'MYSQL', 'SOFTSKILLS', 'CSS') NOT NULL,
+    archivado_en TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE mensajes_archivados (
+    id BIGINT PRIMARY KEY,
+    contenido TEXT NOT NULL,
+    fecha TIMESTAMP NOT NULL,
+    autor VARCHAR(255) NOT NULL,
+    topico_id BIGINT NOT NULL,
+    INDEX idx_mensajes_archivados_topico (topico_id)
+);
+
+CREATE TABLE archivo_progreso (
+    nombre VARCHAR(50) PRIMARY KEY,
+    ultimo_id BIGINT NOT NULL,
+    actualizado_en TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
+
+INSERT INTO archivo_progreso (nombre, ultimo_id) VALUES ('topicos', 0);
+
+CREATE INDEX idx_topicos_status ON topicos (status);
@@ -0,0 +1,4 @@
+ALTER TABLE topicos
+ADD COLUMN vistas BIGINT NOT NULL DEFAULT 0;
+
+CREATE INDEX idx_topicos_vistas ON topicos (vistas);
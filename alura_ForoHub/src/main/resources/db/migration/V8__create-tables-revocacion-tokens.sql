@@ -0,0 +1,14 @@
+CREATE TABLE tokens_revocados (
+    jti VARCHAR(36) PRIMARY KEY,
+    usuario_id BIGINT NOT NULL,
+    expira TIMESTAMP NOT NULL,
+    INDEX idx_tokens_revocados_expira (expira)
+);
+
+CREATE TABLE revocaciones_usuario (
+    usuario_id BIGINT PRIMARY KEY,
+    revocado_desde TIMESTAMP NOT NULL
+);
+
+ALTER TABLE usuarios
+ADD COLUMN rol VARCHAR(20) NOT NULL DEFAULT 'USER';
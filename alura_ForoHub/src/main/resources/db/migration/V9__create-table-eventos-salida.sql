@@ -0,0 +1,16 @@
+CREATE TABLE eventos_salida (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    tipo VARCHAR(50) NOT NULL,
+    id_topico BIGINT NOT NULL,
+    datos TEXT NOT NULL,
+    fecha TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    estado VARCHAR(20) NOT NULL DEFAULT 'PENDIENTE',
+    intentos INT NOT NULL DEFAULT 0,
+    proximo_intento TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    nodo VARCHAR(100),
+    arriendo_hasta TIMESTAMP(3) NULL,
+    procesado TIMESTAMP(3) NULL,
+    ultimo_error VARCHAR(500),
+    INDEX idx_eventos_salida_estado (estado, id),
+    INDEX idx_eventos_salida_topico (id_topico, id)
+);
@@ -0,0 +1,42 @@
+package com.forohub.foro_api.infra.arranque;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RegimenEstableTest {
+
+	@Test
+	void esEstableCuandoLaLatenciaDejaDeBajar() {
+		RegimenEstable regimen = new RegimenEstable(20, 0.1, 3);
+		Random random = new Random(3);
+
+		// Latencia que cae a la mitad cada 60 mediciones hasta quedar en ~100 us
+		int i = 0;
+		while (!regimen.registrar(latencia(i, random)) && i < 1_000) {
+			i++;
+		}
+
+		assertThat(regimen.estable()).isTrue();
+		assertThat(regimen.estableDesde()).isBetween(300, 400);
+		assertThat(regimen.ultimaMediana()).isBetween(90_000L, 120_000L);
+	}
+
+	@Test
+	void noEsEstableMientrasLaLatenciaBaja() {
+		RegimenEstable regimen = new RegimenEstable(20, 0.1, 3);
+
+		for (int i = 0; i < 100; i++) {
+			regimen.registrar(10_000_000L >> (i / 20));
+		}
+
+		assertThat(regimen.estable()).isFalse();
+	}
+
+	private static long latencia(int i, Random random) {
+		long base = Math.max(100_000L, 3_200_000L >> (i / 60));
+		return base + random.nextInt(5_000);
+	}
+}
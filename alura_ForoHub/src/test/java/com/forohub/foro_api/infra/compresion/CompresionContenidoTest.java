@@ -0,0 +1,53 @@
+package com.forohub.foro_api.infra.compresion;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompresionContenidoTest {
+
+	@Test
+	void losMensajesCortosQuedanComoTextoPlano() {
+		String texto = "¿Cómo configuro el DataSource?";
+
+		byte[] datos = CompresionContenido.codificar(texto);
+
+		assertThat(datos).isEqualTo(texto.getBytes(StandardCharsets.UTF_8));
+		assertThat(CompresionContenido.decodificar(datos)).isEqualTo(texto);
+	}
+
+	@Test
+	void losMensajesLargosSeComprimenYVuelvenIguales() {
+		StringBuilder traza = new StringBuilder("java.lang.NullPointerException: ñandú\n");
+		for (int i = 0; i < 200; i++) {
+			traza.append("\tat com.forohub.foro_api.service.TopicoService.listarTopicos(TopicoService.java:").append(i).append(")\n");
+		}
+		String texto = traza.toString();
+
+		byte[] datos = CompresionContenido.codificar(texto);
+
+		assertThat(CompresionContenido.estaComprimido(datos)).isTrue();
+		assertThat(datos.length).isLessThan(texto.length() / 4);
+		assertThat(CompresionContenido.decodificar(datos)).isEqualTo(texto);
+	}
+
+	@Test
+	void unTextoQueEmpiezaConUnByteReservadoLlevaMarcador() {
+		String texto = "\u0001dato";
+
+		byte[] datos = CompresionContenido.codificar(texto);
+
+		assertThat(datos[0]).isZero();
+		assertThat(CompresionContenido.decodificar(datos)).isEqualTo(texto);
+	}
+
+	@Test
+	void elExtractoNoCortaUnParSustituto() {
+		String texto = "a".repeat(CompresionContenido.LARGO_EXTRACTO - 1) + "😀 resto";
+
+		assertThat(CompresionContenido.extracto(texto)).hasSize(CompresionContenido.LARGO_EXTRACTO - 1);
+		assertThat(CompresionContenido.extracto("corto")).isEqualTo("corto");
+	}
+}
@@ -0,0 +1,88 @@
+package com.forohub.foro_api.infra.formatos;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.forohub.foro_api.dto.DatosListadoMensaje;
+import com.forohub.foro_api.dto.DatosListadoTopico;
+import com.forohub.foro_api.model.Curso;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Compara tamaño y tiempos de codificación y decodificación de una página de 100 tópicos en
+ * JSON, CBOR y Smile, con los mismos mapeadores que FormatosBinariosConfiguration.
+ *
+ * No es una prueba: es un programa aparte para medir en la máquina que interesa, por ejemplo
+ * con {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.forohub.foro_api.infra.formatos.ComparacionFormatos [-Dexec.args=iteraciones]}.
+ * Los resultados dependen del JIT y de la máquina; para cifras publicables conviene JMH.
+ */
+public class ComparacionFormatos {
+
+	private static final TypeReference<List<DatosListadoTopico>> PAGINA = new TypeReference<>() {
+	};
+
+	public static void main(String[] args) throws Exception {
+		int iteraciones = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+		List<DatosListadoTopico> pagina = pagina(100);
+		Map<String, ObjectMapper> mapeadores = new LinkedHashMap<>();
+		mapeadores.put("JSON", Jackson2ObjectMapperBuilder.json().build());
+		mapeadores.put("CBOR", Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build());
+		mapeadores.put("Smile", Jackson2ObjectMapperBuilder.json().factory(FormatosBinariosConfiguration.fabricaSmile()).build());
+
+		for (Map.Entry<String, ObjectMapper> entrada : mapeadores.entrySet()) {
+			ObjectMapper mapeador = entrada.getValue();
+			byte[] bytes = mapeador.writeValueAsBytes(pagina);
+			if (!mapeador.readValue(bytes, PAGINA).equals(pagina)) {
+				throw new IllegalStateException("La página no vuelve igual en " + entrada.getKey());
+			}
+
+			for (int i = 0; i < iteraciones; i++) {
+				mapeador.readValue(mapeador.writeValueAsBytes(pagina), PAGINA);
+			}
+			long inicio = System.nanoTime();
+			for (int i = 0; i < iteraciones; i++) {
+				bytes = mapeador.writeValueAsBytes(pagina);
+			}
+			long codificar = (System.nanoTime() - inicio) / iteraciones;
+			inicio = System.nanoTime();
+			for (int i = 0; i < iteraciones; i++) {
+				mapeador.readValue(bytes, PAGINA);
+			}
+			long decodificar = (System.nanoTime() - inicio) / iteraciones;
+			System.out.printf("%-5s %7d B  codificar %6d us  decodificar %6d us%n",
+					entrada.getKey(), bytes.length, codificar / 1_000, decodificar / 1_000);
+		}
+	}
+
+	private static List<DatosListadoTopico> pagina(int cantidad) {
+		Random random = new Random(11);
+		Curso[] cursos = Curso.values();
+		LocalDateTime inicio = LocalDateTime.of(2024, 7, 1, 9, 0);
+		List<DatosListadoTopico> topicos = new ArrayList<>(cantidad);
+		for (int t = 0; t < cantidad; t++) {
+			List<DatosListadoMensaje> mensajes = new ArrayList<>();
+			int largo = 1 + random.nextInt(8);
+			for (int m = 0; m < largo; m++) {
+				mensajes.add(new DatosListadoMensaje((long) (t * 10 + m),
+						"Respuesta " + m + " sobre el error de compilación al configurar el proyecto con Spring Boot",
+						inicio.plusMinutes(t * 60L + m * 7L).withNano(random.nextInt(1000) * 1_000_000),
+						"usuario" + random.nextInt(500) + "@forohub.test"));
+			}
+			topicos.add(new DatosListadoTopico((long) t, "Duda número " + t + " sobre JPA y paginación", mensajes,
+					status(random), cursos[random.nextInt(cursos.length)]));
+		}
+		return topicos;
+	}
+
+	private static String status(Random random) {
+		return random.nextBoolean() ? "ABIERTO" : "ACTUALIZADO";
+	}
+}
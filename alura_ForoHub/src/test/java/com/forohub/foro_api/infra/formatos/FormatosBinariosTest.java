@@ -0,0 +1,164 @@
+package com.forohub.foro_api.infra.formatos;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.forohub.foro_api.controller.TopicoController;
+import com.forohub.foro_api.dto.DatosDetalleTopico;
+import com.forohub.foro_api.dto.DatosListadoMensaje;
+import com.forohub.foro_api.dto.DatosListadoTopico;
+import com.forohub.foro_api.dto.DatosRegistroTopico;
+import com.forohub.foro_api.infra.cache.RegistroCambios;
+import com.forohub.foro_api.infra.security.ListaRevocacion;
+import com.forohub.foro_api.infra.security.SecurityConfigurations;
+import com.forohub.foro_api.infra.security.TokenService;
+import com.forohub.foro_api.model.Curso;
+import com.forohub.foro_api.model.Topico;
+import com.forohub.foro_api.model.Usuario;
+import com.forohub.foro_api.repository.UsuarioRepository;
+import com.forohub.foro_api.service.ContadorVistas;
+import com.forohub.foro_api.service.TopicoService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Negociación de CBOR y Smile en los endpoints de tópicos: respuestas con el Accept de cada
+ * formato y un cuerpo CBOR en el alta. La comparación de tamaños y tiempos está en
+ * ComparacionFormatos, que se ejecuta aparte.
+ */
+@WebMvcTest(controllers = TopicoController.class,
+		properties = {"api.security.secret=secreto-de-prueba", "api.security.bcrypt.costo=4"})
+@Import({SecurityConfigurations.class, TokenService.class, ListaRevocacion.class, FormatosBinariosTest.Configuracion.class})
+class FormatosBinariosTest {
+
+	private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+	private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+	private static final LocalDateTime FECHA = LocalDateTime.of(2024, 7, 1, 9, 0);
+
+	private final ObjectMapper mapeadorCbor = new ObjectMapper(new CBORFactory()).findAndRegisterModules();
+	private final ObjectMapper mapeadorSmile = new ObjectMapper(FormatosBinariosConfiguration.fabricaSmile()).findAndRegisterModules();
+
+	@TestConfiguration
+	static class Configuracion {
+
+		@Bean
+		MeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+	}
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private TokenService tokenService;
+
+	@MockBean
+	private JdbcTemplate jdbcTemplate;
+
+	@MockBean
+	private RegistroCambios registroCambios;
+
+	@MockBean
+	private UsuarioRepository usuarioRepository;
+
+	@MockBean
+	private TopicoService topicoService;
+
+	@MockBean
+	private ContadorVistas contadorVistas;
+
+	private String token;
+
+	@BeforeEach
+	void autenticar() {
+		Usuario usuario = new Usuario();
+		usuario.setId(1L);
+		usuario.setEmail("ana@forohub.test");
+		when(usuarioRepository.findByEmail("ana@forohub.test")).thenReturn(usuario);
+		token = "Bearer " + tokenService.generarToken(usuario);
+	}
+
+	@Test
+	void elListadoSeNegociaEnCborYSmile() throws Exception {
+		DatosListadoTopico topico = new DatosListadoTopico(7L, "Duda sobre JPA", List.of(
+				new DatosListadoMensaje(70L, "Revisá el mapeo", FECHA, "luis@forohub.test")), "ABIERTO", Curso.JAVA);
+		when(topicoService.convertirAPagedModel(any(), any(), any())).thenReturn(
+				PagedModel.of(List.of(EntityModel.of(topico)), new PagedModel.PageMetadata(10, 0, 1)));
+
+		for (MediaType formato : List.of(CBOR, SMILE)) {
+			byte[] cuerpo = mockMvc.perform(get("/topicos").header("Authorization", token).accept(formato))
+					.andExpect(status().isOk())
+					.andExpect(content().contentTypeCompatibleWith(formato))
+					.andReturn().getResponse().getContentAsByteArray();
+
+			// Con la estructura HAL y las fechas como texto, igual que en JSON
+			JsonNode pagina = (formato == CBOR ? mapeadorCbor : mapeadorSmile).readTree(cuerpo);
+			assertThat(pagina.has("_embedded")).isTrue();
+			assertThat(pagina.findValue("titulo").asText()).isEqualTo("Duda sobre JPA");
+			assertThat(pagina.findValue("fecha").asText()).isEqualTo("2024-07-01T09:00:00");
+			assertThat(pagina.get("page").get("totalElements").asLong()).isEqualTo(1);
+		}
+	}
+
+	@Test
+	void elDetalleSeNegociaEnCborYSmile() throws Exception {
+		when(topicoService.buscarTopicoPorId(7L)).thenReturn(Optional.of(new DatosDetalleTopico(7L, "Duda sobre JPA",
+				FECHA, "ABIERTO", "ana@forohub.test", Curso.JAVA, List.of())));
+
+		for (MediaType formato : List.of(CBOR, SMILE)) {
+			byte[] cuerpo = mockMvc.perform(get("/topicos/7").header("Authorization", token).accept(formato))
+					.andExpect(status().isOk())
+					.andExpect(content().contentTypeCompatibleWith(formato))
+					.andReturn().getResponse().getContentAsByteArray();
+
+			JsonNode detalle = (formato == CBOR ? mapeadorCbor : mapeadorSmile).readTree(cuerpo);
+			assertThat(detalle.get("id").asLong()).isEqualTo(7);
+			assertThat(detalle.get("curso").asText()).isEqualTo("JAVA");
+		}
+	}
+
+	@Test
+	void elAltaAceptaUnCuerpoCbor() throws Exception {
+		DatosRegistroTopico datos = new DatosRegistroTopico("Duda sobre JPA", "¿Cómo mapeo un enum?", "ana@forohub.test", Curso.JAVA);
+		Topico topico = new Topico(datos);
+		ReflectionTestUtils.setField(topico, "id", 7L);
+		when(topicoService.registrarTopico(datos)).thenReturn(topico);
+
+		byte[] cuerpo = mockMvc.perform(post("/topicos").header("Authorization", token)
+						.contentType(CBOR).accept(CBOR).content(mapeadorCbor.writeValueAsBytes(datos)))
+				.andExpect(status().isCreated())
+				.andExpect(content().contentTypeCompatibleWith(CBOR))
+				.andReturn().getResponse().getContentAsByteArray();
+
+		verify(topicoService).registrarTopico(datos);
+		assertThat(mapeadorCbor.readValue(cuerpo, DatosRegistroTopico.class)).isEqualTo(datos);
+	}
+}
@@ -0,0 +1,96 @@
+package com.forohub.foro_api.infra.limite;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Escenario de carga simulado (tiempo virtual, semilla fija): un pool de 10 conexiones recibe
+ * 500 peticiones por segundo; a los 30 s la base de datos se vuelve 10 veces más lenta y la
+ * capacidad cae a 100 peticiones por segundo. Se mide el goodput, es decir, las respuestas por
+ * segundo que se completan dentro del SLA de 1 s.
+ */
+class LimiteAdaptativoTest {
+
+	private static final int CONEXIONES = 10;
+	private static final double LLEGADAS_POR_SEGUNDO = 500;
+	private static final long MS = 1_000_000L;
+	private static final long SLA = 1_000 * MS;
+	private static final long INICIO_LENTITUD = 30_000 * MS;
+	private static final long FIN = 90_000 * MS;
+
+	@Test
+	void conLimiteElGoodputSeMantieneDuranteLaLentitud() {
+		Resultado resultado = simular(new LimiteAdaptativo(50, 5, 400));
+
+		assertThat(resultado.goodputNormal).isGreaterThan(LLEGADAS_POR_SEGUNDO * 0.95);
+		assertThat(resultado.goodputLento).isGreaterThan(100 * 0.8);
+		assertThat(resultado.rechazos).isPositive();
+	}
+
+	@Test
+	void sinLimiteElGoodputColapsaDuranteLaLentitud() {
+		Resultado resultado = simular(null);
+
+		assertThat(resultado.goodputLento).isLessThan(100 * 0.2);
+	}
+
+	private static Resultado simular(LimiteAdaptativo limite) {
+		Random random = new Random(42);
+		PriorityQueue<long[]> finalizaciones = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+		ArrayDeque<Long> cola = new ArrayDeque<>();
+		int libres = CONEXIONES;
+		long rechazos = 0;
+		long dentroSlaNormal = 0;
+		long dentroSlaLento = 0;
+
+		long ahora = 0;
+		long proximaLlegada = 0;
+		while (ahora < FIN) {
+			// Procesar el próximo evento: una llegada o una finalización
+			boolean esLlegada = finalizaciones.isEmpty() || proximaLlegada <= finalizaciones.peek()[0];
+			if (esLlegada) {
+				ahora = proximaLlegada;
+				proximaLlegada += (long) (-Math.log(1 - random.nextDouble()) / LLEGADAS_POR_SEGUNDO * 1_000 * MS);
+				if (limite != null && !limite.adquirir()) {
+					rechazos++;
+					continue;
+				}
+				cola.add(ahora);
+			} else {
+				long[] fin = finalizaciones.poll();
+				ahora = fin[0];
+				long latencia = ahora - fin[1];
+				libres++;
+				if (limite != null) {
+					limite.liberar(latencia);
+				}
+				if (latencia <= SLA) {
+					if (fin[1] < INICIO_LENTITUD - 5_000 * MS) {
+						dentroSlaNormal++;
+					} else if (fin[1] >= INICIO_LENTITUD + 20_000 * MS) {
+						dentroSlaLento++;
+					}
+				}
+			}
+			// Asignar conexiones libres a las peticiones en espera
+			while (libres > 0 && !cola.isEmpty()) {
+				libres--;
+				long llegada = cola.poll();
+				long servicio = (ahora < INICIO_LENTITUD ? 10 : 100) * MS;
+				servicio += (long) (servicio * 0.2 * random.nextGaussian());
+				finalizaciones.add(new long[]{ahora + Math.max(MS, servicio), llegada});
+			}
+		}
+		double segundosNormal = (INICIO_LENTITUD - 5_000 * MS) / (1_000.0 * MS);
+		double segundosLento = (FIN - INICIO_LENTITUD - 20_000 * MS) / (1_000.0 * MS);
+		return new Resultado(dentroSlaNormal / segundosNormal, dentroSlaLento / segundosLento, rechazos);
+	}
+
+	private record Resultado(double goodputNormal, double goodputLento, long rechazos) {
+	}
+}
@@ -0,0 +1,20 @@
+package com.forohub.foro_api.infra.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BCryptCalibradoTest {
+
+	@Test
+	void soloSeRegeneranLosHashesDeCostoMenor() {
+		BCryptCalibrado encoder = new BCryptCalibrado(5, new SimpleMeterRegistry().timer("verificacion"));
+
+		assertThat(encoder.requiereRehash(BCrypt.hashpw("clave", BCrypt.gensalt(4)))).isTrue();
+		assertThat(encoder.requiereRehash(BCrypt.hashpw("clave", BCrypt.gensalt(5)))).isFalse();
+		// Un hash generado por un nodo calibrado con más costo no se baja
+		assertThat(encoder.requiereRehash(BCrypt.hashpw("clave", BCrypt.gensalt(6)))).isFalse();
+	}
+}
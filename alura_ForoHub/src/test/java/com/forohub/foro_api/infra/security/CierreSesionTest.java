@@ -0,0 +1,70 @@
+package com.forohub.foro_api.infra.security;
+
+import com.forohub.foro_api.controller.AuthenticationController;
+import com.forohub.foro_api.infra.cache.RegistroCambios;
+import com.forohub.foro_api.model.Usuario;
+import com.forohub.foro_api.repository.UsuarioRepository;
+import com.forohub.foro_api.service.UsuarioService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = AuthenticationController.class,
+		properties = {"api.security.secret=secreto-de-prueba", "api.security.bcrypt.costo=4"})
+@Import({SecurityConfigurations.class, TokenService.class, ListaRevocacion.class, CierreSesionTest.Configuracion.class})
+class CierreSesionTest {
+
+	@TestConfiguration
+	static class Configuracion {
+
+		@Bean
+		MeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+	}
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private TokenService tokenService;
+
+	@MockBean
+	private JdbcTemplate jdbcTemplate;
+
+	@MockBean
+	private RegistroCambios registroCambios;
+
+	@MockBean
+	private UsuarioRepository usuarioRepository;
+
+	@MockBean
+	private UsuarioService usuarioService;
+
+	@Test
+	void elTokenDejaDeSerAceptadoDespuesDelLogout() throws Exception {
+		Usuario usuario = new Usuario();
+		usuario.setId(1L);
+		usuario.setEmail("ana@forohub.test");
+		when(usuarioRepository.findByEmail("ana@forohub.test")).thenReturn(usuario);
+		String token = "Bearer " + tokenService.generarToken(usuario);
+
+		mockMvc.perform(post("/logout").header("Authorization", token))
+				.andExpect(status().isOk());
+
+		mockMvc.perform(post("/logout").header("Authorization", token))
+				.andExpect(status().isUnauthorized());
+	}
+}
@@ -0,0 +1,72 @@
+package com.forohub.foro_api.infra.security;
+
+import com.forohub.foro_api.controller.UsuarioController;
+import com.forohub.foro_api.infra.cache.RegistroCambios;
+import com.forohub.foro_api.model.Usuario;
+import com.forohub.foro_api.repository.UsuarioRepository;
+import com.forohub.foro_api.service.UsuarioService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = UsuarioController.class,
+		properties = {"api.security.secret=secreto-de-prueba", "api.security.bcrypt.costo=4"})
+@Import({SecurityConfigurations.class, TokenService.class, ListaRevocacion.class, UsuarioService.class,
+		RevocacionTokensTest.Configuracion.class})
+class RevocacionTokensTest {
+
+	@TestConfiguration
+	static class Configuracion {
+
+		@Bean
+		MeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+	}
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private TokenService tokenService;
+
+	@MockBean
+	private JdbcTemplate jdbcTemplate;
+
+	@MockBean
+	private RegistroCambios registroCambios;
+
+	@MockBean
+	private UsuarioRepository usuarioRepository;
+
+	@Test
+	void revocarLosTokensDeUnUsuarioInexistenteDevuelve404() throws Exception {
+		Usuario admin = new Usuario();
+		admin.setId(1L);
+		admin.setEmail("admin@forohub.test");
+		admin.setRol("ADMIN");
+		when(usuarioRepository.findByEmail("admin@forohub.test")).thenReturn(admin);
+		when(usuarioRepository.existsById(99L)).thenReturn(false);
+
+		mockMvc.perform(post("/usuarios/99/revocar-tokens").header("Authorization", "Bearer " + tokenService.generarToken(admin)))
+				.andExpect(status().isNotFound());
+
+		verify(jdbcTemplate, never()).update(startsWith("INSERT INTO revocaciones_usuario"), any(Object[].class));
+	}
+}
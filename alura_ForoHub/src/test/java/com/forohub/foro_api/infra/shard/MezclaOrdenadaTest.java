@@ -0,0 +1,46 @@
+package com.forohub.foro_api.infra.shard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MezclaOrdenadaTest {
+
+	@Test
+	void mezclaLasListasEnOrdenGlobal() {
+		List<List<Integer>> listas = List.of(List.of(1, 4, 7), List.of(), List.of(2, 3, 8, 9), List.of(5, 6));
+
+		assertThat(MezclaOrdenada.mezclar(listas, Comparator.naturalOrder(), 0, 20))
+				.containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9);
+		assertThat(MezclaOrdenada.mezclar(listas, Comparator.naturalOrder(), 3, 4))
+				.containsExactly(4, 5, 6, 7);
+	}
+
+	@Test
+	void cadaPaginaCoincideConOrdenarTodo() {
+		Random random = new Random(7);
+		List<List<Integer>> listas = new ArrayList<>();
+		List<Integer> todos = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			List<Integer> lista = new ArrayList<>();
+			for (int j = 0; j < 40; j++) {
+				lista.add(random.nextInt(1000));
+			}
+			lista.sort(Comparator.reverseOrder());
+			listas.add(lista);
+			todos.addAll(lista);
+		}
+		todos.sort(Comparator.reverseOrder());
+
+		for (int pagina = 0; pagina * 15 < todos.size(); pagina++) {
+			int desde = pagina * 15;
+			assertThat(MezclaOrdenada.mezclar(listas, Comparator.reverseOrder(), desde, 15))
+					.isEqualTo(todos.subList(desde, Math.min(desde + 15, todos.size())));
+		}
+	}
+}
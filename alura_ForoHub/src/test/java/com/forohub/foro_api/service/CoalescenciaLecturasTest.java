@@ -0,0 +1,100 @@
+package com.forohub.foro_api.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CoalescenciaLecturasTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private CoalescenciaLecturas coalescencia(long retencionMs) {
+		CoalescenciaLecturas coalescencia = new CoalescenciaLecturas(registry);
+		ReflectionTestUtils.setField(coalescencia, "habilitado", true);
+		ReflectionTestUtils.setField(coalescencia, "retencionMs", retencionMs);
+		return coalescencia;
+	}
+
+	@Test
+	void lasLecturasConcurrentesCompartenUnaSolaCarga() throws Exception {
+		CoalescenciaLecturas coalescencia = coalescencia(0);
+		AtomicInteger cargas = new AtomicInteger();
+		CountDownLatch enCurso = new CountDownLatch(1);
+		CountDownLatch liberar = new CountDownLatch(1);
+		ExecutorService hilos = Executors.newFixedThreadPool(16);
+		try {
+			Future<String> lider = hilos.submit(() -> coalescencia.ejecutar("detalle", () -> {
+				cargas.incrementAndGet();
+				enCurso.countDown();
+				esperar(liberar);
+				return "tópico";
+			}, 1L));
+			enCurso.await();
+			List<Future<String>> seguidores = new ArrayList<>();
+			for (int i = 0; i < 15; i++) {
+				seguidores.add(hilos.submit(() -> coalescencia.ejecutar("detalle", () -> {
+					cargas.incrementAndGet();
+					return "otra carga";
+				}, 1L)));
+			}
+			// Los seguidores quedan esperando el resultado del líder
+			while (registry.get("forohub.coalescencia.lecturas").tag("resultado", "compartida").counter().count() < 15) {
+				Thread.sleep(1);
+			}
+			liberar.countDown();
+
+			assertThat(lider.get(5, TimeUnit.SECONDS)).isEqualTo("tópico");
+			for (Future<String> seguidor : seguidores) {
+				assertThat(seguidor.get(5, TimeUnit.SECONDS)).isEqualTo("tópico");
+			}
+			assertThat(cargas.get()).isEqualTo(1);
+			assertThat(registry.get("forohub.coalescencia.proporcion").tag("operacion", "detalle").gauge().value())
+					.isEqualTo(15.0 / 16);
+		} finally {
+			hilos.shutdownNow();
+		}
+	}
+
+	@Test
+	void unaEscrituraConfirmadaImpideCompartirUnaCargaAnterior() throws Exception {
+		CoalescenciaLecturas coalescencia = coalescencia(60_000);
+		AtomicInteger cargas = new AtomicInteger();
+
+		assertThat(coalescencia.<Integer>ejecutar("listado", cargas::incrementAndGet, "pagina-0")).isEqualTo(1);
+		// Dentro de la retención se comparte el resultado recién terminado
+		assertThat(coalescencia.<Integer>ejecutar("listado", cargas::incrementAndGet, "pagina-0")).isEqualTo(1);
+		// Otros argumentos son otra lectura
+		assertThat(coalescencia.<Integer>ejecutar("listado", cargas::incrementAndGet, "pagina-1")).isEqualTo(2);
+
+		coalescencia.invalidarTodo();
+
+		assertThat(coalescencia.<Integer>ejecutar("listado", cargas::incrementAndGet, "pagina-0")).isEqualTo(3);
+	}
+
+	@Test
+	void unErrorSePropagaYNoQuedaRetenido() {
+		CoalescenciaLecturas coalescencia = coalescencia(60_000);
+
+		assertThatThrownBy(() -> coalescencia.ejecutar("detalle", () -> {
+			throw new IllegalStateException("sin conexión");
+		}, 7L)).isInstanceOf(IllegalStateException.class);
+
+		assertThat(coalescencia.ejecutar("detalle", () -> "recuperado", 7L)).isEqualTo("recuperado");
+	}
+
+	private static void esperar(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,45 @@
+package com.forohub.foro_api.service.estadisticas;
+
+import com.forohub.foro_api.model.Curso;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CambiosEstadisticasTest {
+
+	private static final LocalDateTime INICIAL = LocalDateTime.of(2024, 5, 6, 9, 15);
+
+	@Test
+	void eliminarLaPrimeraRespuestaCuentaLaSiguiente() {
+		LocalDateTime primera = INICIAL.plusSeconds(30);
+		LocalDateTime segunda = INICIAL.plusHours(5);
+		CambiosEstadisticas cambios = new CambiosEstadisticas()
+				.primerosMensajes(Curso.JAVA, List.of(INICIAL, primera), List.of(INICIAL, segunda));
+
+		assertThat(cambios.primerasRespuestas).containsEntry(clave(HistogramaLatencias.cubeta(30)), -1L)
+				.containsEntry(clave(HistogramaLatencias.cubeta(5 * 3600)), 1L);
+		// La creación sigue en la hora del mensaje inicial
+		assertThat(cambios.horas.get(new CambiosEstadisticas.Clave<>(Curso.JAVA, CambiosEstadisticas.hora(INICIAL))))
+				.isEqualTo(new CambiosEstadisticas.Hora(0, 0));
+	}
+
+	@Test
+	void eliminarElMensajeInicialMueveLaCreacion() {
+		LocalDateTime respuesta = INICIAL.plusHours(2);
+		CambiosEstadisticas cambios = new CambiosEstadisticas()
+				.primerosMensajes(Curso.JAVA, List.of(INICIAL, respuesta), List.of(respuesta));
+
+		assertThat(cambios.horas)
+				.containsEntry(new CambiosEstadisticas.Clave<>(Curso.JAVA, CambiosEstadisticas.hora(INICIAL)), new CambiosEstadisticas.Hora(-1, 0))
+				.containsEntry(new CambiosEstadisticas.Clave<>(Curso.JAVA, CambiosEstadisticas.hora(respuesta)), new CambiosEstadisticas.Hora(1, 0));
+		assertThat(cambios.primerasRespuestas).containsOnly(Map.entry(clave(HistogramaLatencias.cubeta(7200)), -1L));
+	}
+
+	private static CambiosEstadisticas.Clave<Integer> clave(int cubeta) {
+		return new CambiosEstadisticas.Clave<>(Curso.JAVA, cubeta);
+	}
+}
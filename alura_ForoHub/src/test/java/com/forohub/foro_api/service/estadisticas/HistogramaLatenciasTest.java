@@ -0,0 +1,53 @@
+package com.forohub.foro_api.service.estadisticas;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HistogramaLatenciasTest {
+
+	@Test
+	void cadaDemoraCaeDentroDeLosLimitesDeSuCubeta() {
+		Random random = new Random(3);
+		for (int i = 0; i < 100_000; i++) {
+			long segundos = i < 1_000 ? i : (long) Math.exp(random.nextDouble() * Math.log(400L * 86_400));
+			int cubeta = HistogramaLatencias.cubeta(segundos);
+
+			assertThat(segundos).isGreaterThanOrEqualTo(HistogramaLatencias.limiteInferior(cubeta))
+					.isLessThan(HistogramaLatencias.limiteSuperior(cubeta));
+		}
+		// Las cubetas son contiguas
+		for (int cubeta = 0; cubeta < 120; cubeta++) {
+			assertThat(HistogramaLatencias.limiteSuperior(cubeta)).isEqualTo(HistogramaLatencias.limiteInferior(cubeta + 1));
+		}
+	}
+
+	@Test
+	void laMedianaEstimadaQuedaCercaDeLaExacta() {
+		Random random = new Random(11);
+		long[] demoras = new long[10_001];
+		TreeMap<Integer, Long> cantidades = new TreeMap<>();
+		for (int i = 0; i < demoras.length; i++) {
+			// Demoras log-normales alrededor de una hora
+			demoras[i] = Math.round(Math.exp(Math.log(3_600) + random.nextGaussian() * 1.5));
+			cantidades.merge(HistogramaLatencias.cubeta(demoras[i]), 1L, Long::sum);
+		}
+		Arrays.sort(demoras);
+		long exacta = demoras[demoras.length / 2];
+
+		assertThat((double) HistogramaLatencias.mediana(cantidades)).isBetween(exacta * 0.9, exacta * 1.1);
+		assertThat(cantidades).hasSizeLessThan(100);
+	}
+
+	@Test
+	void sinDatosNoHayMediana() {
+		TreeMap<Integer, Long> cantidades = new TreeMap<>();
+		assertThat(HistogramaLatencias.mediana(cantidades)).isNull();
+		cantidades.put(12, 0L);
+		assertThat(HistogramaLatencias.mediana(cantidades)).isNull();
+	}
+}
@@ -0,0 +1,117 @@
+package com.forohub.foro_api.service.eventos;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.forohub.foro_api.infra.cache.RegistroCambios;
+import com.forohub.foro_api.infra.shard.MapaShards;
+import com.forohub.foro_api.infra.shard.PropiedadesShards;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DespachadorEventosTest {
+
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+	private final List<Long> entregados = new ArrayList<>();
+	private final List<Long> fallan = new ArrayList<>();
+
+	private final DespachadorEventos despachador = crear();
+
+	private DespachadorEventos crear() {
+		RegistroCambios registroCambios = mock(RegistroCambios.class);
+		when(registroCambios.nodo()).thenReturn("nodo-a");
+		ManejadorEventoForo manejador = new ManejadorEventoForo() {
+			@Override
+			public String nombre() {
+				return "prueba";
+			}
+
+			@Override
+			public void manejar(EventoForo evento) {
+				if (fallan.contains(evento.id())) {
+					throw new IllegalStateException("falla " + evento.id());
+				}
+				entregados.add(evento.id());
+			}
+		};
+		DespachadorEventos despachador = new DespachadorEventos(jdbcTemplate, mock(PlatformTransactionManager.class),
+				new ObjectMapper(), List.of(manejador), registroCambios,
+				new MapaShards(new PropiedadesShards(false, 10, 1, null, null)), new SimpleMeterRegistry(), 1);
+		ReflectionTestUtils.setField(despachador, "maximoIntentos", 3);
+		return despachador;
+	}
+
+	@AfterEach
+	void detener() throws InterruptedException {
+		despachador.detener();
+	}
+
+	@Test
+	void noSeReclamaUnEventoConUnoAnteriorDeSuTopicoFueraDelLote() throws Exception {
+		// Anteriores sin terminar de los tópicos 1, 2 y 3: 3 y 7 no están en el lote
+		List<long[]> anteriores = List.of(new long[]{3, 1}, new long[]{5, 1}, new long[]{6, 2}, new long[]{7, 2},
+				new long[]{9, 2}, new long[]{10, 3});
+		doAnswer(invocacion -> {
+			RowCallbackHandler manejador = invocacion.getArgument(1);
+			for (long[] fila : anteriores) {
+				ResultSet rs = mock(ResultSet.class);
+				when(rs.getLong("id")).thenReturn(fila[0]);
+				when(rs.getLong("id_topico")).thenReturn(fila[1]);
+				manejador.processRow(rs);
+			}
+			return null;
+		}).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+
+		List<DespachadorEventos.Fila> reclamados = despachador.respetarOrden(List.of(fila(5, 1), fila(6, 2), fila(9, 2), fila(10, 3)));
+
+		assertThat(reclamados).extracting(DespachadorEventos.Fila::id).containsExactly(6L, 10L);
+	}
+
+	@Test
+	void unFalloDetieneLosEventosSiguientesDeSuTopico() {
+		fallan.add(1L);
+
+		List<DespachadorEventos.Resultado> resultados = despachador.procesarCarril(List.of(
+				evento(1, 1, 0), evento(2, 2, 0), evento(3, 1, 0)));
+
+		assertThat(resultados).extracting(DespachadorEventos.Resultado::estado)
+				.containsExactly("FALLIDO", "PROCESADO", "PENDIENTE");
+		assertThat(entregados).containsExactly(2L);
+	}
+
+	@Test
+	void elUltimoIntentoFallidoDejaDeBloquearAlTopico() {
+		fallan.add(1L);
+
+		List<DespachadorEventos.Resultado> resultados = despachador.procesarCarril(List.of(
+				evento(1, 1, 2), evento(3, 1, 0)));
+
+		assertThat(resultados).extracting(DespachadorEventos.Resultado::estado).containsExactly("FALLIDO", "PROCESADO");
+		assertThat(entregados).containsExactly(3L);
+	}
+
+	private static DespachadorEventos.Fila fila(long id, long idTopico) {
+		return new DespachadorEventos.Fila(id, TipoEventoForo.MENSAJE_AGREGADO, idTopico, "{}",
+				Timestamp.valueOf(LocalDateTime.now()), 0);
+	}
+
+	private static EventoForo evento(long id, long idTopico, int intentos) {
+		return new EventoForo(id, TipoEventoForo.MENSAJE_AGREGADO, idTopico, null, LocalDateTime.now(), intentos);
+	}
+}
@@ -0,0 +1,52 @@
+package com.forohub.foro_api.service.indice;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArbolPrefijosTest {
+
+	private static ArbolPrefijos.Entrada<String> entrada(long id, long peso, String titulo) {
+		return new ArbolPrefijos.Entrada<>(id, peso, titulo);
+	}
+
+	private static List<String> titulos(List<ArbolPrefijos.Entrada<String>> entradas) {
+		return entradas.stream().map(ArbolPrefijos.Entrada::valor).toList();
+	}
+
+	@Test
+	void devuelveLasEntradasDeMayorPesoParaElPrefijo() {
+		ArbolPrefijos<String> arbol = new ArbolPrefijos<>(2);
+		arbol.insertar("error en jpa", entrada(1, 3, "Error en JPA"));
+		arbol.insertar("error en spring", entrada(2, 8, "Error en Spring"));
+		arbol.insertar("error de flyway", entrada(3, 5, "Error de Flyway"));
+		arbol.insertar("estilos css", entrada(4, 9, "Estilos CSS"));
+
+		assertThat(titulos(arbol.buscar("error", 10))).containsExactly("Error en Spring", "Error de Flyway");
+		assertThat(titulos(arbol.buscar("error e", 10))).containsExactly("Error en Spring", "Error en JPA");
+		assertThat(titulos(arbol.buscar("e", 1))).containsExactly("Estilos CSS");
+		assertThat(arbol.buscar("x", 10)).isEmpty();
+		assertThat(arbol.buscar("e", -1)).isEmpty();
+	}
+
+	@Test
+	void quitarActualizaElRankingYCompactaElArbol() {
+		ArbolPrefijos<String> arbol = new ArbolPrefijos<>(3);
+		arbol.insertar("error en jpa", entrada(1, 3, "Error en JPA"));
+		arbol.insertar("error en spring", entrada(2, 8, "Error en Spring"));
+
+		assertThat(arbol.quitar("error en spring", 2)).isTrue();
+		assertThat(arbol.quitar("error en spring", 2)).isFalse();
+
+		assertThat(titulos(arbol.buscar("error en", 10))).containsExactly("Error en JPA");
+		assertThat(titulos(arbol.buscar("error en j", 10))).containsExactly("Error en JPA");
+		assertThat(arbol.buscar("error en s", 10)).isEmpty();
+	}
+
+	@Test
+	void normalizaTildesYMayusculas() {
+		assertThat(IndiceSugerencias.normalizar("  Configuración   de  MÉTODOS ")).isEqualTo("configuracion de metodos");
+	}
+}
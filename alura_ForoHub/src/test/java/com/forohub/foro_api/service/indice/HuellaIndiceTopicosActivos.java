@@ -0,0 +1,68 @@
+package com.forohub.foro_api.service.indice;
+
+import com.forohub.foro_api.infra.shard.MapaShards;
+import com.forohub.foro_api.infra.shard.PropiedadesShards;
+import com.forohub.foro_api.model.Curso;
+import com.forohub.foro_api.repository.TopicoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Mide la memoria que ocupa IndiceTopicosActivos con una cantidad dada de tópicos activos
+ * (un millón por defecto) y títulos de 45 a 55 caracteres.
+ *
+ * No es una prueba: se ejecuta aparte, por ejemplo con {@code mvn test-compile exec:java
+ * -Dexec.classpathScope=test -Dexec.mainClass=com.forohub.foro_api.service.indice.HuellaIndiceTopicosActivos
+ * [-Dexec.args=topicos]}. Compara el heap ocupado tras varias recolecciones antes y después de
+ * construir el índice, así que conviene ejecutarlo con un heap holgado y nada más corriendo.
+ */
+public class HuellaIndiceTopicosActivos {
+
+	public static void main(String[] args) throws Exception {
+		int cantidad = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+		TopicoRepository topicoRepository = mock(TopicoRepository.class);
+		IndiceTopicosActivos indice = new IndiceTopicosActivos(topicoRepository,
+				new MapaShards(new PropiedadesShards(false, 10, 1, null, null)),
+				mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), true);
+
+		Random random = new Random(7);
+		Curso[] cursos = Curso.values();
+		LocalDateTime inicio = LocalDateTime.of(2024, 1, 1, 0, 0);
+		when(topicoRepository.streamResumenesActivos()).thenAnswer(invocacion -> LongStream.rangeClosed(1, cantidad)
+				.mapToObj(id -> new ResumenTopico(id, titulo(id, 45 + random.nextInt(11)), inicio.plusSeconds(id * 7),
+						random.nextBoolean() ? "ABIERTO" : "ACTUALIZADO", cursos[random.nextInt(cursos.length)],
+						random.nextInt(20))));
+
+		long antes = heapOcupado();
+		indice.reconstruir();
+		long despues = heapOcupado();
+
+		System.out.printf("%d tópicos: %.1f MB, %d B por tópico%n", indice.totalActivos(null).orElseThrow(),
+				(despues - antes) / 1e6, (despues - antes) / cantidad);
+	}
+
+	private static String titulo(long id, int largo) {
+		StringBuilder titulo = new StringBuilder("Duda ").append(id).append(" sobre configuración de Spring Boot y JPA");
+		while (titulo.length() < largo) {
+			titulo.append('.');
+		}
+		titulo.setLength(largo);
+		return titulo.toString();
+	}
+
+	private static long heapOcupado() throws InterruptedException {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 5; i++) {
+			System.gc();
+			Thread.sleep(200);
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
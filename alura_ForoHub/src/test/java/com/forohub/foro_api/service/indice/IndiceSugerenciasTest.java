@@ -0,0 +1,56 @@
+package com.forohub.foro_api.service.indice;
+
+import com.forohub.foro_api.dto.DatosSugerenciaTopico;
+import com.forohub.foro_api.infra.shard.MapaShards;
+import com.forohub.foro_api.infra.shard.PropiedadesShards;
+import com.forohub.foro_api.model.Curso;
+import com.forohub.foro_api.repository.TopicoRepository;
+import com.forohub.foro_api.service.eventos.EventoTopico;
+import com.forohub.foro_api.service.eventos.TipoEventoTopico;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IndiceSugerenciasTest {
+
+	private final TopicoRepository topicoRepository = mock(TopicoRepository.class);
+
+	private final IndiceSugerencias indice = new IndiceSugerencias(topicoRepository,
+			new MapaShards(new PropiedadesShards(false, 10, 1, null, null)),
+			mock(PlatformTransactionManager.class), 10, 60, true);
+
+	@Test
+	void losEventosRecibidosDuranteLaReconstruccionNoSePierden() {
+		LocalDateTime creado = LocalDateTime.of(2024, 3, 1, 10, 0);
+		when(topicoRepository.streamResumenesActivos()).thenAnswer(invocacion -> {
+			// La carga ya leyó el tópico 1 cuando se cierra y aún no ve el tópico 3 recién creado
+			indice.alConfirmarCambio(EventoTopico.cerrado(1L));
+			indice.alConfirmarCambio(new EventoTopico(TipoEventoTopico.CREADO, 3L, "Configuración de Spring",
+					Curso.JAVA, creado.plusHours(1), "ABIERTO", 0));
+			return Stream.of(
+					new ResumenTopico(1L, "Configurar Flyway", creado, "ABIERTO", Curso.JAVA, 4),
+					new ResumenTopico(2L, "Consultas con JPA", creado, "ABIERTO", Curso.JAVA, 1));
+		});
+
+		indice.reconstruir();
+
+		assertThat(indice.sugerir("con", null, 10)).extracting(DatosSugerenciaTopico::id).containsExactlyInAnyOrder(2L, 3L);
+	}
+
+	@Test
+	void unLimiteMenorQueUnoDevuelveUnaSugerencia() {
+		when(topicoRepository.streamResumenesActivos()).thenReturn(Stream.of(
+				new ResumenTopico(1L, "Configurar Flyway", LocalDateTime.of(2024, 3, 1, 10, 0), "ABIERTO", Curso.JAVA, 4),
+				new ResumenTopico(2L, "Consultas con JPA", LocalDateTime.of(2024, 3, 1, 10, 0), "ABIERTO", Curso.JAVA, 1)));
+		indice.reconstruir();
+
+		assertThat(indice.sugerir("con", null, -1)).extracting(DatosSugerenciaTopico::id).containsExactly(1L);
+		assertThat(indice.sugerir("con", Curso.JAVA, 0)).extracting(DatosSugerenciaTopico::id).containsExactly(1L);
+	}
+}
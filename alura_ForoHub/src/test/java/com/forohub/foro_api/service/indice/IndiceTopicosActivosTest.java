@@ -0,0 +1,50 @@
+package com.forohub.foro_api.service.indice;
+
+import com.forohub.foro_api.infra.shard.MapaShards;
+import com.forohub.foro_api.infra.shard.PropiedadesShards;
+import com.forohub.foro_api.model.Curso;
+import com.forohub.foro_api.repository.TopicoRepository;
+import com.forohub.foro_api.service.eventos.EventoTopico;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IndiceTopicosActivosTest {
+
+	private final TopicoRepository topicoRepository = mock(TopicoRepository.class);
+
+	private final IndiceTopicosActivos indice = new IndiceTopicosActivos(topicoRepository,
+			new MapaShards(new PropiedadesShards(false, 10, 1, null, null)),
+			mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), true);
+
+	@Test
+	void unTopicoCerradoQueSeActualizaVuelveALosListados() {
+		LocalDateTime creado = LocalDateTime.of(2024, 3, 1, 10, 0);
+		when(topicoRepository.streamResumenesActivos()).thenReturn(Stream.of(
+				new ResumenTopico(1L, "Duda con streams", creado, "ABIERTO", Curso.JAVA, 1),
+				new ResumenTopico(2L, "Error de Flyway", creado.plusMinutes(1), "ABIERTO", Curso.JAVA, 1)));
+		indice.reconstruir();
+
+		indice.alConfirmarCambio(EventoTopico.cerrado(1L));
+		assertThat(indice.pagina(Curso.JAVA, PageRequest.of(0, 10)).orElseThrow().ids()).containsExactly(2L);
+
+		LocalDateTime reabierto = creado.plusHours(1);
+		when(topicoRepository.findResumenActivo(1L)).thenReturn(Optional.of(
+				new ResumenTopico(1L, "Duda con streams", reabierto, "ACTUALIZADO", Curso.JAVA, 2)));
+		indice.alConfirmarCambio(EventoTopico.actualizado(1L, reabierto, 1));
+
+		assertThat(indice.pagina(Curso.JAVA, PageRequest.of(0, 10)).orElseThrow().ids()).isEqualTo(List.of(2L, 1L));
+		assertThat(indice.totalActivos(Curso.JAVA)).hasValue(2);
+		assertThat(indice.totalActivos(null)).hasValue(2);
+	}
+}
@@ -0,0 +1,64 @@
+package com.forohub.foro_api.service.indice;
+
+import com.forohub.foro_api.model.Curso;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class RankingDecaidoTest {
+
+	private static final double LAMBDA = Math.log(2);
+
+	@Test
+	void laActividadRecientePesaMasQueLaAntigua() {
+		RankingDecaido ranking = new RankingDecaido(10);
+
+		// Tres mensajes hace cuatro vidas medias contra uno recién llegado
+		for (int i = 0; i < 3; i++) {
+			ranking.sumar(1, "viejo", Curso.JAVA, LAMBDA * 0);
+		}
+		ranking.sumar(2, "nuevo", Curso.JAVA, LAMBDA * 4);
+
+		assertThat(ranking.primeros(2)).extracting(RankingDecaido.Entrada::id).containsExactly(2L, 1L);
+		assertThat(Math.exp(ranking.buscar(1).orElseThrow().logPuntaje() - LAMBDA * 4)).isCloseTo(3.0 / 16, within(1e-9));
+	}
+
+	@Test
+	void unTopicoConActividadSostenidaEntraAunqueElRankingEsteLleno() {
+		RankingDecaido ranking = new RankingDecaido(5);
+		Random random = new Random(5);
+
+		// Ruido de muchos tópicos con un mensaje cada uno y un tópico que recibe uno de cada cuatro mensajes
+		for (int i = 0; i < 2_000; i++) {
+			double t = LAMBDA * i / 100.0;
+			if (i % 4 == 0) {
+				ranking.sumar(999_999, "popular", Curso.MYSQL, t);
+			} else {
+				ranking.sumar(random.nextInt(100_000), null, Curso.CSS, t);
+			}
+		}
+
+		assertThat(ranking.tamanio()).isEqualTo(5);
+		assertThat(ranking.primeros(1).get(0).id()).isEqualTo(999_999L);
+	}
+
+	@Test
+	void restaurarRespetaLaCapacidad() {
+		RankingDecaido ranking = new RankingDecaido(2);
+		ranking.restaurar(new RankingDecaido.Entrada(1, "a", Curso.JAVA, 1.0, Double.NEGATIVE_INFINITY));
+		ranking.restaurar(new RankingDecaido.Entrada(2, "b", Curso.JAVA, 3.0, Double.NEGATIVE_INFINITY));
+		ranking.restaurar(new RankingDecaido.Entrada(3, "c", Curso.JAVA, 0.5, Double.NEGATIVE_INFINITY));
+		ranking.restaurar(new RankingDecaido.Entrada(4, "d", Curso.JAVA, 2.0, Double.NEGATIVE_INFINITY));
+
+		assertThat(ranking.primeros(5)).extracting(RankingDecaido.Entrada::id).containsExactly(2L, 4L);
+	}
+
+	@Test
+	void sumaLogaritmicaSinDesbordamiento() {
+		assertThat(RankingDecaido.sumaLogaritmica(5_000, 5_000)).isCloseTo(5_000 + Math.log(2), within(1e-9));
+		assertThat(RankingDecaido.sumaLogaritmica(Double.NEGATIVE_INFINITY, 1.5)).isEqualTo(1.5);
+	}
+}
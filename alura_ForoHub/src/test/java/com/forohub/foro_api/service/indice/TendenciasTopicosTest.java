@@ -0,0 +1,64 @@
+package com.forohub.foro_api.service.indice;
+
+import com.forohub.foro_api.infra.cache.RegistroCambios;
+import com.forohub.foro_api.infra.shard.MapaShards;
+import com.forohub.foro_api.infra.shard.PropiedadesShards;
+import com.forohub.foro_api.model.Curso;
+import com.forohub.foro_api.service.eventos.EventoTopico;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TendenciasTopicosTest {
+
+	// Vida media muy larga para que los puntajes no decaigan durante la prueba
+	private static final double SIN_DECAIMIENTO = 1e12;
+
+	private final TendenciasTopicos tendencias = crear();
+
+	private static TendenciasTopicos crear() {
+		RegistroCambios registroCambios = mock(RegistroCambios.class);
+		when(registroCambios.nodo()).thenReturn("nodo-a");
+		// El JdbcTemplate simulado no devuelve ningún tópico activo: todos cuentan como cerrados
+		return new TendenciasTopicos(mock(JdbcTemplate.class), new MapaShards(new PropiedadesShards(false, 10, 1, null, null)),
+				mock(PlatformTransactionManager.class), registroCambios, SIN_DECAIMIENTO, 10, true);
+	}
+
+	@Test
+	void elPuntajeSumaLaParteDeLosDemasNodos() {
+		tendencias.alConfirmarCambio(EventoTopico.actualizado(1L, LocalDateTime.now(), 2));
+		tendencias.ponerAjenos(Map.of("GLOBAL", new HashMap<>(Map.of(
+				1L, new RankingDecaido.Entrada(1L, "Duda con streams", Curso.JAVA, Math.log(3), Double.NEGATIVE_INFINITY),
+				2L, new RankingDecaido.Entrada(2L, "Error de Flyway", Curso.JAVA, Math.log(4), Double.NEGATIVE_INFINITY)))));
+
+		var resultado = tendencias.tendencias(null, 10);
+
+		assertThat(resultado).extracting("id").containsExactly(1L, 2L);
+		assertThat(resultado.get(0).puntaje()).isCloseTo(5.0, within(1e-6));
+		assertThat(resultado.get(0).titulo()).isEqualTo("Duda con streams");
+	}
+
+	@Test
+	void unCierreEnOtroNodoQuitaElTopicoAunqueOtrosNodosLoSigan() {
+		tendencias.alConfirmarCambio(EventoTopico.actualizado(1L, LocalDateTime.now(), 2));
+		tendencias.ponerAjenos(Map.of("GLOBAL", new HashMap<>(Map.of(
+				1L, new RankingDecaido.Entrada(1L, "Duda con streams", Curso.JAVA, Math.log(3), Double.NEGATIVE_INFINITY)))));
+
+		tendencias.invalidar("1");
+		assertThat(tendencias.tendencias(null, 10)).isEmpty();
+
+		// Las filas de otro nodo leídas antes de guardar el cierre no lo traen de vuelta
+		tendencias.ponerAjenos(Map.of("GLOBAL", new HashMap<>(Map.of(
+				1L, new RankingDecaido.Entrada(1L, "Duda con streams", Curso.JAVA, Math.log(3), Double.NEGATIVE_INFINITY)))));
+		assertThat(tendencias.tendencias(null, 10)).isEmpty();
+	}
+}